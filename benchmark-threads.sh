@@ -0,0 +1,32 @@
+#! /bin/bash
+# Compares platform threads, virtual threads and the non-blocking endpoints with many concurrent slow clients: the
+# application is started without a profile, then with the profile virtual-threads and then with the profile reactive,
+# and the same reads of polling clients are run against each. The requests are issued at a fixed total rate spread
+# over all the connections, so that each connection is mostly idle, as a slow client is; with a rate of 0 each
+# connection issues its requests back to back instead. Every process holds all the sockets, so the limit of open files
+# must allow it.
+# Usage: ./benchmark-threads.sh [connections] [seconds] [requests per second]
+set -e
+CONNECTIONS=${1:-10000}
+DURATION=${2:-60}
+RATE=${3:-2000}
+ulimit -n 65536 2>/dev/null || ulimit -n
+
+mvn -B -q package -DskipTests
+mvn -B -q -Ploadtest test-compile
+
+for MODE in platform virtual-threads reactive; do
+    PROFILE=default
+    if [ "$MODE" != "platform" ]; then
+        PROFILE=$MODE
+    fi
+    java -jar target/todo-list-app-0.1.0.jar --spring.profiles.active=$PROFILE > target/benchmark-$MODE.log 2>&1 &
+    APP=$!
+    until curl -s -o /dev/null http://localhost:8080/actuator/health; do
+        sleep 1
+    done
+    mvn -B -q -Ploadtest exec:exec -Dloadtest.args="--mix polling_read_only --threads $CONNECTIONS --virtual true \
+--rate $RATE --duration $DURATION --warmup 10 --output target/loadtest-$MODE.json"
+    kill $APP
+    wait $APP || true
+done
@@ -0,0 +1,78 @@
+package nice.benchmarks;
+
+import nice.constants.Status;
+import nice.entities.Task;
+import nice.entities.TodoList;
+import nice.entities.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the in-memory entities used by the benchmarks.
+ *
+ * @author danielctrenado@gmail.com
+ */
+final class Datasets {
+
+    /**
+     * Number of distinct users the tasks are assigned to.
+     */
+    static final int USERS = 500;
+
+    /**
+     * Number of tasks of each todolist.
+     */
+    static final int TASKS_PER_TODOLIST = 100;
+
+    private Datasets() {
+    }
+
+    /**
+     * Builds users with ids 1..size.
+     *
+     * @param size The number of users.
+     * @return The users.
+     */
+    static List<User> users(int size) {
+        List<User> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(new User(i, "user" + i));
+        }
+        return users;
+    }
+
+    /**
+     * Builds tasks with ids 1..size, cycling over the statuses and over {@link #USERS} users, one task in ten
+     * not assigned.
+     *
+     * @param size The number of tasks.
+     * @return The tasks.
+     */
+    static List<Task> tasks(int size) {
+        List<User> users = users(USERS);
+        Status[] statuses = Status.values();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            User user = i % 10 == 0 ? null : users.get(i % USERS);
+            tasks.add(new Task(i, "task" + i, "description of task " + i, statuses[i % statuses.length], user));
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits the tasks in todolists of {@link #TASKS_PER_TODOLIST} tasks.
+     *
+     * @param tasks The tasks.
+     * @return The todolists.
+     */
+    static List<TodoList> todoLists(List<Task> tasks) {
+        List<TodoList> todoLists = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += TASKS_PER_TODOLIST) {
+            List<Task> todoListTasks = tasks.subList(from, Math.min(from + TASKS_PER_TODOLIST, tasks.size()));
+            todoLists.add(new TodoList(todoLists.size() + 1, "todolist" + (todoLists.size() + 1),
+                    new ArrayList<>(todoListTasks)));
+        }
+        return todoLists;
+    }
+}
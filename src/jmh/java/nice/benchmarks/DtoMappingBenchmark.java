@@ -0,0 +1,152 @@
+package nice.benchmarks;
+
+import nice.constants.Status;
+import nice.controllers.TaskController;
+import nice.controllers.TodoListController;
+import nice.controllers.UserController;
+import nice.dto.RequestTaskDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTodoListDto;
+import nice.entities.Task;
+import nice.entities.TodoList;
+import nice.entities.User;
+import nice.services.TaskService;
+import nice.services.TodoListService;
+import nice.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks of the mapping of entities to response DTOs, alone and through the controller pipelines with the
+ * services stubbed, so that only the mapping and the collecting are measured.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    private TodoList todoList;
+
+    private TaskController taskController;
+
+    private TodoListController todoListController;
+
+    private UserController userController;
+
+    private WebRequest webRequest;
+
+    //***************************************************************
+    // Setup.
+    //***************************************************************
+
+    @Setup
+    public void setup() {
+        tasks = Datasets.tasks(size);
+        todoList = new TodoList(1, "todolist", tasks);
+        Slice<ResponseTaskDto> taskDtos = new SliceImpl<>(tasks.stream().map(ResponseTaskDto::new)
+                .collect(Collectors.toList()));
+        List<TodoList> todoLists = Datasets.todoLists(tasks);
+        List<User> users = Datasets.users(size);
+
+        taskController = new TaskController();
+        ReflectionTestUtils.setField(taskController, "taskService", new TaskService() {
+            @Override
+            public List<Task> createTasks(List<RequestTaskDto> requestTaskDtos) {
+                return tasks;
+            }
+        });
+        todoListController = new TodoListController();
+        ReflectionTestUtils.setField(todoListController, "todoListService", new TodoListService() {
+            @Override
+            public Slice<TodoList> getTodoLists(Long after, Integer limit) {
+                return new SliceImpl<>(todoLists);
+            }
+
+            @Override
+            public long getTodoListVersion(Long id) {
+                return 0;
+            }
+
+            @Override
+            public Slice<ResponseTaskDto> getTodoListTasks(Long id, Status status, String sort, Integer page,
+                                                           Long after, Integer limit, String fields) {
+                // the tasks of a todolist are projected to DTOs by the database.
+                return taskDtos;
+            }
+
+            @Override
+            public long countTodoListTasks(Long id, Status status) {
+                return tasks.size();
+            }
+        });
+        userController = new UserController();
+        ReflectionTestUtils.setField(userController, "userService", new UserService() {
+            @Override
+            public Iterable<User> findAll() {
+                return users;
+            }
+        });
+        webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/todolists/1/tasks"));
+    }
+
+    //***************************************************************
+    // Benchmarks.
+    //***************************************************************
+
+    @Benchmark
+    public void responseTaskDto(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(new ResponseTaskDto(task));
+        }
+    }
+
+    @Benchmark
+    public ResponseTodoListDto responseTodoListDto() {
+        return new ResponseTodoListDto(todoList);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> taskControllerCreateTasks() throws Exception {
+        return taskController.createTasks(null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> todoListControllerGetAllTodoLists() throws Exception {
+        return todoListController.getAllTodoLists(TodoListController.FULL_VIEW, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> todoListControllerGetTodoListTasks() throws Exception {
+        return todoListController.getTodoListTasksById(1L, null, null, null, null, null, null, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> userControllerGetAllUsers() {
+        return userController.getAllUsers();
+    }
+}
@@ -0,0 +1,107 @@
+package nice.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nice.constants.Status;
+import nice.controllers.CustomizedResponseEntityExceptionHandler;
+import nice.daos.TaskDao;
+import nice.dto.ErrorDto;
+import nice.dto.RequestTaskDto;
+import nice.exceptions.DomainException;
+import nice.exceptions.TaskNotFoundException;
+import nice.services.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the error path of a client probing ids: TaskService.updateTask of a task not found, with the DAO
+ * stubbed, and the error answered by the exception handler.
+ * The exceptions with their stack trace (stackTraces=true, set as the system property read by DomainException in the
+ * fork of each parameter) are the error path before the exceptions were made stackless, and depth adds frames below the service as the servlet container, the filters and the proxies of
+ * Spring do, since capturing the stack trace costs in proportion to its depth.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Param({"false", "true"})
+    private boolean stackTraces;
+
+    @Param({"0", "100"})
+    private int depth;
+
+    private TaskService taskService;
+
+    private CustomizedResponseEntityExceptionHandler exceptionHandler;
+
+    private WebRequest request;
+
+    private RequestTaskDto requestTaskDto;
+
+    private long counter;
+
+    //***************************************************************
+    // Setup.
+    //***************************************************************
+
+    @Setup
+    public void setup() {
+        // read when the first exception is created, after this setup.
+        System.setProperty(DomainException.STACK_TRACES_PROPERTY, String.valueOf(stackTraces));
+
+        Map<String, Function<Object[], Object>> taskAnswers = new HashMap<>();
+        taskAnswers.put("findById", args -> Optional.empty());
+        taskService = new TaskService();
+        ReflectionTestUtils.setField(taskService, "taskDao", Stubs.stub(TaskDao.class, taskAnswers));
+
+        exceptionHandler = new CustomizedResponseEntityExceptionHandler();
+        ReflectionTestUtils.setField(exceptionHandler, "meterRegistry", new SimpleMeterRegistry());
+
+        request = new ServletWebRequest(new MockHttpServletRequest("PUT", "/tasks/0"));
+        requestTaskDto = new RequestTaskDto("task", "description", Status.IN_PROGRESS, null);
+    }
+
+    //***************************************************************
+    // Benchmarks.
+    //***************************************************************
+
+    @Benchmark
+    public ResponseEntity<ErrorDto> taskNotFound() throws Exception {
+        return updateTask(depth);
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private ResponseEntity<ErrorDto> updateTask(int frames) throws Exception {
+        if (frames > 0) {
+            return updateTask(frames - 1);
+        }
+        try {
+            taskService.updateTask(counter++, requestTaskDto);
+            throw new IllegalStateException("the task was found.");
+        } catch (TaskNotFoundException e) {
+            return exceptionHandler.handleTaskNotFoundException(e, request);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package nice.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import jakarta.servlet.FilterChain;
+import nice.config.RequestLoggingFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the overhead of the request logging on the request thread: a request going through the
+ * RequestLoggingFilter to an empty handler, compared with the handler alone (none). The lines are written to a file
+ * directly by the request thread (sync), or put in the queue of an asynchronous appender as in logback-spring.xml
+ * (async), or not at all with the level info off (off).
+ *
+ * @author danielctrenado@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Param({"none", "off", "sync", "async"})
+    private String logging;
+
+    private RequestLoggingFilter filter;
+
+    private FilterChain handler;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private File file;
+
+    private Appender<ILoggingEvent> appender;
+
+    //***************************************************************
+    // Setup.
+    //***************************************************************
+
+    @Setup
+    public void setup() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger(RequestLoggingFilter.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel("off".equals(logging) ? Level.OFF : Level.INFO);
+
+        file = File.createTempFile("requests", ".log");
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%t] [%X{requestId:-}] %logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        appender = fileAppender;
+        if ("async".equals(logging)) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        logger.addAppender(appender);
+
+        filter = new RequestLoggingFilter();
+        handler = (request, response) -> ((MockHttpServletResponse) response).setStatus(200);
+        request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "client-request.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+        file.delete();
+    }
+
+    //***************************************************************
+    // Benchmarks.
+    //***************************************************************
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        if ("none".equals(logging)) {
+            handler.doFilter(request, response);
+        } else {
+            filter.doFilter(request, response, handler);
+        }
+        return response;
+    }
+}
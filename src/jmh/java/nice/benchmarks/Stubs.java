@@ -0,0 +1,46 @@
+package nice.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds stubs of the DAO interfaces that answer from fixed functions, without the recording overhead of a
+ * mocking library that would show up in the measures.
+ *
+ * @author danielctrenado@gmail.com
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Builds a stub of an interface.
+     *
+     * @param type    The interface to stub.
+     * @param answers The answer of each method by name, given the arguments. Other methods return null.
+     * @param <T>     The type of the interface.
+     * @return The stub.
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "stub of " + type.getSimpleName();
+                        default:
+                            break;
+                    }
+                    return method.getReturnType() == int.class ? 0 : null;
+                }));
+    }
+}
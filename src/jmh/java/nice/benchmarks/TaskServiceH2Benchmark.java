@@ -0,0 +1,99 @@
+package nice.benchmarks;
+
+import nice.Application;
+import nice.constants.Status;
+import nice.dto.RequestTaskDto;
+import nice.entities.Task;
+import nice.services.TaskService;
+import nice.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of TaskService.createTask and updateTask through the whole persistence stack, against an in-memory
+ * H2 database holding the tasks of the dataset. Each trial starts its own application context and database.
+ * The tasks seeded and updated are not assigned: a user is mapped to a single task, so loading a task assigned to
+ * the user shared by the created tasks would fail. Creating them only takes a reference to the user.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskServiceH2Benchmark {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskService taskService;
+
+    private long[] ids;
+
+    private long counter;
+
+    //***************************************************************
+    // Setup.
+    //***************************************************************
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        context.getBean(UserService.class).createUser("benchmarkUser");
+
+        ids = new long[size];
+        for (int from = 0; from < size; from += TaskService.MAX_BATCH_SIZE) {
+            List<RequestTaskDto> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + TaskService.MAX_BATCH_SIZE, size); i++) {
+                batch.add(new RequestTaskDto("seededTask" + i, "description of task " + i,
+                        Status.NOT_STARTED, null));
+            }
+            List<Task> tasks = taskService.createTasks(batch);
+            for (int i = 0; i < tasks.size(); i++) {
+                ids[from + i] = tasks.get(i).getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    //***************************************************************
+    // Benchmarks.
+    //***************************************************************
+
+    @Benchmark
+    public Task createTask() throws Exception {
+        return taskService.createTask(new RequestTaskDto("newTask" + counter++, "description",
+                Status.NOT_STARTED, "benchmarkUser"));
+    }
+
+    @Benchmark
+    public Task updateTask() throws Exception {
+        long id = ids[(int) (counter++ % size)];
+        return taskService.updateTask(id, new RequestTaskDto("updatedTask" + id, "description updated",
+                Status.IN_PROGRESS, null));
+    }
+}
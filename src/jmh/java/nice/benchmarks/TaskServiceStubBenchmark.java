@@ -0,0 +1,114 @@
+package nice.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nice.constants.Status;
+import nice.daos.ChangeDao;
+import nice.daos.TaskDao;
+import nice.daos.TodoListDao;
+import nice.daos.UserDao;
+import nice.dto.RequestTaskDto;
+import nice.entities.Task;
+import nice.entities.User;
+import nice.services.ChangeLog;
+import nice.services.TaskEventRegistry;
+import nice.services.TaskNameFilter;
+import nice.services.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks of TaskService.createTask and updateTask with the DAOs stubbed, measuring the service code alone.
+ * The task name filter is real and warmed with the names of the dataset.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceStubBenchmark {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    private TaskService taskService;
+
+    private long counter;
+
+    //***************************************************************
+    // Setup.
+    //***************************************************************
+
+    @Setup
+    public void setup() {
+        tasks = Datasets.tasks(size);
+        User user = new User(1, "user1");
+
+        Map<String, Function<Object[], Object>> taskAnswers = new HashMap<>();
+        taskAnswers.put("saveAndFlush", args -> args[0]);
+        taskAnswers.put("findById", args -> Optional.of(tasks.get((int) ((Long) args[0] - 1))));
+        taskAnswers.put("streamAllNames", args -> tasks.stream().map(Task::getName));
+        TaskDao taskDao = Stubs.stub(TaskDao.class, taskAnswers);
+
+        Map<String, Function<Object[], Object>> userAnswers = new HashMap<>();
+        userAnswers.put("findIdByUserName", args -> Optional.of(user.getId()));
+        userAnswers.put("getReferenceById", args -> user);
+        UserDao userDao = Stubs.stub(UserDao.class, userAnswers);
+
+        Map<String, Function<Object[], Object>> todoListAnswers = new HashMap<>();
+        todoListAnswers.put("findIdsByTaskId", args -> Collections.singletonList(1L));
+        todoListAnswers.put("incrementVersionsByIdIn", args -> 1);
+        TodoListDao todoListDao = Stubs.stub(TodoListDao.class, todoListAnswers);
+
+        TaskNameFilter taskNameFilter = new TaskNameFilter(0.01, 1 << 20, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(taskNameFilter, "taskDao", taskDao);
+        taskNameFilter.warmUp();
+
+        taskService = new TaskService();
+        ReflectionTestUtils.setField(taskService, "taskDao", taskDao);
+        ReflectionTestUtils.setField(taskService, "userDao", userDao);
+        ReflectionTestUtils.setField(taskService, "todoListDao", todoListDao);
+        ReflectionTestUtils.setField(taskService, "taskNameFilter", taskNameFilter);
+        // without subscribers, as most of the time: no event is built.
+        ReflectionTestUtils.setField(taskService, "taskEventRegistry",
+                new TaskEventRegistry(256, new SimpleMeterRegistry()));
+
+        // without a transaction the changes are written right away.
+        ChangeLog changeLog = new ChangeLog();
+        ReflectionTestUtils.setField(changeLog, "changeDao", Stubs.stub(ChangeDao.class, new HashMap<>()));
+        ReflectionTestUtils.setField(taskService, "changeLog", changeLog);
+    }
+
+    //***************************************************************
+    // Benchmarks.
+    //***************************************************************
+
+    @Benchmark
+    public Task createTask() throws Exception {
+        return taskService.createTask(new RequestTaskDto("newTask" + counter++, "description",
+                Status.NOT_STARTED, "user1"));
+    }
+
+    @Benchmark
+    public Task updateTask() throws Exception {
+        long id = counter++ % size + 1;
+        return taskService.updateTask(id, new RequestTaskDto("task" + id, "description updated",
+                Status.IN_PROGRESS, "user1"));
+    }
+}
@@ -0,0 +1,135 @@
+package nice.loadtest;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * State of a worker thread of the load generator: its HTTP client, its random source and the ETags it has seen.
+ * Not thread safe, each worker has its own.
+ *
+ * @author danielctrenado@gmail.com
+ */
+class Client {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    final Random random;
+
+    final Map<Long, String> eTags = new HashMap<>();
+
+    private final RestTemplate restTemplate;
+
+    private final String baseUrl;
+
+    private final Manifest manifest;
+
+    private final String prefix;
+
+    private long sequence;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    /**
+     * Creates the client of a worker.
+     *
+     * @param baseUrl  The base url of the api, e.g. http://localhost:8080/api/v1.
+     * @param manifest The ids seeded.
+     * @param worker   The number of the worker, used to build unique names.
+     * @param seed     The seed of the random source.
+     */
+    Client(String baseUrl, Manifest manifest, int worker, long seed) {
+        this.baseUrl = baseUrl;
+        this.manifest = manifest;
+        this.random = new Random(seed);
+        this.prefix = "lt-" + Long.toString(System.currentTimeMillis(), 36) + "-" + worker + "-";
+        this.restTemplate = new RestTemplate();
+        // error statuses are counted, not thrown.
+        this.restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+            }
+        });
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Issues a GET.
+     *
+     * @param path        The path relative to the base url.
+     * @param ifNoneMatch The ETag to revalidate, or null.
+     * @return The response.
+     */
+    ResponseEntity<String> get(String path, String ifNoneMatch) {
+        return this.restTemplate.exchange(this.baseUrl + path, HttpMethod.GET,
+                Operation.jsonRequest(null, ifNoneMatch), String.class);
+    }
+
+    /**
+     * Issues a request with a JSON body.
+     *
+     * @param method The method.
+     * @param path   The path relative to the base url.
+     * @param body   The body.
+     * @return The response.
+     */
+    ResponseEntity<String> exchange(HttpMethod method, String path, Object body) {
+        return this.restTemplate.exchange(this.baseUrl + path, method, Operation.jsonRequest(body, null), String.class);
+    }
+
+    /**
+     * Picks a seeded todolist.
+     *
+     * @return The id of the todolist.
+     */
+    long todoListId() {
+        return this.manifest.getTodolists().pick(this.random);
+    }
+
+    /**
+     * Picks a seeded task.
+     *
+     * @return The id of the task.
+     */
+    long taskId() {
+        return this.manifest.getTasks().pick(this.random);
+    }
+
+    /**
+     * Picks a seeded user.
+     *
+     * @return The userName of the user, or null if the manifest has none, e.g. one written before the userNames.
+     */
+    String userName() {
+        Manifest.Names userNames = this.manifest.getUserNames();
+        return userNames == null || userNames.getCount() == 0 ? null : userNames.pickName(this.random);
+    }
+
+    /**
+     * Builds a name not used by any other worker or run.
+     *
+     * @param kind The kind of entity named.
+     * @return The name.
+     */
+    String uniqueName(String kind) {
+        return this.prefix + kind + "-" + (this.sequence++);
+    }
+}
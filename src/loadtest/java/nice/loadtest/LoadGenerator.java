@@ -0,0 +1,214 @@
+package nice.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for a running application, started with the profile loadtest:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--mix polling --threads 32 --duration 120"
+ * </pre>
+ * Options, all optional:
+ * <ul>
+ * <li>--base-url: the url of the api, http://localhost:8080/api/v1 by default.</li>
+ * <li>--mix: read_write (80/20, default), polling, polling_read_only or read_only, see {@link Mix}.</li>
+ * <li>--threads: the number of workers, 16 by default. Each worker keeps its own connection.</li>
+ * <li>--virtual: true to run the workers on virtual threads, false by default, so that thousands of concurrent
+ * connections can be held by the generator itself.</li>
+ * <li>--duration and --warmup: the seconds measured and the seconds discarded before, 60 and 10 by default.</li>
+ * <li>--rate: the total requests per second to issue. 0, the default, runs a closed loop where each worker issues
+ * the next request when the previous one returns; the latencies are then service times only, since a slow response
+ * also delays the requests queued behind it. With a rate the latencies are measured from the time each request was
+ * due, which accounts for that coordinated omission.</li>
+ * <li>--manifest: the manifest written by the profile seed of the application, without it the initial data of the
+ * application is assumed.</li>
+ * <li>--output: the file of the results in JSON, target/loadtest-result.json by default.</li>
+ * <li>--seed: the seed of the random sources, to replay the same sequence of operations.</li>
+ * </ul>
+ * Platform and virtual request threads of the application are compared at 10k concurrent connections by running the
+ * same load against the application started without and with the profile virtual-threads, which the script
+ * benchmark-threads.sh does:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--threads 10000 --virtual true --output target/vt.json"
+ * </pre>
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class LoadGenerator {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private final Map<String, String> options;
+
+    private final Mix mix;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private volatile long endNanos;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.mix = Mix.valueOf(option("mix", "read_write").toUpperCase());
+        for (Operation operation : this.mix.operations()) {
+            this.stats.put(operation, new OperationStats());
+        }
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The options, as --name value pairs.
+     * @throws Exception If the manifest could not be read, the results could not be written or the run was interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        // without the configuration of the application logback logs every request at debug.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option instead of " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadGenerator(options).run();
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private void run() throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        String baseUrl = option("base-url", "http://localhost:8080/api/v1");
+        int threads = Integer.parseInt(option("threads", "16"));
+        boolean virtual = Boolean.parseBoolean(option("virtual", "false"));
+        long duration = Long.parseLong(option("duration", "60"));
+        long warmup = Long.parseLong(option("warmup", "10"));
+        double rate = Double.parseDouble(option("rate", "0"));
+        long seed = Long.parseLong(option("seed", String.valueOf(System.nanoTime())));
+        Manifest manifest = this.options.containsKey("manifest")
+                ? objectMapper.readValue(new File(this.options.get("manifest")), Manifest.class)
+                : Manifest.initialData();
+        // keep a pooled connection per worker.
+        System.setProperty("http.maxConnections", String.valueOf(threads));
+
+        long startNanos = System.nanoTime();
+        this.endNanos = startNanos + TimeUnit.SECONDS.toNanos(warmup + duration);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Client client = new Client(baseUrl, manifest, i, seed + i);
+            // the workers are staggered so that the paced ones do not fire together.
+            long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * threads / rate) : 0;
+            long firstNanos = startNanos + (intervalNanos * i) / threads;
+            Thread.Builder builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+            workers.add(builder.name("loadtest-worker-" + i).start(() -> work(client, firstNanos, intervalNanos)));
+        }
+        System.out.println("Running mix " + this.mix + " against " + baseUrl + " with " + threads
+                + (virtual ? " virtual" : "") + " workers"
+                + (rate > 0 ? " at " + rate + " requests/s" : " in a closed loop"));
+
+        TimeUnit.SECONDS.sleep(warmup);
+        this.stats.values().forEach(OperationStats::reset);
+        long measureNanos = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - measureNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        this.stats.values().forEach(OperationStats::finish);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("mix", this.mix.name().toLowerCase());
+        results.put("baseUrl", baseUrl);
+        results.put("threads", threads);
+        results.put("virtual", virtual);
+        results.put("rate", rate);
+        results.put("seconds", seconds);
+        results.put("seed", seed);
+        Histogram total = new Histogram(3);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : this.stats.entrySet()) {
+            operations.put(entry.getKey().name().toLowerCase(), entry.getValue().summary(seconds));
+            total.add(entry.getValue().getHistogram());
+        }
+        results.put("operations", operations);
+        long errors = operations.values().stream()
+                .mapToLong(summary -> (Long) ((Map<?, ?>) summary).get("errors")).sum();
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("count", total.getTotalCount());
+        totals.put("errors", errors);
+        totals.put("errorRate", total.getTotalCount() == 0 ? 0.0 : (double) errors / total.getTotalCount());
+        totals.put("throughput", total.getTotalCount() / seconds);
+        totals.put("p99Millis", total.getValueAtPercentile(99) / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        results.put("total", totals);
+
+        File output = new File(option("output", "target/loadtest-result.json"));
+        if (output.getAbsoluteFile().getParentFile() != null) {
+            output.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, results);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(totals));
+        System.out.println("Results written to " + output.getAbsolutePath());
+    }
+
+    /**
+     * Loop of a worker until the end of the run.
+     *
+     * @param client        The client of the worker.
+     * @param firstNanos    The time the first request is due.
+     * @param intervalNanos The time between requests, 0 for a closed loop.
+     */
+    private void work(Client client, long firstNanos, long intervalNanos) {
+        long dueNanos = firstNanos;
+        while (true) {
+            if (intervalNanos > 0) {
+                long waitNanos;
+                while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            }
+            long startNanos = intervalNanos > 0 ? dueNanos : System.nanoTime();
+            if (startNanos - this.endNanos >= 0) {
+                return;
+            }
+            Operation operation = this.mix.next(client.random);
+            boolean success;
+            try {
+                success = operation.execute(client);
+            } catch (RuntimeException e) {
+                // connection refused, timeouts.
+                success = false;
+            }
+            this.stats.get(operation).record(System.nanoTime() - startNanos, success);
+            dueNanos += intervalNanos;
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return this.options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,172 @@
+package nice.loadtest;
+
+import java.util.Random;
+
+/**
+ * Ranges of the ids seeded, as written by the profile seed of the application.
+ *
+ * @author danielctrenado@gmail.com
+ */
+class Manifest {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private Range users;
+
+    private Names userNames;
+
+    private Range tasks;
+
+    private Range todolists;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    Manifest() {
+    }
+
+    /**
+     * Creates a manifest of the initial data of the application, used when no manifest is given.
+     *
+     * @return The manifest.
+     */
+    static Manifest initialData() {
+        Manifest manifest = new Manifest();
+        manifest.users = new Range(3, 1, 3);
+        manifest.userNames = new Names("niceUser", 3, 1, 3);
+        manifest.tasks = new Range(3, 1, 3);
+        manifest.todolists = new Range(2, 1, 2);
+        return manifest;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public Range getUsers() {
+        return users;
+    }
+
+    public void setUsers(Range users) {
+        this.users = users;
+    }
+
+    public Names getUserNames() {
+        return userNames;
+    }
+
+    public void setUserNames(Names userNames) {
+        this.userNames = userNames;
+    }
+
+    public Range getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(Range tasks) {
+        this.tasks = tasks;
+    }
+
+    public Range getTodolists() {
+        return todolists;
+    }
+
+    public void setTodolists(Range todolists) {
+        this.todolists = todolists;
+    }
+
+    /**
+     * Range of ids of an entity. The ids of a chunked insert are contiguous, gaps only cost a 404 counted as error.
+     */
+    static class Range {
+
+        private long count;
+
+        private long first;
+
+        private long last;
+
+        Range() {
+        }
+
+        Range(long count, long first, long last) {
+            this.count = count;
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * Picks an id of the range uniformly.
+         *
+         * @param random The random source.
+         * @return The id.
+         */
+        long pick(Random random) {
+            if (this.count == 0) {
+                throw new IllegalStateException("The manifest has no ids to pick.");
+            }
+            return this.first + (long) (random.nextDouble() * (this.last - this.first + 1));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public long getFirst() {
+            return first;
+        }
+
+        public void setFirst(long first) {
+            this.first = first;
+        }
+
+        public long getLast() {
+            return last;
+        }
+
+        public void setLast(long last) {
+            this.last = last;
+        }
+    }
+
+    /**
+     * Range of the names of an entity, a prefix followed by the index of the entity.
+     */
+    static class Names extends Range {
+
+        private String prefix;
+
+        Names() {
+        }
+
+        Names(String prefix, long count, long first, long last) {
+            super(count, first, last);
+            this.prefix = prefix;
+        }
+
+        /**
+         * Picks a name of the range uniformly.
+         *
+         * @param random The random source.
+         * @return The name.
+         */
+        String pickName(Random random) {
+            return this.prefix + pick(random);
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
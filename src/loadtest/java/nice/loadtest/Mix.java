@@ -0,0 +1,119 @@
+package nice.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mixes of operations driven by the load generator.
+ *
+ * @author danielctrenado@gmail.com
+ */
+enum Mix {
+
+    /**
+     * 80% reads of todolists and tasks, 20% writes of users and tasks.
+     */
+    READ_WRITE(weights()
+            .with(Operation.GET_TODOLIST, 30)
+            .with(Operation.GET_TODOLIST_TASKS, 25)
+            .with(Operation.GET_TASKS_PAGE, 20)
+            .with(Operation.GET_TODOLIST_STATS, 5)
+            .with(Operation.CREATE_USER, 5)
+            .with(Operation.CREATE_TASK, 5)
+            .with(Operation.UPDATE_TASK, 10)),
+
+    /**
+     * Clients polling the tasks of their todolists with conditional GETs, while some tasks change.
+     */
+    POLLING(weights()
+            .with(Operation.POLL_TODOLIST_TASKS, 95)
+            .with(Operation.UPDATE_TASK, 5)),
+
+    /**
+     * The polling clients without the writes, the reads served by both the Spring MVC and the reactive endpoints.
+     */
+    POLLING_READ_ONLY(weights()
+            .with(Operation.POLL_TODOLIST_TASKS, 80)
+            .with(Operation.GET_TASKS_PAGE, 20)),
+
+    /**
+     * Reads only, to measure the ceiling of the read path.
+     */
+    READ_ONLY(weights()
+            .with(Operation.GET_TODOLIST, 40)
+            .with(Operation.GET_TODOLIST_TASKS, 40)
+            .with(Operation.GET_TASKS_PAGE, 20));
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    Mix(Weights weights) {
+        this.operations = weights.weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[this.operations.length];
+        int total = 0;
+        for (int i = 0; i < this.operations.length; i++) {
+            total += weights.weights.get(this.operations[i]);
+            this.cumulativeWeights[i] = total;
+        }
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Picks the next operation according to the weights of the mix.
+     *
+     * @param random The random source.
+     * @return The operation.
+     */
+    Operation next(Random random) {
+        int value = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (value < this.cumulativeWeights[i]) {
+                return this.operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights of mix " + name() + " are not valid.");
+    }
+
+    /**
+     * Obtains the operations of the mix.
+     *
+     * @return The operations.
+     */
+    Operation[] operations() {
+        return this.operations.clone();
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private static Weights weights() {
+        return new Weights();
+    }
+
+    /**
+     * Builder of the weights of a mix.
+     */
+    private static class Weights {
+
+        private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+        Weights with(Operation operation, int weight) {
+            this.weights.put(operation, weight);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package nice.loadtest;
+
+import nice.constants.Status;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Requests issued by the load generator against the endpoints of users, tasks and todolists.
+ * Each operation picks its ids from the ranges of the seed manifest.
+ *
+ * @author danielctrenado@gmail.com
+ */
+enum Operation {
+
+    GET_TODOLIST {
+        @Override
+        boolean execute(Client client) {
+            return client.get("/todolists/" + client.todoListId(), null).getStatusCode() == HttpStatus.OK;
+        }
+    },
+
+    GET_TODOLIST_TASKS {
+        @Override
+        boolean execute(Client client) {
+            return client.get("/todolists/" + client.todoListId() + "/tasks", null).getStatusCode() == HttpStatus.OK;
+        }
+    },
+
+    /**
+     * Polls the tasks of a todolist sending the ETag of the last response, as a client refreshing a view would.
+     */
+    POLL_TODOLIST_TASKS {
+        @Override
+        boolean execute(Client client) {
+            long id = client.todoListId();
+            ResponseEntity<String> response = client.get("/todolists/" + id + "/tasks", client.eTags.get(id));
+            if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+                client.eTags.put(id, response.getHeaders().getETag());
+            }
+            return response.getStatusCode() == HttpStatus.OK || response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+        }
+    },
+
+    GET_TASKS_PAGE {
+        @Override
+        boolean execute(Client client) {
+            return client.get("/tasks?limit=50&after=" + (client.taskId() - 1), null).getStatusCode() == HttpStatus.OK;
+        }
+    },
+
+    GET_TODOLIST_STATS {
+        @Override
+        boolean execute(Client client) {
+            return client.get("/todolists/" + client.todoListId() + "/stats", null).getStatusCode() == HttpStatus.OK;
+        }
+    },
+
+    CREATE_USER {
+        @Override
+        boolean execute(Client client) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("userName", client.uniqueName("user"));
+            return client.exchange(HttpMethod.POST, "/users", user).getStatusCode().is2xxSuccessful();
+        }
+    },
+
+    CREATE_TASK {
+        @Override
+        boolean execute(Client client) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("name", client.uniqueName("task"));
+            task.put("description", "load test task");
+            task.put("status", Status.NOT_STARTED);
+            task.put("userName", client.userName());
+            return client.exchange(HttpMethod.POST, "/tasks", task).getStatusCode().is2xxSuccessful();
+        }
+    },
+
+    /**
+     * Renames a seeded task, changes its status and assigns it to a seeded user, which bumps the versions of its
+     * todolists.
+     */
+    UPDATE_TASK {
+        @Override
+        boolean execute(Client client) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("name", client.uniqueName("task"));
+            task.put("description", "updated by the load test");
+            task.put("status", Status.values()[client.random.nextInt(Status.values().length)]);
+            task.put("userName", client.userName());
+            return client.exchange(HttpMethod.PUT, "/tasks/" + client.taskId(), task).getStatusCode() == HttpStatus.OK;
+        }
+    };
+
+    /**
+     * Issues the request.
+     *
+     * @param client The client of the worker thread.
+     * @return True if the response was the expected one, false if it has to be counted as an error.
+     */
+    abstract boolean execute(Client client);
+
+    /**
+     * Builds the headers of a JSON request, the endpoints only accept JSON, even on GET.
+     *
+     * @param ifNoneMatch The ETag to revalidate, or null.
+     * @return The headers.
+     */
+    static HttpHeaders jsonHeaders(String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return headers;
+    }
+
+    /**
+     * Builds a JSON request.
+     *
+     * @param body        The body, or null.
+     * @param ifNoneMatch The ETag to revalidate, or null.
+     * @return The request.
+     */
+    static HttpEntity<Object> jsonRequest(Object body, String ifNoneMatch) {
+        return new HttpEntity<>(body, jsonHeaders(ifNoneMatch));
+    }
+}
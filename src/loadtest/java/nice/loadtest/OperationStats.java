@@ -0,0 +1,117 @@
+package nice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of an operation, recorded concurrently by the workers.
+ *
+ * @author danielctrenado@gmail.com
+ */
+class OperationStats {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Highest latency tracked, longer ones are clamped.
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    private Histogram histogram;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Records the latency of a request.
+     *
+     * @param nanos   The latency, in nanoseconds.
+     * @param success False if the request failed.
+     */
+    void record(long nanos, boolean success) {
+        this.recorder.recordValue(Math.min(Math.max(nanos, 1), HIGHEST_TRACKABLE_NANOS));
+        if (!success) {
+            this.errors.increment();
+        }
+    }
+
+    /**
+     * Drops what was recorded so far, at the end of the warm up.
+     */
+    void reset() {
+        this.recorder.reset();
+        this.errors.reset();
+    }
+
+    /**
+     * Takes the latencies recorded since the last reset, called once at the end of the run.
+     */
+    void finish() {
+        this.histogram = this.recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Summarizes the results of the operation.
+     *
+     * @param seconds The duration of the measurement.
+     * @return The count, errors, throughput, latency percentiles in milliseconds and the compressed histogram.
+     */
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = this.histogram.getTotalCount();
+        summary.put("count", count);
+        summary.put("errors", this.errors.sum());
+        summary.put("errorRate", count == 0 ? 0.0 : (double) this.errors.sum() / count);
+        summary.put("throughput", count / seconds);
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        latencies.put("mean", millis(this.histogram.getMean()));
+        latencies.put("p50", millis(this.histogram.getValueAtPercentile(50)));
+        latencies.put("p90", millis(this.histogram.getValueAtPercentile(90)));
+        latencies.put("p99", millis(this.histogram.getValueAtPercentile(99)));
+        latencies.put("p99.9", millis(this.histogram.getValueAtPercentile(99.9)));
+        latencies.put("max", millis(this.histogram.getMaxValue()));
+        summary.put("latencyMillis", latencies);
+        // the whole histogram, for HistogramLogAnalyzer or to merge runs with Histogram.decodeFromCompressedByteBuffer.
+        ByteBuffer buffer = ByteBuffer.allocate(this.histogram.getNeededByteBufferCapacity());
+        int length = this.histogram.encodeIntoCompressedByteBuffer(buffer);
+        summary.put("histogram", Base64.getEncoder().encodeToString(
+                Arrays.copyOf(buffer.array(), length)));
+        return summary;
+    }
+
+    /**
+     * Obtains the latencies recorded.
+     *
+     * @return The histogram, in nanoseconds, available once finished.
+     */
+    Histogram getHistogram() {
+        return histogram;
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private static double millis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
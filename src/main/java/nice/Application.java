@@ -11,9 +11,11 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Application for RESTful web services user, task and todolist.
@@ -22,13 +24,14 @@ import java.util.List;
 public class Application {
 
     /**
-     * Method of initial data for application.
+     * Method of initial data for application, replaced by the synthetic data of the profile seed.
      *
      * @param userDao     Dao for users.
      * @param taskDao     Dao for tasks.
      * @param todoListDao Dao for todolists.
      */
     @Bean
+    @Profile("!seed")
     CommandLineRunner init(UserDao userDao, TaskDao taskDao,
                            TodoListDao todoListDao) {
 
@@ -50,8 +53,8 @@ public class Application {
             TodoList todoList1 = todoListDao.save(new TodoList("todolist1", null));
             TodoList todoList2 = todoListDao.save(new TodoList("todolist2", null));
 
-            List<Task> tasks1 = Arrays.asList(task1, task2);
-            List<Task> tasks2 = Arrays.asList(task3);
+            Set<Task> tasks1 = new LinkedHashSet<>(Arrays.asList(task1, task2));
+            Set<Task> tasks2 = new LinkedHashSet<>(Arrays.asList(task3));
 
             todoList1.setTasks(tasks1);
             todoListDao.save(todoList1);
@@ -68,6 +71,6 @@ public class Application {
      * @param args the command line arguments.
      */
     public static void main(String[] args) {
-        SpringApplication.run(Application.class);
+        SpringApplication.run(Application.class, args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package nice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POJO for the in-process caches configuration.
+ * The caching advice runs outside the transactions so that evictions happen once the changes are committed, and inside
+ * the timing advice of {@link MetricsAspect} so that cache hits are timed.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Configuration
+@EnableCaching(order = MetricsAspect.ORDER + 1)
+public class CacheConfig {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Name of the cache mapping each userName found to the id of its user.
+     */
+    public static final String USER_IDS_CACHE = "userIds";
+
+    /**
+     * Maximum number of userNames kept in the cache.
+     */
+    public static final long USER_IDS_MAXIMUM_SIZE = 10000;
+
+    /**
+     * Minutes an entry is kept, as a safety net for users changed without going through the user service.
+     */
+    public static final long USER_IDS_EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(USER_IDS_MAXIMUM_SIZE)
+                .expireAfterWrite(USER_IDS_EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+                .recordStats());
+        cacheManager.setCacheNames(Collections.singletonList(USER_IDS_CACHE));
+        return cacheManager;
+    }
+}
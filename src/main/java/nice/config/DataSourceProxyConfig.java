@@ -0,0 +1,64 @@
+package nice.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * POJO for the datasource-proxy configuration: every JDBC statement goes through a {@link QueryCountListener}, and in
+ * debug mode each response carries the number of statements of its request and their time.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Wraps the datasource of the application in a proxy that notifies the listener.
+     * Static so that the datasource is not created before the post processor is registered.
+     *
+     * @param environment The environment with the slow query threshold.
+     * @return The post processor of the datasource.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        long slowQueryThresholdMillis = environment.getProperty("datasource.slow-query.threshold-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .listener(new QueryCountListener(slowQueryThresholdMillis))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registers the filter adding the query count headers, only when datasource.query-count.headers is true, right
+     * after the one logging the requests.
+     *
+     * @return The registration of the filter.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.query-count.headers", havingValue = "true")
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter() {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
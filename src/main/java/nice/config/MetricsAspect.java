@@ -0,0 +1,141 @@
+package nice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call to the services and to the Spring Data repositories, per method. The timers are registered once
+ * per method and looked up on each call; they publish no histogram, only the endpoints timed by Spring Boot as
+ * http.server.requests do, see application.properties.
+ * The advice runs outside the caching advice, ordered right after it, and outside the transaction advice, so cache
+ * hits and commits are included.
+ * The reactive services and daos are left out, their calls only assemble the reads, which run once subscribed.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Aspect
+@Component
+@Order(MetricsAspect.ORDER)
+public class MetricsAspect {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Timer of the calls to TaskService, UserService and TodoListService.
+     */
+    public static final String SERVICE_CALLS = "service.calls";
+
+    /**
+     * Timer of the calls to TaskDao, UserDao and TodoListDao, including the methods inherited from Spring Data.
+     */
+    public static final String DAO_CALLS = "dao.calls";
+
+    /**
+     * Order of the advice, the caching advice is ordered after it.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private static final String NONE = "none";
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // The repositories are JDK proxies, their dao interface is looked up once per proxy class.
+    private final Map<Class<?>, String> daoNames = new ConcurrentHashMap<>();
+
+    // The timers of the calls without exception, by class name and method. The methods inherited from Spring Data are
+    // shared by the daos, hence the class name first.
+    private final Map<String, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Times a call to a service.
+     *
+     * @param joinPoint The call.
+     * @return The result of the call.
+     * @throws Throwable The exception thrown by the call.
+     */
+    @Around("execution(public * nice.services.*Service.*(..)) && !within(nice.services.Reactive*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_CALLS, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    /**
+     * Times a call to a repository. The custom implementations of the repositories are left out, their calls are
+     * already timed through the repository.
+     *
+     * @param joinPoint The call.
+     * @return The result of the call.
+     * @throws Throwable The exception thrown by the call.
+     */
+    @Around("execution(* nice.daos.*+.*(..)) && !within(nice.daos.*Impl) && !within(nice.daos.Reactive*)")
+    public Object timeDao(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(DAO_CALLS, this.daoNames.computeIfAbsent(joinPoint.getThis().getClass(), MetricsAspect::daoName),
+                joinPoint);
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private Object time(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        Timer timer = null;
+        try {
+            Object result = joinPoint.proceed();
+            timer = this.timers.computeIfAbsent(className, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                            method -> timer(name, className, method.getName(), NONE));
+            return result;
+        } catch (Throwable e) {
+            timer = timer(name, className, joinPoint.getSignature().getName(), e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private Timer timer(String name, String className, String methodName, String exception) {
+        return Timer.builder(name)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("exception", exception)
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Finds the dao implemented by a repository proxy, since the inherited methods are declared by Spring Data.
+     *
+     * @param proxyClass The class of the repository proxy.
+     * @return The simple name of the dao interface.
+     */
+    private static String daoName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getName().startsWith("nice.daos.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -0,0 +1,65 @@
+package nice.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Debug filter adding the number of SQL statements and their JDBC time to each response.
+ * The response is buffered so that the headers can be added once the whole body, and any lazy loading it triggers,
+ * has been written, which is why this filter is only registered in debug mode.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Header with the number of SQL statements executed by the request.
+     */
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    /**
+     * Header with the total JDBC time of the statements executed by the request, in milliseconds.
+     */
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    //***************************************************************
+    // Protected methods.
+    //***************************************************************
+
+    /**
+     * Leaves out the streams of Server-Sent Events, their events must not be buffered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        QueryCountListener.reset();
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            QueryCountListener.QueryCount queryCount = QueryCountListener.current();
+            responseWrapper.setHeader(QUERY_COUNT_HEADER, String.valueOf(queryCount.getCount()));
+            responseWrapper.setHeader(QUERY_TIME_HEADER, String.valueOf(queryCount.getElapsedMillis()));
+            QueryCountListener.reset();
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package nice.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listener of the JDBC statements executed through the proxied datasource.
+ * It counts the statements and their time for the current thread, which is the current HTTP request, and in total for
+ * the tests. It also logs the statements slower than a threshold with their bind parameters and the service method
+ * that issued them. A JDBC batch counts as a single statement, since it is a single round trip.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class QueryCountListener implements QueryExecutionListener {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    private static Logger logger = LoggerFactory.getLogger(QueryCountListener.class);
+
+    private static final ThreadLocal<QueryCount> CURRENT = ThreadLocal.withInitial(QueryCount::new);
+
+    private static final AtomicLong TOTAL = new AtomicLong();
+
+    private static final String SERVICES_PACKAGE = "nice.services.";
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private final long slowQueryThresholdMillis;
+
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    /**
+     * Creates the listener.
+     *
+     * @param slowQueryThresholdMillis The time from which a statement is logged as slow, in milliseconds.
+     */
+    public QueryCountListener(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCount queryCount = CURRENT.get();
+        queryCount.count++;
+        queryCount.elapsedMillis += execInfo.getElapsedTime();
+        TOTAL.incrementAndGet();
+        if (execInfo.getElapsedTime() >= this.slowQueryThresholdMillis) {
+            logger.warn("--> slow query from {}: {}", caller(),
+                    this.logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false));
+        }
+    }
+
+    /**
+     * Starts counting the statements of the current thread from zero.
+     */
+    public static void reset() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Obtains the statements of the current thread since the last reset.
+     *
+     * @return The count and the time of the statements.
+     */
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Obtains the statements of all the threads since the application started.
+     *
+     * @return The number of statements.
+     */
+    public static long total() {
+        return TOTAL.get();
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Finds the service method that issued the statement, walking the stack only for the slow ones.
+     *
+     * @return The class and the method of the service, or unknown if the statement was not issued by a service.
+     */
+    private static String caller() {
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            if (element.getClassName().startsWith(SERVICES_PACKAGE) && !element.getClassName().contains("$$")) {
+                return element.getClassName().substring(SERVICES_PACKAGE.length()) + "." + element.getMethodName();
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Count and time of the statements of a thread.
+     */
+    public static class QueryCount {
+
+        private long count;
+
+        private long elapsedMillis;
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package nice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * POJO for the configuration of the profile reactive.
+ * Tomcat is also on the classpath for the Spring MVC endpoints, so Netty is chosen explicitly: its event loops, one
+ * thread per core, serve every connection without a thread per request. Spring Boot does not configure a JDBC
+ * datasource beside an R2DBC connection factory, so the one of JPA, which still creates the schema and the initial
+ * data, is declared here from the same properties.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,46 @@
+package nice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * POJO for the request logging configuration: every request of the Spring MVC endpoints, or of the WebFlux ones
+ * with the profile reactive, is logged once answered with its correlation id and time, unless
+ * logging.requests.enabled is false.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Configuration
+@ConditionalOnProperty(name = "logging.requests.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLoggingConfig {
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Registers the filter first, so that the time logged is the one of the whole request.
+     *
+     * @return The registration of the filter.
+     */
+    @Bean
+    @Profile("!reactive")
+    public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilter() {
+        FilterRegistrationBean<RequestLoggingFilter> registration =
+                new FilterRegistrationBean<>(new RequestLoggingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @Profile("reactive")
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RequestLoggingWebFilter requestLoggingWebFilter() {
+        return new RequestLoggingWebFilter();
+    }
+}
@@ -0,0 +1,103 @@
+package nice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Filter logging each request once it is answered: its method, path, status and time, under the correlation id of
+ * the request. The id is the one of the X-Request-Id header sent by the client, or a new one, and is returned in the
+ * same header of the response and kept in the MDC while the request is served, so every line logged on its behalf
+ * carries it. The lines are written by the asynchronous appender of logback-spring.xml, never by the request thread.
+ * The streams, e.g. of Server-Sent Events, are logged when they start.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    private static Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    /**
+     * Header with the correlation id of the request, sent by the client or generated.
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * Key of the correlation id of the request in the MDC.
+     */
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    /**
+     * Maximum length of a correlation id sent by a client, longer ones are replaced.
+     */
+    public static final int REQUEST_ID_MAX_LENGTH = 64;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * @param requestId The correlation id sent by the client, or null.
+     * @return The correlation id sent if it is short and only made of letters, digits, '.', '_' and '-', so that it
+     * cannot forge log lines, otherwise a new random one.
+     */
+    public static String requestId(String requestId) {
+        if (requestId != null && !requestId.isEmpty() && requestId.length() <= REQUEST_ID_MAX_LENGTH) {
+            boolean valid = true;
+            for (int i = 0; i < requestId.length() && valid; i++) {
+                char c = requestId.charAt(i);
+                valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                        || c == '.' || c == '_' || c == '-';
+            }
+            if (valid) {
+                return requestId;
+            }
+        }
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Logs a request answered, the arguments are only formatted if the level info is enabled.
+     *
+     * @param method     The method of the request.
+     * @param path       The path of the request.
+     * @param status     The status of the response.
+     * @param startNanos The time the request was received, from {@link System#nanoTime()}.
+     */
+    public static void log(String method, String path, int status, long startNanos) {
+        if (logger.isInfoEnabled()) {
+            logger.info("--> {} {} {} in {} us", method, path, status, (System.nanoTime() - startNanos) / 1000);
+        }
+    }
+
+    //***************************************************************
+    // Protected methods.
+    //***************************************************************
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_KEY, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log(request.getMethod(), request.getRequestURI(), response.getStatus(), startNanos);
+            MDC.remove(REQUEST_ID_KEY);
+        }
+    }
+}
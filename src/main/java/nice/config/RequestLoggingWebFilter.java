@@ -0,0 +1,39 @@
+package nice.config;
+
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filter of the profile reactive logging each request as {@link RequestLoggingFilter} does. The request moves between
+ * the event loop threads while it is served, so its correlation id is only put in the MDC for the line logged once
+ * it is answered.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class RequestLoggingWebFilter implements WebFilter {
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startNanos = System.nanoTime();
+        ServerHttpRequest request = exchange.getRequest();
+        String requestId = RequestLoggingFilter.requestId(
+                request.getHeaders().getFirst(RequestLoggingFilter.REQUEST_ID_HEADER));
+        exchange.getResponse().getHeaders().set(RequestLoggingFilter.REQUEST_ID_HEADER, requestId);
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestLoggingFilter.REQUEST_ID_KEY, requestId)) {
+                RequestLoggingFilter.log(request.getMethod().name(), request.getPath().value(),
+                        status == null ? 200 : status.value(), startNanos);
+            }
+        });
+    }
+}
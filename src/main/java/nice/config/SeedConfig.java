@@ -0,0 +1,257 @@
+package nice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nice.constants.Status;
+import nice.entities.Task;
+import nice.entities.TodoList;
+import nice.entities.User;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * POJO for the synthetic data seeding, active with the profile seed instead of the initial data of the application.
+ * Users, tasks and todolists are inserted in chunks, each one in its own transaction with JDBC batching, and the ranges
+ * of the ids inserted are written to a manifest for the load tests.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Configuration
+@Profile("seed")
+public class SeedConfig {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    private static Logger logger = LoggerFactory.getLogger(SeedConfig.class);
+
+    /**
+     * Number of entities inserted in each transaction, the persistence context is cleared after each one.
+     */
+    public static final int CHUNK_SIZE = 10000;
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${seed.users:1000000}")
+    private int users;
+
+    @Value("${seed.tasks:1000000}")
+    private int tasks;
+
+    @Value("${seed.tasks.unassigned-ratio:0.1}")
+    private double unassignedRatio;
+
+    @Value("${seed.todolists:10000}")
+    private int todoLists;
+
+    @Value("${seed.todolists.tasks-per-list:100}")
+    private int tasksPerList;
+
+    @Value("${seed.todolists.distribution:uniform}")
+    private String distribution;
+
+    @Value("${seed.todolists.zipf-exponent:1.0}")
+    private double zipfExponent;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${seed.manifest:target/seed-manifest.json}")
+    private String manifest;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Seeds the database when the application starts.
+     *
+     * @param transactionManager The transaction manager of the chunks.
+     * @param objectMapper       The mapper to write the manifest.
+     * @return The runner seeding the database.
+     */
+    @Bean
+    CommandLineRunner seed(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        return (evt) -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            Random random = new Random(randomSeed);
+            long start = System.currentTimeMillis();
+
+            long[] userIds = new long[users];
+            for (int from = 0; from < users; from += CHUNK_SIZE) {
+                int chunkFrom = from;
+                transactionTemplate.execute(status -> {
+                    for (int i = chunkFrom; i < Math.min(chunkFrom + CHUNK_SIZE, users); i++) {
+                        User user = new User("user" + i);
+                        entityManager.persist(user);
+                        userIds[i] = user.getId();
+                    }
+                    return null;
+                });
+            }
+            logger.info("--> seeded {} users", users);
+
+            // the task i is assigned to the user i, unless left unassigned.
+            long[] taskIds = new long[tasks];
+            Status[] statuses = Status.values();
+            for (int from = 0; from < tasks; from += CHUNK_SIZE) {
+                int chunkFrom = from;
+                transactionTemplate.execute(status -> {
+                    for (int i = chunkFrom; i < Math.min(chunkFrom + CHUNK_SIZE, tasks); i++) {
+                        User user = i < users && random.nextDouble() >= unassignedRatio
+                                ? entityManager.getReference(User.class, userIds[i]) : null;
+                        Task task = new Task("task" + i, "description of task " + i,
+                                statuses[random.nextInt(statuses.length)], user);
+                        entityManager.persist(task);
+                        taskIds[i] = task.getId();
+                    }
+                    return null;
+                });
+            }
+            logger.info("--> seeded {} tasks", tasks);
+
+            // each todolist holds a run of consecutive tasks starting at a random one.
+            int[] sizes = todoListSizes();
+            long[] todoListIds = new long[todoLists];
+            for (int from = 0; from < todoLists; ) {
+                int chunkFrom = from;
+                int chunkTo = chunkFrom;
+                int chunkTasks = 0;
+                while (chunkTo < todoLists && (chunkTo == chunkFrom || chunkTasks + sizes[chunkTo] <= CHUNK_SIZE)) {
+                    chunkTasks += sizes[chunkTo++];
+                }
+                int chunkEnd = chunkTo;
+                transactionTemplate.execute(status -> {
+                    int[] firsts = new int[chunkEnd - chunkFrom];
+                    for (int i = chunkFrom; i < chunkEnd; i++) {
+                        firsts[i - chunkFrom] = random.nextInt(Math.max(1, tasks - sizes[i] + 1));
+                        TodoList todoList = new TodoList("todolist" + i, null);
+                        entityManager.persist(todoList);
+                        todoListIds[i] = todoList.getId();
+                    }
+                    // the rows of the join table are batched with JDBC, instead of loading the sets of tasks of the
+                    // todolists through the persistence context.
+                    entityManager.flush();
+                    entityManager.unwrap(Session.class).doWork(connection -> {
+                        try (PreparedStatement statement = connection.prepareStatement("insert into "
+                                + TodoList.TASKS_JOIN_TABLE + " (todolist_id, task_id) values (?, ?)")) {
+                            for (int i = chunkFrom; i < chunkEnd; i++) {
+                                int first = firsts[i - chunkFrom];
+                                for (int j = first; j < first + sizes[i]; j++) {
+                                    statement.setLong(1, todoListIds[i]);
+                                    statement.setLong(2, taskIds[j]);
+                                    statement.addBatch();
+                                }
+                            }
+                            statement.executeBatch();
+                        }
+                    });
+                    return null;
+                });
+                from = chunkEnd;
+            }
+            logger.info("--> seeded {} todolists with a {} distribution of tasks", todoLists, distribution);
+
+            Map<String, Object> ids = new LinkedHashMap<>();
+            ids.put("users", range(userIds));
+            ids.put("userNames", userNames());
+            ids.put("tasks", range(taskIds));
+            ids.put("todolists", range(todoListIds));
+            File manifestFile = new File(manifest);
+            if (manifestFile.getAbsoluteFile().getParentFile() != null) {
+                manifestFile.getAbsoluteFile().getParentFile().mkdirs();
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(manifestFile, ids);
+            logger.info("--> seeding finished in {} ms, manifest written to {}", System.currentTimeMillis() - start,
+                    manifestFile.getAbsolutePath());
+        };
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Draws the number of tasks of each todolist. With the uniform distribution every todolist has the configured
+     * number of tasks, with the zipf distribution the todolist of rank r has a number proportional to 1/r^exponent,
+     * scaled to keep the configured mean.
+     *
+     * @return The number of tasks of each todolist, bounded by the number of tasks.
+     */
+    private int[] todoListSizes() {
+        int[] sizes = new int[todoLists];
+        if ("zipf".equals(distribution)) {
+            double harmonic = 0;
+            for (int rank = 1; rank <= todoLists; rank++) {
+                harmonic += 1 / Math.pow(rank, zipfExponent);
+            }
+            double scale = (double) tasksPerList * todoLists / harmonic;
+            for (int rank = 1; rank <= todoLists; rank++) {
+                sizes[rank - 1] = (int) Math.max(1, Math.round(scale / Math.pow(rank, zipfExponent)));
+            }
+        } else if ("uniform".equals(distribution)) {
+            Arrays.fill(sizes, tasksPerList);
+        } else {
+            throw new IllegalArgumentException("Unknown seed.todolists.distribution " + distribution
+                    + ", expected uniform or zipf.");
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Math.min(sizes[i], tasks);
+        }
+        return sizes;
+    }
+
+    /**
+     * Builds the range of the userNames seeded, the prefix followed by the index of the user.
+     *
+     * @return The prefix, the first and the last index, and the number of userNames.
+     */
+    private Map<String, Object> userNames() {
+        Map<String, Object> userNames = new LinkedHashMap<>();
+        userNames.put("prefix", "user");
+        userNames.put("count", (long) users);
+        if (users > 0) {
+            userNames.put("first", 0L);
+            userNames.put("last", (long) users - 1);
+        }
+        return userNames;
+    }
+
+    /**
+     * Builds the range of the ids seeded.
+     *
+     * @param ids The ids seeded.
+     * @return The first and the last id, and the number of ids.
+     */
+    private Map<String, Long> range(long[] ids) {
+        Map<String, Long> range = new LinkedHashMap<>();
+        range.put("count", (long) ids.length);
+        if (ids.length > 0) {
+            range.put("first", Arrays.stream(ids).min().getAsLong());
+            range.put("last", Arrays.stream(ids).max().getAsLong());
+        }
+        return range;
+    }
+}
@@ -0,0 +1,12 @@
+package nice.constants;
+
+/**
+ * Enum with the types of the rows recorded in the change log.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public enum ChangeType {
+
+    TASK, TODOLIST, USER;
+
+}
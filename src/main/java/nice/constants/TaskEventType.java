@@ -0,0 +1,12 @@
+package nice.constants;
+
+/**
+ * Enum with the types of the events of the change feeds of tasks and todolists.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public enum TaskEventType {
+
+    CREATED, UPDATED, STATUS_CHANGED, DELETED, ADDED, REMOVED, TODOLIST_DELETED;
+
+}
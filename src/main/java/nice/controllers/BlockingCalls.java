@@ -0,0 +1,63 @@
+package nice.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.Callable;
+
+/**
+ * Calls of the blocking services from the endpoints of the profile reactive, the writes and the reads through JPA.
+ * They run on the bounded elastic scheduler, never on the event loops, and their exceptions are answered by
+ * {@link ReactiveResponseEntityExceptionHandler}. Each call keeps an entity manager open, as spring.jpa.open-in-view
+ * does for the Spring MVC endpoints, so that the lazy tasks of a todolist are read while building its response.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Component
+@Profile("reactive")
+public class BlockingCalls {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * @param call The blocking call.
+     * @param <T>  The type of the result.
+     * @return The result of the call, made on a thread of the bounded elastic scheduler once subscribed.
+     */
+    public <T> Mono<T> call(Callable<T> call) {
+        return Mono.fromCallable(() -> callInEntityManager(call)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private <T> T callInEntityManager(Callable<T> call) throws Exception {
+        EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(this.entityManagerFactory,
+                new EntityManagerHolder(entityManager));
+        try {
+            return call.call();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(this.entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+}
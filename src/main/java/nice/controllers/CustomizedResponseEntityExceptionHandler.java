@@ -1,9 +1,15 @@
 package nice.controllers;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.micrometer.core.instrument.MeterRegistry;
 import nice.dto.ErrorDto;
 import nice.exceptions.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,80 +17,107 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.util.Date;
-
 @ControllerAdvice
+@Profile("!reactive")
 @RestController
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Counter of the exceptions handled, tagged with the exception type and the status of the response.
+     */
+    public static final String HANDLED_EXCEPTIONS = "api.exceptions";
+
+    /**
+     * Message of the violations of the database constraints, instead of the one of the exception with the SQL.
+     */
+    public static final String DATA_INTEGRITY_VIOLATION_MESSAGE = "Error when writing: the change violates a "
+            + "constraint of the data, e.g. a row still referenced or a duplicate value.";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @ExceptionHandler(value = {InvalidFormatException.class})
     public final ResponseEntity handleIllegalArgumentException(InvalidFormatException exception) {
+        count(exception, HttpStatus.BAD_REQUEST);
         return ResponseEntity.badRequest().body(exception.getMessage());
     }
 
     @ExceptionHandler(NotValidParameterException.class)
     public final ResponseEntity<ErrorDto> handleNotValidParameterException(
             NotValidParameterException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+        return error(ex, HttpStatus.BAD_REQUEST, request);
     }
 
     @ExceptionHandler(UserNameAlreadyTakenException.class)
     public final ResponseEntity<ErrorDto> handleUserNameAlreadyTakenException(
             UserNameAlreadyTakenException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+        return error(ex, HttpStatus.NOT_FOUND, request);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
     public final ResponseEntity<ErrorDto> handleUserNotFoundException(
             UserNotFoundException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+        return error(ex, HttpStatus.NOT_FOUND, request);
     }
 
 
     @ExceptionHandler(TaskNameAlreadyTakenException.class)
     public final ResponseEntity<ErrorDto> handleTaskNameAlreadyTakenException(
             TaskNameAlreadyTakenException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+        return error(ex, HttpStatus.BAD_REQUEST, request);
     }
 
     @ExceptionHandler(TaskNotFoundException.class)
     public final ResponseEntity<ErrorDto> handleTaskNotFoundException(
             TaskNotFoundException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+        return error(ex, HttpStatus.NOT_FOUND, request);
     }
 
     @ExceptionHandler(TodoListNameAlreadyTakenException.class)
     public final ResponseEntity<ErrorDto> handleTodoListNameAlreadyTakenException(
             TodoListNameAlreadyTakenException ex, WebRequest request) {
-
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
-                request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+        return error(ex, HttpStatus.BAD_REQUEST, request);
     }
 
     @ExceptionHandler(TodoListNotFoundException.class)
     public final ResponseEntity<ErrorDto> handleTodoListNotFoundException(
             TodoListNotFoundException ex, WebRequest request) {
+        return error(ex, HttpStatus.NOT_FOUND, request);
+    }
 
-        ErrorDto errorDetails = new ErrorDto(new Date(), ex.getMessage(),
+    /**
+     * Answers the violations of the database constraints not translated by the services, e.g. deleting a user who is
+     * still assigned to tasks, as a conflict with the current data instead of a server error. The message of the
+     * exception, with the SQL statement, is not returned.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public final ResponseEntity<ErrorDto> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, WebRequest request) {
+        ErrorDto errorDetails = new ErrorDto(System.currentTimeMillis(), DATA_INTEGRITY_VIOLATION_MESSAGE,
                 request.getDescription(false));
-        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+        count(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Counts the exceptions thrown by Spring MVC itself, e.g. an unsupported media type or an unreadable body.
+     */
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatusCode status, WebRequest request) {
+        count(ex, status);
+        return super.handleExceptionInternal(ex, body, headers, status, request);
+    }
+
+    private ResponseEntity<ErrorDto> error(Exception ex, HttpStatus status, WebRequest request) {
+        ErrorDto errorDetails = new ErrorDto(System.currentTimeMillis(), ex.getMessage(),
+                request.getDescription(false));
+        count(ex, status);
+        return new ResponseEntity<>(errorDetails, status);
+    }
+
+    private void count(Exception ex, HttpStatusCode status) {
+        this.meterRegistry.counter(HANDLED_EXCEPTIONS, "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
@@ -0,0 +1,106 @@
+package nice.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nice.dto.ErrorDto;
+import nice.exceptions.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Errors of the endpoints of the profile reactive, answered and counted as in
+ * {@link CustomizedResponseEntityExceptionHandler}.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ExceptionHandler(NotValidParameterException.class)
+    public final ResponseEntity<ErrorDto> handleNotValidParameterException(
+            NotValidParameterException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(UserNameAlreadyTakenException.class)
+    public final ResponseEntity<ErrorDto> handleUserNameAlreadyTakenException(
+            UserNameAlreadyTakenException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public final ResponseEntity<ErrorDto> handleUserNotFoundException(
+            UserNotFoundException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(TaskNameAlreadyTakenException.class)
+    public final ResponseEntity<ErrorDto> handleTaskNameAlreadyTakenException(
+            TaskNameAlreadyTakenException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public final ResponseEntity<ErrorDto> handleTaskNotFoundException(
+            TaskNotFoundException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(TodoListNameAlreadyTakenException.class)
+    public final ResponseEntity<ErrorDto> handleTodoListNameAlreadyTakenException(
+            TodoListNameAlreadyTakenException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(TodoListNotFoundException.class)
+    public final ResponseEntity<ErrorDto> handleTodoListNotFoundException(
+            TodoListNotFoundException ex, ServerWebExchange exchange) {
+        return error(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public final ResponseEntity<ErrorDto> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, ServerWebExchange exchange) {
+        ErrorDto errorDetails = new ErrorDto(System.currentTimeMillis(),
+                CustomizedResponseEntityExceptionHandler.DATA_INTEGRITY_VIOLATION_MESSAGE,
+                "uri=" + exchange.getRequest().getPath().value());
+        count(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Counts the exceptions thrown by Spring WebFlux itself, e.g. an unsupported media type or a parameter not valid.
+     */
+    @Override
+    protected Mono<ResponseEntity<Object>> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                                   HttpStatusCode status,
+                                                                   ServerWebExchange exchange) {
+        count(ex, status);
+        return super.handleExceptionInternal(ex, body, headers, status, exchange);
+    }
+
+    private ResponseEntity<ErrorDto> error(Exception ex, HttpStatus status, ServerWebExchange exchange) {
+        ErrorDto errorDetails = new ErrorDto(System.currentTimeMillis(), ex.getMessage(),
+                "uri=" + exchange.getRequest().getPath().value());
+        count(ex, status);
+        return new ResponseEntity<>(errorDetails, status);
+    }
+
+    private void count(Exception ex, HttpStatusCode status) {
+        this.meterRegistry.counter(CustomizedResponseEntityExceptionHandler.HANDLED_EXCEPTIONS, "exception",
+                ex.getClass().getSimpleName(), "status", String.valueOf(status.value())).increment();
+    }
+}
@@ -0,0 +1,152 @@
+package nice.controllers;
+
+import nice.constants.Status;
+import nice.dto.RequestTaskDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseUserTaskStatsDto;
+import nice.exceptions.NotValidParameterException;
+import nice.services.ReactiveTaskService;
+import nice.services.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * RESTful webservice for the tasks, replacing {@link TaskController} with the profile reactive. The pages of tasks are
+ * read non-blocking, the writes and the stats call the blocking {@link TaskService} off the event loops. The export and
+ * the events, written by the servlet response, are not served.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1")
+public class ReactiveTaskController {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Logger
+     */
+    private static Logger logger = LoggerFactory.getLogger(ReactiveTaskController.class);
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * The service to read the tasks.
+     */
+    @Autowired
+    private ReactiveTaskService reactiveTaskService;
+
+    /**
+     * The service to perform tasks operations.
+     */
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private BlockingCalls blockingCalls;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains a page of tasks, optionally filtered by status, streamed as they are read: as a JSON array, or as
+     * newline-delimited JSON flushed task by task. Since the headers are sent before the tasks, there is no header
+     * X-Next-Cursor, the next page is requested with the id of the last task as parameter after until a page has
+     * less tasks than the limit.
+     *
+     * @param status The status of the tasks.
+     * @param after  The id of the last task of the previous page, if any.
+     * @param limit  The maximum number of tasks of the page.
+     * @param fields The comma separated fields of the tasks to return, among id, name, description, status and user,
+     *               only their columns are read. All the fields by default.
+     * @return the tasks of the page, and if the parameter status is provided only the tasks with that status.
+     * @throws NotValidParameterException If the cursor, the limit or the fields are not valid.
+     */
+    @GetMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, TaskController.APPLICATION_NDJSON_VALUE})
+    public Flux<ResponseTaskDto> getAllTasks(
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) throws NotValidParameterException {
+        logger.debug("--> getAllTasks with status {}", status);
+        return this.reactiveTaskService.getTasks(status, after, limit, fields);
+    }
+
+    /**
+     * Obtains the number of tasks of each status, counted in the database.
+     *
+     * @return The number of tasks of each status.
+     */
+    @GetMapping(path = "/tasks/stats", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<Status, Long>> getTaskStats() {
+        return this.blockingCalls.call(() -> this.taskService.getTaskStats());
+    }
+
+    /**
+     * Obtains the number of tasks of each status grouped by assigned user, counted in the database.
+     *
+     * @return The number of tasks of each status for each user, the tasks not assigned have no user.
+     */
+    @GetMapping(path = "/tasks/stats/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<ResponseUserTaskStatsDto>> getTaskStatsByUser() {
+        return this.blockingCalls.call(() -> this.taskService.getTaskStatsByUser());
+    }
+
+    /**
+     * Creates a task.
+     *
+     * @param requestTaskDto The object with the data for the new task.
+     * @return The new task, or the error of {@link TaskController#createTask}.
+     */
+    @PostMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseTaskDto> createTask(@RequestBody RequestTaskDto requestTaskDto) {
+        return this.blockingCalls.call(() -> new ResponseTaskDto(this.taskService.createTask(requestTaskDto)));
+    }
+
+    /**
+     * Creates a batch of tasks.
+     *
+     * @param requestTaskDtos The list with the data for the new tasks.
+     * @return The new tasks, in the same order, or the error of {@link TaskController#createTasks}.
+     */
+    @PostMapping(path = "/tasks/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<ResponseTaskDto>> createTasks(@RequestBody List<RequestTaskDto> requestTaskDtos) {
+        return this.blockingCalls.call(() -> this.taskService.createTasks(requestTaskDtos).stream()
+                .map(ResponseTaskDto::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Updates a task.
+     *
+     * @param id             The id of the task to update.
+     * @param requestTaskDto The object with the data of the task to be updated.
+     * @return The task updated, or the error of {@link TaskController#updateTask}.
+     */
+    @PutMapping(path = "/tasks/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseTaskDto> updateTask(@PathVariable("id") Long id, @RequestBody RequestTaskDto requestTaskDto) {
+        return this.blockingCalls.call(() -> new ResponseTaskDto(this.taskService.updateTask(id, requestTaskDto)));
+    }
+}
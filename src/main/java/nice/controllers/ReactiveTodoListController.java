@@ -0,0 +1,267 @@
+package nice.controllers;
+
+import nice.constants.Status;
+import nice.dto.RequestTodoListDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTodoListDto;
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.dto.ResponseUserTaskStatsDto;
+import nice.exceptions.NotValidParameterException;
+import nice.exceptions.TodoListNotFoundException;
+import nice.services.ReactiveTodoListService;
+import nice.services.TodoListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RESTful webservice for the todolists, replacing {@link TodoListController} with the profile reactive. The pages of
+ * todolists and of their tasks are read non-blocking, the other endpoints call the blocking {@link TodoListService} off
+ * the event loops. The full view of the todolists and the events are not served.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1")
+public class ReactiveTodoListController {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * The service to read the todolists.
+     */
+    @Autowired
+    private ReactiveTodoListService reactiveTodoListService;
+
+    /**
+     * The service to perform todolists operations.
+     */
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private BlockingCalls blockingCalls;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains a page of todolists ordered by id, each one summarized with its number of tasks, in total and of each
+     * status, streamed as they are read. Only the summary view is served, the next page is requested with the id of
+     * the last todolist as parameter after until a page has less todolists than the limit.
+     *
+     * @param view  The view of the todolists, only summary.
+     * @param after The id of the last todolist of the previous page, if any.
+     * @param limit The maximum number of todolists of the page.
+     * @return The summaries of the todolists of the page.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @GetMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, TaskController.APPLICATION_NDJSON_VALUE})
+    public Flux<ResponseTodoListSummaryDto> getAllTodoLists(
+            @RequestParam(value = "view", defaultValue = TodoListController.SUMMARY_VIEW) String view,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit) throws NotValidParameterException {
+        if (!TodoListController.SUMMARY_VIEW.equals(view)) {
+            throw new NotValidParameterException("Error when obtaining todolists: view must be "
+                    + TodoListController.SUMMARY_VIEW + ".");
+        }
+        return this.reactiveTodoListService.getTodoListSummaries(after, limit);
+    }
+
+    /**
+     * Obtains a page of the tasks of a todolist, optionally filtered by status and sorted, streamed as they are read.
+     * The version of the todolist is read first, to answer 304 without reading the tasks, then the total number of
+     * tasks returned in the header X-Total-Count.
+     *
+     * @param id       The id of todolist.
+     * @param status   The status of the tasks.
+     * @param sort     The property to sort by, id, name or status, prefixed with - to sort descending.
+     * @param page     The number of the page from 0.
+     * @param after    The id of the last task of the previous page when sorted by ascending id, if any.
+     * @param limit    The maximum number of tasks of the page.
+     * @param fields   The comma separated fields of the tasks to return, among id, name, description, status and
+     *                 user, only their columns are read. All the fields by default.
+     * @param exchange The exchange, answered with 304 when its If-None-Match matches the version of the todolist.
+     * @return The tasks of the page, or the error {@link TodoListNotFoundException} if the todolist was not found.
+     * @throws NotValidParameterException If the patameters are not valid.
+     */
+    @GetMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, TaskController.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<ResponseTaskDto>>> getTodoListTasksById(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServerWebExchange exchange) throws NotValidParameterException {
+        Mono<Long> version = this.reactiveTodoListService.getTodoListVersion(id);
+        Flux<ResponseTaskDto> tasks = this.reactiveTodoListService.getTodoListTasks(id, status, sort, page, after,
+                limit, fields);
+        Mono<Long> count = this.reactiveTodoListService.countTodoListTasks(id, status);
+        return version.flatMap(todoListVersion -> {
+            String eTag = "\"" + todoListVersion + "\"";
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+            }
+            return count.map(total -> ResponseEntity.ok()
+                    .header(TodoListController.TOTAL_COUNT_HEADER, String.valueOf(total))
+                    .eTag(eTag)
+                    .body(tasks));
+        });
+    }
+
+    /**
+     * Obtains a todolist by id.
+     *
+     * @param id       The id of the todolist to obtain.
+     * @param exchange The exchange, answered with 304 when its If-None-Match matches the version of the todolist.
+     * @return The todolist associated to the id, or the error of {@link TodoListController#getTodoListById}.
+     */
+    @GetMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ResponseTodoListDto>> getTodoListById(@PathVariable("id") Long id,
+                                                                     ServerWebExchange exchange) {
+        return this.blockingCalls.call(() -> {
+            String eTag = "\"" + this.todoListService.getTodoListVersion(id) + "\"";
+            if (exchange.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag)
+                    .body(new ResponseTodoListDto(this.todoListService.getTodoListById(id)));
+        });
+    }
+
+    /**
+     * Creates a todolist.
+     *
+     * @param requestTodoListDto The new todolist.
+     * @return The todolist created, or the error of {@link TodoListController#createTodoList}.
+     */
+    @PostMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseTodoListDto> createTodoList(@RequestBody RequestTodoListDto requestTodoListDto) {
+        return this.blockingCalls.call(
+                () -> new ResponseTodoListDto(this.todoListService.createTodoList(requestTodoListDto)));
+    }
+
+    /**
+     * Adds a task to a todolist.
+     *
+     * @param id     The id of the todolist.
+     * @param taskId The id of the task to add, nothing is done if it is already in the todolist.
+     * @return The result of the operation, or the error of {@link TodoListController#addTodoListTask}.
+     */
+    @PostMapping(path = "/todolists/{id}/tasks/{taskId}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> addTodoListTask(@PathVariable("id") Long id, @PathVariable("taskId") Long taskId) {
+        return this.blockingCalls.call(() -> {
+            this.todoListService.addTodoListTasks(id, Collections.singletonList(taskId));
+            return "{\"result\":\"task was added to the todolist successfully.\"}";
+        });
+    }
+
+    /**
+     * Adds tasks to a todolist.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to add.
+     * @return The result of the operation, or the error of {@link TodoListController#addTodoListTasks}.
+     */
+    @PostMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> addTodoListTasks(@PathVariable("id") Long id, @RequestBody List<Long> taskIds) {
+        return this.blockingCalls.call(() -> {
+            this.todoListService.addTodoListTasks(id, taskIds);
+            return "{\"result\":\"tasks were added to the todolist successfully.\"}";
+        });
+    }
+
+    /**
+     * Removes a task from a todolist.
+     *
+     * @param id     The id of the todolist.
+     * @param taskId The id of the task to remove, nothing is done if it is not in the todolist.
+     * @return The result of the operation, or the error of {@link TodoListController#removeTodoListTask}.
+     */
+    @DeleteMapping(path = "/todolists/{id}/tasks/{taskId}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> removeTodoListTask(@PathVariable("id") Long id, @PathVariable("taskId") Long taskId) {
+        return this.blockingCalls.call(() -> {
+            this.todoListService.removeTodoListTasks(id, Collections.singletonList(taskId));
+            return "{\"result\":\"task was removed from the todolist successfully.\"}";
+        });
+    }
+
+    /**
+     * Removes tasks from a todolist.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to remove, the tasks not in the todolist are skipped.
+     * @return The result of the operation, or the error of {@link TodoListController#removeTodoListTasks}.
+     */
+    @DeleteMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> removeTodoListTasks(@PathVariable("id") Long id, @RequestParam("ids") List<Long> taskIds) {
+        return this.blockingCalls.call(() -> {
+            this.todoListService.removeTodoListTasks(id, taskIds);
+            return "{\"result\":\"tasks were removed from the todolist successfully.\"}";
+        });
+    }
+
+    /**
+     * Obtains the number of tasks of each status in a todolist, counted in the database.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status, or the error of {@link TodoListController#getTodoListStats}.
+     */
+    @GetMapping(path = "/todolists/{id}/stats", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<Status, Long>> getTodoListStats(@PathVariable("id") Long id) {
+        return this.blockingCalls.call(() -> this.todoListService.getTodoListStats(id));
+    }
+
+    /**
+     * Obtains the number of tasks of each status in a todolist grouped by assigned user, counted in the database.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status for each user, or the error of
+     * {@link TodoListController#getTodoListStatsByUser}.
+     */
+    @GetMapping(path = "/todolists/{id}/stats/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<ResponseUserTaskStatsDto>> getTodoListStatsByUser(@PathVariable("id") Long id) {
+        return this.blockingCalls.call(() -> this.todoListService.getTodoListStatsByUser(id));
+    }
+
+    /**
+     * Deletes a todolist.
+     *
+     * @param id The id of the todolist to delete.
+     * @return The result of the operation, or the error of {@link TodoListController#deleteTodoList}.
+     */
+    @DeleteMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> deleteTodoList(@PathVariable("id") Long id) {
+        return this.blockingCalls.call(() -> {
+            this.todoListService.deleteTodoList(id);
+            return "{\"result\":\"todolist was deleted successfully.\"}";
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package nice.controllers;
+
+import nice.dto.RequestUserDto;
+import nice.dto.ResponseUserDto;
+import nice.entities.User;
+import nice.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * RESTful webservice for the users with the profile reactive, mapping the endpoints of {@link UserController} to the
+ * blocking {@link UserService} called off the event loops.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1")
+public class ReactiveUserController {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * The service to perform users operations.
+     */
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BlockingCalls blockingCalls;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains all users.
+     *
+     * @return The list of all users.
+     */
+    @GetMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<ResponseUserDto>> getAllUsers() {
+        return this.blockingCalls.call(() -> StreamSupport.stream(this.userService.findAll().spliterator(), false)
+                .map(user -> new ResponseUserDto(user.getId(), user.getUserName()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Creates a user.
+     *
+     * @param requestUserDto The data of new user to create.
+     * @return The user created, or the error of {@link UserController#createUser}.
+     */
+    @PostMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseUserDto> createUser(@RequestBody RequestUserDto requestUserDto) {
+        return this.blockingCalls.call(() -> {
+            User user = this.userService.createUser(requestUserDto.getUserName());
+            return new ResponseUserDto(user.getId(), user.getUserName());
+        });
+    }
+
+    /**
+     * Updates a user.
+     *
+     * @param id             The id of the user to be updated.
+     * @param requestUserDto The data to be updated.
+     * @return The user updated, or the error of {@link UserController#updateUser}.
+     */
+    @PutMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseUserDto> updateUser(@PathVariable("id") Long id, @RequestBody RequestUserDto requestUserDto) {
+        return this.blockingCalls.call(() -> {
+            User user = this.userService.updateUser(id, requestUserDto.getUserName());
+            return new ResponseUserDto(user.getId(), user.getUserName());
+        });
+    }
+
+    /**
+     * Deletes a user.
+     *
+     * @param id The id of the user to delete.
+     * @return The result of the operation, or the error of {@link UserController#deleteUser}.
+     */
+    @DeleteMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> deleteUser(@PathVariable("id") Long id) {
+        return this.blockingCalls.call(() -> {
+            this.userService.deleteUser(id);
+            return "\"{\"result\":\"User was deleted successfully\"}";
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package nice.controllers;
+
+import nice.dto.ResponseSyncDto;
+import nice.exceptions.NotValidParameterException;
+import nice.services.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * RESTful web service for the delta sync of the offline clients.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1")
+public class SyncController {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * The service to read the changes.
+     */
+    @Autowired
+    private SyncService syncService;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains the users, tasks and todolists created, updated or deleted after a version, in the order of the
+     * changes. The next page is requested with the version returned as parameter since, until more is false.
+     * A new client syncs all the rows from since=0, or requests the last version without since, loads all the data
+     * with the list endpoints and then syncs from that version.
+     *
+     * @param since The version of the last change synced.
+     * @param limit The maximum number of changes of the page.
+     * @return The rows changed, the ids of the rows deleted and the version to sync from next.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @GetMapping(path = "/sync", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseSyncDto> getChanges(@RequestParam(value = "since", required = false) Long since,
+                                                      @RequestParam(value = "limit", required = false) Integer limit)
+            throws NotValidParameterException {
+        return new ResponseEntity<>(this.syncService.getChanges(since, limit), HttpStatus.OK);
+    }
+}
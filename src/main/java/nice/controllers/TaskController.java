@@ -1,25 +1,37 @@
 package nice.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import nice.constants.Status;
 import nice.dto.RequestTaskDto;
 import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseUserTaskStatsDto;
 import nice.entities.Task;
 import nice.exceptions.NotValidParameterException;
 import nice.exceptions.TaskNameAlreadyTakenException;
 import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.UserNotFoundException;
+import nice.services.TaskEventRegistry;
 import nice.services.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * RESTful webservice for task.
@@ -27,6 +39,7 @@ import java.util.stream.StreamSupport;
  * @author danielctrenado@gmail.com
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1")
 public class TaskController {
 
@@ -39,6 +52,16 @@ public class TaskController {
      */
     private static Logger logger = LoggerFactory.getLogger(TaskController.class);
 
+    /**
+     * Response header with the cursor to request the next page of tasks.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Media type of newline-delimited JSON.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     //***************************************************************
     // Instance variables
     //***************************************************************
@@ -49,32 +72,114 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    /**
+     * The registry of the change feeds.
+     */
+    @Autowired
+    private TaskEventRegistry taskEventRegistry;
+
+    @Value("${tasks.events.timeout-ms:1800000}")
+    private long eventsTimeoutMillis;
+
+    /**
+     * The mapper to write the tasks exported.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
     //***************************************************************
     // Public methods.
     //***************************************************************
 
     /**
-     * Obtains all tasks or the list of tasks with status according to the parameter status.
+     * Obtains a page of tasks, optionally filtered by status. Pages are keyset based: when there are more
+     * tasks, the cursor to pass as parameter after for the next page is returned in the header X-Next-Cursor.
      *
      * @param status The status of the tasks.
-     * @return all the tasks or if the parameter status is provided the list of the task with that status.
+     * @param after  The cursor returned with the previous page, if any.
+     * @param limit  The maximum number of tasks of the page.
+     * @param fields The comma separated fields of the tasks to return, among id, name, description, status and user,
+     *               only their columns are read. All the fields by default.
+     * @return the page of tasks, and if the parameter status is provided only the tasks with that status.
+     * @throws NotValidParameterException If the cursor, the limit or the fields are not valid.
      */
-    @GetMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public Iterable<ResponseTaskDto> getAllTasks(@RequestParam(value = "status", required = false) Status status) {
-        Iterable<Task> tasks;
-        logger.info("--> getAllTasks with status " + status);
-        if (status == null) {
-            tasks = this.taskService.getAllTasks();
-        } else {
-            tasks = this.taskService.getAllTasksByStatus(status);
+    @GetMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResponseTaskDto>> getAllTasks(
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) throws NotValidParameterException {
+        logger.debug("--> getAllTasks with status {}", status);
+        Slice<ResponseTaskDto> tasks = this.taskService.getTasks(status, after, limit, fields);
+        List<ResponseTaskDto> responseTaskDtoList = tasks.getContent();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (tasks.hasNext()) {
+            headers.set(NEXT_CURSOR_HEADER,
+                    String.valueOf(responseTaskDtoList.get(responseTaskDtoList.size() - 1).getId()));
         }
+        return new ResponseEntity<>(responseTaskDtoList, headers, HttpStatus.OK);
+    }
 
-        List<ResponseTaskDto> responseTaskDtoList = StreamSupport.stream(tasks.spliterator(), false)
-                .map(task -> new ResponseTaskDto(task))
-                .collect(Collectors.toList());
+    /**
+     * Exports all tasks as newline-delimited JSON, one task per line ordered by id. Each task is written to the
+     * response as soon as it is read, so the whole list of tasks is never held in memory.
+     *
+     * @param response The response to write the tasks.
+     * @throws IOException If the tasks could not be written.
+     */
+    @GetMapping(path = "/tasks/export", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = APPLICATION_NDJSON_VALUE)
+    public void exportTasks(HttpServletResponse response) throws IOException {
+        logger.debug("--> exportTasks");
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            this.taskService.exportTasks(task -> {
+                try {
+                    this.objectMapper.writeValue(generator, task);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Streams the changes of all the tasks as Server-Sent Events: the tasks created and updated, with their new
+     * status, and the ids of the tasks deleted with their todolist. The events are sent once committed. A client too slow to read them is disconnected, and after
+     * reconnecting it should read the tasks again since it may have missed events.
+     *
+     * @return The stream of events, completed after tasks.events.timeout-ms.
+     * @throws IOException If the stream could not be started.
+     */
+    @GetMapping(path = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getTaskEvents() throws IOException {
+        return TaskEventEmitter.subscribe(this.taskEventRegistry, TaskEventRegistry.ALL_TASKS,
+                this.eventsTimeoutMillis);
+    }
 
-        return responseTaskDtoList;
+    /**
+     * Obtains the number of tasks of each status, counted in the database.
+     *
+     * @return The number of tasks of each status.
+     */
+    @GetMapping(path = "/tasks/stats", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<Status, Long>> getTaskStats() {
+        return new ResponseEntity<>(this.taskService.getTaskStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Obtains the number of tasks of each status grouped by assigned user, counted in the database.
+     *
+     * @return The number of tasks of each status for each user, the tasks not assigned have no user.
+     */
+    @GetMapping(path = "/tasks/stats/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResponseUserTaskStatsDto>> getTaskStatsByUser() {
+        return new ResponseEntity<>(this.taskService.getTaskStatsByUser(), HttpStatus.OK);
     }
 
     /**
@@ -86,8 +191,8 @@ public class TaskController {
      * @throws TaskNameAlreadyTakenException If the name of the task already exists.
      * @throws UserNotFoundException         If the user to assign was not found.
      */
-    @PostMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @PostMapping(path = "/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseTaskDto> createTask(@RequestBody RequestTaskDto requestTaskDto)
             throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
         Task task = this.taskService.createTask(requestTaskDto);
@@ -95,6 +200,26 @@ public class TaskController {
         return new ResponseEntity<>(responseTaskDto, HttpStatus.OK);
     }
 
+    /**
+     * Creates a batch of tasks.
+     *
+     * @param requestTaskDtos The list with the data for the new tasks.
+     * @return The new tasks, in the same order.
+     * @throws NotValidParameterException    If a parameter is not valid.
+     * @throws TaskNameAlreadyTakenException If a name is repeated or already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
+     */
+    @PostMapping(path = "/tasks/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResponseTaskDto>> createTasks(@RequestBody List<RequestTaskDto> requestTaskDtos)
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        List<Task> tasks = this.taskService.createTasks(requestTaskDtos);
+        List<ResponseTaskDto> responseTaskDtoList = tasks.stream()
+                .map(task -> new ResponseTaskDto(task))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(responseTaskDtoList, HttpStatus.OK);
+    }
+
     /**
      * Updates a task.
      *
@@ -106,8 +231,8 @@ public class TaskController {
      * @throws TaskNameAlreadyTakenException If the name of the task already exists.
      * @throws UserNotFoundException         If the userName to assign of is not found.
      */
-    @PutMapping(path = "/tasks/{id}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @PutMapping(path = "/tasks/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseTaskDto> updateTask(@PathVariable("id") Long id,
                                                       @RequestBody RequestTaskDto requestTaskDto)
             throws NotValidParameterException, TaskNotFoundException,
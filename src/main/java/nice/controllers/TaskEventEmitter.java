@@ -0,0 +1,54 @@
+package nice.controllers;
+
+import nice.dto.ResponseTaskEventDto;
+import nice.services.TaskEventRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Server-Sent Events response of a change feed: each event is named after its type, with the event in JSON as data.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskEventEmitter extends SseEmitter implements TaskEventRegistry.Sink {
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    private TaskEventEmitter(long timeoutMillis) {
+        super(timeoutMillis);
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Subscribes a new response to a feed, unsubscribed when the response completes, times out or fails.
+     *
+     * @param taskEventRegistry The registry of the feeds.
+     * @param feed              The id of the todolist, or {@link TaskEventRegistry#ALL_TASKS}.
+     * @param timeoutMillis     The time after which the response completes, the client then reconnects.
+     * @return The response, starting with the comment subscribed so that it is committed right away.
+     * @throws IOException If the response could not be started.
+     */
+    public static TaskEventEmitter subscribe(TaskEventRegistry taskEventRegistry, long feed, long timeoutMillis)
+            throws IOException {
+        TaskEventEmitter emitter = new TaskEventEmitter(timeoutMillis);
+        // the headers are only sent with the first event, and the clients wait for them.
+        emitter.send(event().comment("subscribed"));
+        TaskEventRegistry.Subscription subscription = taskEventRegistry.subscribe(feed, emitter);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    @Override
+    public void send(ResponseTaskEventDto event) throws IOException {
+        send(event().name(event.getType().name()).data(event, MediaType.APPLICATION_JSON));
+    }
+}
@@ -1,23 +1,35 @@
 package nice.controllers;
 
+import nice.constants.Status;
 import nice.dto.RequestTodoListDto;
 import nice.dto.ResponseTaskDto;
 import nice.dto.ResponseTodoListDto;
-import nice.entities.Task;
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.dto.ResponseUserTaskStatsDto;
 import nice.entities.TodoList;
 import nice.exceptions.NotValidParameterException;
+import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.TodoListNameAlreadyTakenException;
 import nice.exceptions.TodoListNotFoundException;
+import nice.services.TaskEventRegistry;
 import nice.services.TodoListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * RESTful webservice for todolist.
@@ -25,9 +37,34 @@ import java.util.stream.StreamSupport;
  * @author danielctrenado@gmail.com
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1")
 public class TodoListController {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Response header with the total number of tasks of a todolist matching the request.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Response header with the number of the next page of tasks.
+     */
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    /**
+     * View of the todolists with their number of tasks of each status, the default.
+     */
+    public static final String SUMMARY_VIEW = "summary";
+
+    /**
+     * View of the todolists with all their tasks.
+     */
+    public static final String FULL_VIEW = "full";
+
     //***************************************************************
     // Instance variables
     //***************************************************************
@@ -38,35 +75,85 @@ public class TodoListController {
     @Autowired
     private TodoListService todoListService;
 
+    /**
+     * The registry of the change feeds.
+     */
+    @Autowired
+    private TaskEventRegistry taskEventRegistry;
+
+    @Value("${tasks.events.timeout-ms:1800000}")
+    private long eventsTimeoutMillis;
+
     //***************************************************************
     // Public methods.
     //***************************************************************
 
-    @GetMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<Iterable<ResponseTodoListDto>> getAllTodoLists() {
-        Iterable<TodoList> todoLists = this.todoListService.getAllTodoLists();
-        List<ResponseTodoListDto> responseTodoListDtos = StreamSupport.stream(todoLists.spliterator(), false)
-                .map(todoList -> new ResponseTodoListDto(todoList))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(responseTodoListDtos, HttpStatus.OK);
+    /**
+     * Obtains a page of todolists ordered by id. By default each todolist is summarized with its number of tasks, in
+     * total and of each status, counted by one aggregate query; the full view also returns all the tasks of each
+     * todolist, which are better read page by page from /todolists/{id}/tasks. When there are more todolists, the
+     * cursor to pass as parameter after is returned in the header X-Next-Cursor.
+     *
+     * @param view  The view of the todolists, summary or full.
+     * @param after The cursor returned with the previous page, if any.
+     * @param limit The maximum number of todolists of the page.
+     * @return The page of todolists.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @GetMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<?>> getAllTodoLists(
+            @RequestParam(value = "view", defaultValue = SUMMARY_VIEW) String view,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit) throws NotValidParameterException {
+        List<?> responseTodoListDtos;
+        Long nextCursor = null;
+        if (SUMMARY_VIEW.equals(view)) {
+            Slice<ResponseTodoListSummaryDto> summaries = this.todoListService.getTodoListSummaries(after, limit);
+            responseTodoListDtos = summaries.getContent();
+            if (summaries.hasNext()) {
+                nextCursor = summaries.getContent().get(summaries.getNumberOfElements() - 1).getId();
+            }
+        } else if (FULL_VIEW.equals(view)) {
+            Slice<TodoList> todoLists = this.todoListService.getTodoLists(after, limit);
+            responseTodoListDtos = todoLists.getContent().stream()
+                    .map(todoList -> new ResponseTodoListDto(todoList))
+                    .collect(Collectors.toList());
+            if (todoLists.hasNext()) {
+                nextCursor = todoLists.getContent().get(todoLists.getNumberOfElements() - 1).getId();
+            }
+        } else {
+            throw new NotValidParameterException("Error when obtaining todolists: view must be " + SUMMARY_VIEW
+                    + " or " + FULL_VIEW + ".");
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.set(TaskController.NEXT_CURSOR_HEADER, String.valueOf(nextCursor));
+        }
+        return new ResponseEntity<>(responseTodoListDtos, headers, HttpStatus.OK);
     }
 
     /**
      * Obtains a todolist by id.
      *
-     * @param id The id of the todolist to obtain.
+     * @param id         The id of the todolist to obtain.
+     * @param webRequest The request, answered with 304 when its If-None-Match matches the version of the todolist.
      * @return The todolist associated to the id.
      * @throws TodoListNotFoundException  If the todolist was not found.
      * @throws NotValidParameterException If the patameter is not valid.
      */
-    @GetMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<ResponseTodoListDto> getTodoListById(@PathVariable("id") Long id)
+    @GetMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseTodoListDto> getTodoListById(@PathVariable("id") Long id, WebRequest webRequest)
             throws TodoListNotFoundException, NotValidParameterException {
+        String eTag = eTag(this.todoListService.getTodoListVersion(id));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         TodoList todoList = this.todoListService.getTodoListById(id);
         ResponseTodoListDto responseTodoListDto = new ResponseTodoListDto(todoList);
-        return new ResponseEntity<>(responseTodoListDto, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).body(responseTodoListDto);
     }
 
     /**
@@ -75,34 +162,198 @@ public class TodoListController {
      * @param requestTodoListDto The new todolist.
      * @return The todolist created.
      * @throws NotValidParameterException        If the parameter is not valid.
+     * @throws TaskNotFoundException             If some of the tasks of the todolist are not found.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
-    @PostMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @PostMapping(path = "/todolists", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseTodoListDto> createTodoList(@RequestBody RequestTodoListDto requestTodoListDto)
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         TodoList todoList = this.todoListService.createTodoList(requestTodoListDto);
         ResponseTodoListDto responseTodoListDto = new ResponseTodoListDto(todoList);
         return new ResponseEntity<>(responseTodoListDto, HttpStatus.OK);
     }
 
     /**
-     * Obtains the Tasks of specific todolist.
+     * Obtains a page of the tasks of a todolist, optionally filtered by status and sorted, sliced in the database.
+     * The total number of tasks is returned in the header X-Total-Count. When there are more tasks, the next page is
+     * returned in the header X-Next-Page, and when sorted by ascending id the cursor to pass as parameter after in the
+     * header X-Next-Cursor.
      *
-     * @param id The id of todolist.
-     * @return The list of task associated to todolist id.
+     * @param id         The id of todolist.
+     * @param status     The status of the tasks.
+     * @param sort       The property to sort by, id, name or status, prefixed with - to sort descending.
+     * @param page       The number of the page from 0.
+     * @param after      The cursor returned with the previous page, if any.
+     * @param limit      The maximum number of tasks of the page.
+     * @param fields     The comma separated fields of the tasks to return, among id, name, description, status and
+     *                   user, only their columns are read. All the fields by default.
+     * @param webRequest The request, answered with 304 when its If-None-Match matches the version of the todolist.
+     * @return The page of tasks associated to todolist id.
      * @throws TodoListNotFoundException  If the todolist was not found.
-     * @throws NotValidParameterException If the patameter is not valid.
+     * @throws NotValidParameterException If the patameters are not valid.
+     */
+    @GetMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResponseTaskDto>> getTodoListTasksById(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest webRequest) throws TodoListNotFoundException, NotValidParameterException {
+        String eTag = eTag(this.todoListService.getTodoListVersion(id));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        Slice<ResponseTaskDto> tasks = this.todoListService.getTodoListTasks(id, status, sort, page, after, limit,
+                fields);
+        List<ResponseTaskDto> responseTaskDtoList = tasks.getContent();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TOTAL_COUNT_HEADER, String.valueOf(this.todoListService.countTodoListTasks(id, status)));
+        if (tasks.hasNext()) {
+            if (after == null) {
+                headers.set(NEXT_PAGE_HEADER, String.valueOf(tasks.getNumber() + 1));
+            }
+            if (TodoListService.isKeysetSort(sort)) {
+                headers.set(TaskController.NEXT_CURSOR_HEADER,
+                        String.valueOf(responseTaskDtoList.get(responseTaskDtoList.size() - 1).getId()));
+            }
+        }
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(responseTaskDtoList);
+    }
+
+    /**
+     * Streams the changes of the tasks of a todolist as Server-Sent Events, instead of polling its tasks: the tasks
+     * updated, with their new status, and the ids of the tasks added or removed, then TODOLIST_DELETED when the
+     * todolist is deleted. The events are sent once committed. A client too slow to read them is disconnected, and
+     * after reconnecting it should read the tasks again since it may have missed events.
+     *
+     * @param id The id of the todolist.
+     * @return The stream of events, completed after tasks.events.timeout-ms, or 404 without body if the todolist was
+     * not found.
+     * @throws NotValidParameterException If the parameter is not valid.
+     * @throws IOException                If the stream could not be started.
      */
-    @GetMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<List<ResponseTaskDto>> getTodoListTasksById(@PathVariable("id") Long id)
+    @GetMapping(path = "/todolists/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getTodoListEvents(@PathVariable("id") Long id)
+            throws NotValidParameterException, IOException {
+        try {
+            this.todoListService.getTodoListVersion(id);
+        } catch (TodoListNotFoundException e) {
+            // the ErrorDto of the exception handlers cannot be written as events.
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(TaskEventEmitter.subscribe(this.taskEventRegistry, id, this.eventsTimeoutMillis));
+    }
+
+    /**
+     * Adds a task to a todolist, inserting a single row.
+     *
+     * @param id     The id of the todolist.
+     * @param taskId The id of the task to add, nothing is done if it is already in the todolist.
+     * @return The result of the operation.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws TaskNotFoundException      If the task was not found.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @PostMapping(path = "/todolists/{id}/tasks/{taskId}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> addTodoListTask(@PathVariable("id") Long id, @PathVariable("taskId") Long taskId)
+            throws TodoListNotFoundException, TaskNotFoundException, NotValidParameterException {
+        this.todoListService.addTodoListTasks(id, Collections.singletonList(taskId));
+        return new ResponseEntity<>("{\"result\":\"task was added to the todolist successfully.\"}", HttpStatus.OK);
+    }
+
+    /**
+     * Adds tasks to a todolist, inserting only the rows of the tasks not yet in the todolist.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to add.
+     * @return The result of the operation.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws TaskNotFoundException      If some of the tasks were not found, then none is added.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @PostMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> addTodoListTasks(@PathVariable("id") Long id, @RequestBody List<Long> taskIds)
+            throws TodoListNotFoundException, TaskNotFoundException, NotValidParameterException {
+        this.todoListService.addTodoListTasks(id, taskIds);
+        return new ResponseEntity<>("{\"result\":\"tasks were added to the todolist successfully.\"}",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Removes a task from a todolist, deleting a single row.
+     *
+     * @param id     The id of the todolist.
+     * @param taskId The id of the task to remove, nothing is done if it is not in the todolist.
+     * @return The result of the operation.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @DeleteMapping(path = "/todolists/{id}/tasks/{taskId}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> removeTodoListTask(@PathVariable("id") Long id,
+                                                     @PathVariable("taskId") Long taskId)
             throws TodoListNotFoundException, NotValidParameterException {
-        Iterable<Task> tasks = this.todoListService.getTodoListTasks(id);
-        List<ResponseTaskDto> responseTaskDtoList = StreamSupport.stream(tasks.spliterator(), false)
-                .map(task -> new ResponseTaskDto(task))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(responseTaskDtoList, HttpStatus.OK);
+        this.todoListService.removeTodoListTasks(id, Collections.singletonList(taskId));
+        return new ResponseEntity<>("{\"result\":\"task was removed from the todolist successfully.\"}",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Removes tasks from a todolist, deleting only their rows. The ids are request parameters, since a DELETE has no
+     * body for most clients.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to remove, the tasks not in the todolist are skipped.
+     * @return The result of the operation.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @DeleteMapping(path = "/todolists/{id}/tasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> removeTodoListTasks(@PathVariable("id") Long id,
+                                                      @RequestParam("ids") List<Long> taskIds)
+            throws TodoListNotFoundException, NotValidParameterException {
+        this.todoListService.removeTodoListTasks(id, taskIds);
+        return new ResponseEntity<>("{\"result\":\"tasks were removed from the todolist successfully.\"}",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Obtains the number of tasks of each status in a todolist, counted in the database.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws NotValidParameterException If the parameter is not valid.
+     */
+    @GetMapping(path = "/todolists/{id}/stats", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<Status, Long>> getTodoListStats(@PathVariable("id") Long id)
+            throws TodoListNotFoundException, NotValidParameterException {
+        return new ResponseEntity<>(this.todoListService.getTodoListStats(id), HttpStatus.OK);
+    }
+
+    /**
+     * Obtains the number of tasks of each status in a todolist grouped by assigned user, counted in the database.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status for each user, the tasks not assigned have no user.
+     * @throws TodoListNotFoundException  If the todolist was not found.
+     * @throws NotValidParameterException If the parameter is not valid.
+     */
+    @GetMapping(path = "/todolists/{id}/stats/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResponseUserTaskStatsDto>> getTodoListStatsByUser(@PathVariable("id") Long id)
+            throws TodoListNotFoundException, NotValidParameterException {
+        return new ResponseEntity<>(this.todoListService.getTodoListStatsByUser(id), HttpStatus.OK);
     }
 
     /**
@@ -113,12 +364,26 @@ public class TodoListController {
      * @throws TodoListNotFoundException  If the todolist was not found.
      * @throws NotValidParameterException If the parameter is not valid,
      */
-    @DeleteMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @DeleteMapping(path = "/todolists/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> deleteTodoList(@PathVariable("id") Long id)
             throws TodoListNotFoundException, NotValidParameterException {
         this.todoListService.deleteTodoList(id);
         return new ResponseEntity<>("{\"result\":\"todolist was deleted successfully.\"}", HttpStatus.OK);
     }
 
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Builds the strong ETag of a todolist from its version.
+     *
+     * @param version The version of the todolist.
+     * @return The quoted ETag.
+     */
+    private String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
 }
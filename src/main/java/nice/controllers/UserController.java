@@ -8,6 +8,7 @@ import nice.exceptions.UserNameAlreadyTakenException;
 import nice.exceptions.UserNotFoundException;
 import nice.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +24,7 @@ import java.util.stream.StreamSupport;
  * @author danielctrenado@gmail.com
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1")
 public class UserController {
 
@@ -46,8 +48,8 @@ public class UserController {
      *
      * @return The list of all users.
      */
-    @GetMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @GetMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Iterable<ResponseUserDto>> getAllUsers() {
         Iterable<User> users = this.userService.findAll();
 
@@ -66,8 +68,8 @@ public class UserController {
      * @throws NotValidParameterException    If the parameter is not valid.
      * @throws UserNameAlreadyTakenException If the userName already exists.
      */
-    @PostMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @PostMapping(path = "/users", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseUserDto> createUser(@RequestBody RequestUserDto requestUserDto)
             throws NotValidParameterException, UserNameAlreadyTakenException {
         User user = this.userService.createUser(requestUserDto.getUserName());
@@ -87,8 +89,8 @@ public class UserController {
      * @throws UserNameAlreadyTakenException If the userName already exists.
      * @throws UserNotFoundException         If the user is not found.
      */
-    @PutMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @PutMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseUserDto> updateUser(@PathVariable("id") Long id,
                                                       @RequestBody RequestUserDto requestUserDto)
             throws UserNotFoundException, NotValidParameterException, UserNameAlreadyTakenException {
@@ -107,8 +109,8 @@ public class UserController {
      * @throws NotValidParameterException If the parameter is not valid.
      * @throws UserNotFoundException      If the user is not found.
      */
-    @DeleteMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @DeleteMapping(path = "/users/{id}", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> deleteUser(@PathVariable("id") Long id)
             throws NotValidParameterException, UserNotFoundException {
         this.userService.deleteUser(id);
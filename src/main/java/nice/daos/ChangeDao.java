@@ -0,0 +1,40 @@
+package nice.daos;
+
+import nice.entities.Change;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * DAO for the change log.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public interface ChangeDao extends JpaRepository<Change, Long>, ChangeDaoCustom {
+
+    /**
+     * Keyset page of the change log: the changes with a version greater than the cursor recorded at or before a
+     * time, ordered by version. As a greater version is never recorded earlier, the page stops at the first change
+     * recorded after the time.
+     */
+    @Query("select c from Change c where c.version > :since and c.recordedAt <= :recordedBefore order by c.version")
+    Slice<Change> findByVersionGreaterThan(@Param("since") long since,
+                                           @Param("recordedBefore") Instant recordedBefore, Pageable pageable);
+
+    /**
+     * Finds the version of the last change, empty before the first change.
+     */
+    @Query("select max(c.version) from Change c")
+    Optional<Long> findLastVersion();
+
+    /**
+     * Finds the version of the last change recorded at or before a time, empty if there is none.
+     */
+    @Query("select max(c.version) from Change c where c.recordedAt <= :recordedBefore")
+    Optional<Long> findLastVersion(@Param("recordedBefore") Instant recordedBefore);
+}
@@ -0,0 +1,38 @@
+package nice.daos;
+
+import nice.constants.ChangeType;
+import nice.entities.Change;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * DAO for the writes of the change log.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public interface ChangeDaoCustom {
+
+    /**
+     * Inserts changes with JDBC batching when the transaction is flushed, allocating their versions in order.
+     *
+     * @param changes The changes to insert.
+     */
+    void insertAll(Collection<Change> changes);
+
+    /**
+     * Inserts a change for every row of a type, with a single statement whatever the number of rows. Their versions
+     * are read from the sequence one at a time, leaving gaps.
+     *
+     * @param type       The type of the rows.
+     * @param recordedAt The time of the changes.
+     * @return The number of changes inserted.
+     */
+    int insertAllOfType(ChangeType type, Instant recordedAt);
+
+    /**
+     * Allocates the first block of versions to the process without inserting a change, so that no request reads
+     * the sequence for it. Clears the persistence context, to be called in a transaction of its own.
+     */
+    void allocateVersions();
+}
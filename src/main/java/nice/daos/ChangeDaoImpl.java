@@ -0,0 +1,69 @@
+package nice.daos;
+
+import nice.constants.ChangeType;
+import nice.entities.Change;
+import nice.entities.TodoList;
+import org.hibernate.query.NativeQuery;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Implementation of {@link ChangeDaoCustom} with the entity manager. The changes are persisted directly, never merged,
+ * so their versions are allocated in the order of the collection. The changes of all the rows of a type are
+ * inserted by a native insert-select synchronized with the changes only, so that no cache region is cleared.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class ChangeDaoImpl implements ChangeDaoCustom {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Override
+    public void insertAll(Collection<Change> changes) {
+        for (Change change : changes) {
+            this.entityManager.persist(change);
+        }
+    }
+
+    @Override
+    public int insertAllOfType(ChangeType type, Instant recordedAt) {
+        String table;
+        switch (type) {
+            case TASK:
+                table = "tasks";
+                break;
+            case TODOLIST:
+                table = TodoList.TABLE;
+                break;
+            default:
+                table = "users";
+        }
+        return this.entityManager.createNativeQuery("insert into changes (version, type, entity_id, deleted,"
+                        + " recorded_at) select next value for " + Change.VERSION_SEQUENCE + ", :type, id, false,"
+                        + " :recordedAt from " + table)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Change.class)
+                .setParameter("recordedAt", recordedAt)
+                .setParameter("type", type.name())
+                .executeUpdate();
+    }
+
+    @Override
+    public void allocateVersions() {
+        // the version is allocated on persist, clearing the persistence context cancels the insert.
+        this.entityManager.persist(new Change(ChangeType.TASK, 0, false));
+        this.entityManager.clear();
+    }
+}
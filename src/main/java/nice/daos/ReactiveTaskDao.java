@@ -0,0 +1,146 @@
+package nice.daos;
+
+import io.r2dbc.spi.Row;
+import nice.constants.Status;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTaskFieldsDto;
+import nice.dto.ResponseUserDto;
+import nice.entities.TodoList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Non-blocking DAO for the reads of tasks of the profile reactive, mirroring the DTO queries of {@link TaskDao} in SQL
+ * through R2DBC. The rows are emitted as they are read, at the pace requested by the subscriber.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTaskDao {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Keyset page of tasks, optionally of a todolist and with a status, projected to DTOs as
+     * {@link TaskDaoCustom#findDtos}. The users are joined only when the field user is requested.
+     *
+     * @param fields     The fields of {@link TaskDaoCustom#DTO_FIELDS} to select, or null for all the fields.
+     * @param todoListId The id of the todolist of the tasks, or null for all the tasks.
+     * @param status     The status of the tasks, or null for all the tasks.
+     * @param after      The tasks returned have an id greater than the cursor.
+     * @param pageable   The page, sorted by properties of the task.
+     * @return The tasks of the page.
+     */
+    public Flux<ResponseTaskDto> findDtos(Set<String> fields, Long todoListId, Status status, long after,
+                                          Pageable pageable) {
+        StringBuilder sql = new StringBuilder("select t.id");
+        for (String field : TaskDaoCustom.DTO_FIELDS) {
+            if ((fields == null || fields.contains(field)) && !"id".equals(field)) {
+                sql.append("user".equals(field) ? ", u.id as user_id, u.user_name" : ", t." + field);
+            }
+        }
+        sql.append(" from tasks t");
+        if (fields == null || fields.contains("user")) {
+            sql.append(" left join users u on u.id = t.assigned_user_id");
+        }
+        if (todoListId != null) {
+            sql.append(" join ").append(TodoList.TASKS_JOIN_TABLE).append(" l on l.task_id = t.id");
+        }
+        sql.append(" where t.id > :after");
+        if (todoListId != null) {
+            sql.append(" and l.todolist_id = :todoListId");
+        }
+        if (status != null) {
+            sql.append(" and t.status = :status");
+        }
+        String separator = " order by ";
+        for (Sort.Order order : pageable.getSort()) {
+            sql.append(separator).append("t.").append(order.getProperty()).append(' ').append(order.getDirection());
+            separator = ", ";
+        }
+        sql.append(" limit :limit offset :offset");
+
+        DatabaseClient.GenericExecuteSpec spec = this.databaseClient.sql(sql.toString())
+                .bind("after", after)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        if (todoListId != null) {
+            spec = spec.bind("todoListId", todoListId);
+        }
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map((row, metadata) -> toDto(fields, row)).all();
+    }
+
+    /**
+     * Counts the tasks of a todolist, optionally with a status.
+     *
+     * @param todoListId The id of the todolist.
+     * @param status     The status of the tasks, or null for all the tasks.
+     * @return The number of tasks.
+     */
+    public Mono<Long> countByTodoListId(long todoListId, Status status) {
+        if (status == null) {
+            return this.databaseClient.sql("select count(*) from " + TodoList.TASKS_JOIN_TABLE
+                            + " where todolist_id = :todoListId")
+                    .bind("todoListId", todoListId)
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return this.databaseClient.sql("select count(*) from " + TodoList.TASKS_JOIN_TABLE
+                        + " l join tasks t on t.id = l.task_id"
+                        + " where l.todolist_id = :todoListId and t.status = :status")
+                .bind("todoListId", todoListId)
+                .bind("status", status.name())
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Builds a DTO from a row with the columns of the fields selected.
+     */
+    private ResponseTaskDto toDto(Set<String> fields, Row row) {
+        ResponseTaskDto task = fields == null ? new ResponseTaskDto() : new ResponseTaskFieldsDto();
+        task.setId(row.get("id", Long.class));
+        if (fields == null || fields.contains("name")) {
+            task.setName(row.get("name", String.class));
+        }
+        if (fields == null || fields.contains("description")) {
+            task.setDescription(row.get("description", String.class));
+        }
+        if (fields == null || fields.contains("status")) {
+            String status = row.get("status", String.class);
+            task.setStatus(status == null ? null : Status.valueOf(status));
+        }
+        if (fields == null || fields.contains("user")) {
+            Long userId = row.get("user_id", Long.class);
+            if (userId != null) {
+                task.setResponseUserDto(new ResponseUserDto(userId, row.get("user_name", String.class)));
+            }
+        }
+        return task;
+    }
+}
@@ -0,0 +1,72 @@
+package nice.daos;
+
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.entities.TodoList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking DAO for the reads of todolists of the profile reactive, mirroring the queries of {@link TodoListDao}
+ * in SQL through R2DBC.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoListDao {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Version of a todolist, without reading the todolist nor its tasks.
+     *
+     * @param id The id of the todolist.
+     * @return The version, or empty if the todolist does not exist.
+     */
+    public Mono<Long> findVersionById(long id) {
+        return this.databaseClient.sql("select version from todolists where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Keyset page of todolists ordered by id, summarized with their number of tasks in total and of each status by one
+     * aggregate query, as {@link TodoListDao#findSummariesByIdGreaterThan}.
+     *
+     * @param after The todolists returned have an id greater than the cursor.
+     * @param limit The maximum number of todolists.
+     * @return The summaries of the todolists.
+     */
+    public Flux<ResponseTodoListSummaryDto> findSummariesByIdGreaterThan(long after, int limit) {
+        return this.databaseClient.sql("select l.id, l.name, count(t.id) as task_count,"
+                        + " sum(case when t.status = 'NOT_STARTED' then 1 else 0 end) as not_started,"
+                        + " sum(case when t.status = 'IN_PROGRESS' then 1 else 0 end) as in_progress,"
+                        + " sum(case when t.status = 'COMPLETE' then 1 else 0 end) as complete"
+                        + " from todolists l"
+                        + " left join " + TodoList.TASKS_JOIN_TABLE + " lt on lt.todolist_id = l.id"
+                        + " left join tasks t on t.id = lt.task_id"
+                        + " where l.id > :after group by l.id, l.name order by l.id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> new ResponseTodoListSummaryDto(row.get("id", Long.class), row.get("name", String.class),
+                        row.get("task_count", Number.class).longValue(),
+                        row.get("not_started", Number.class).longValue(),
+                        row.get("in_progress", Number.class).longValue(),
+                        row.get("complete", Number.class).longValue()))
+                .all();
+    }
+}
@@ -1,11 +1,23 @@
 package nice.daos;
 
 import nice.constants.Status;
+import nice.dto.ResponseTaskDto;
+import nice.dto.TaskCountDto;
 import nice.entities.Task;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * DAO for task.
@@ -13,7 +25,129 @@ import java.util.Optional;
  * @author danielctrenado@gmail.com
  */
 @Repository
-public interface TaskDao extends CrudRepository<Task, Long> {
-    Iterable<Task> findByStatus(Status status);
+public interface TaskDao extends JpaRepository<Task, Long>, TaskDaoCustom {
+
+    /**
+     * Number of rows fetched from the database in each round-trip when streaming tasks.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * JPQL select clause building a ResponseTaskDto from a task and its assigned user.
+     */
+    String SELECT_RESPONSE_TASK_DTO = "select new nice.dto.ResponseTaskDto(t.id, t.name, t.description, "
+            + "t.status, u.id, u.userName) from Task t left join t.user u ";
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Task> findAll();
+
+    /**
+     * Obtains the tasks with the ids given and their users with a single IN-list query.
+     *
+     * @param ids The ids of the tasks, callers keep the list short enough for the database.
+     * @return The tasks found, in no particular order.
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Task> findAllById(Iterable<Long> ids);
+
     Optional<Task> findByName(String name);
+
+    /**
+     * Finds which of the given names are already taken by a task.
+     */
+    @Query("select t.name from Task t where t.name in :names")
+    List<String> findNamesByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Finds which of the given ids belong to a task.
+     */
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the tasks with the ids given as DTOs, ordered by id.
+     */
+    @Query(SELECT_RESPONSE_TASK_DTO + "where t.id in :ids order by t.id")
+    List<ResponseTaskDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the ids of the tasks assigned to the given user.
+     */
+    @Query("select t.id from Task t where t.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") long userId);
+
+    /**
+     * Keyset page of tasks: the tasks with an id greater than the cursor, ordered by the pageable sort.
+     */
+    @Query(SELECT_RESPONSE_TASK_DTO + "where t.id > :after")
+    Slice<ResponseTaskDto> findDtosByIdGreaterThan(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Keyset page of tasks with the given status and an id greater than the cursor.
+     */
+    @Query(SELECT_RESPONSE_TASK_DTO + "where t.status = :status and t.id > :after")
+    Slice<ResponseTaskDto> findDtosByStatusAndIdGreaterThan(@Param("status") Status status,
+                                                            @Param("after") long after, Pageable pageable);
+
+    /**
+     * Keyset page of the tasks of a todolist: the tasks with an id greater than the cursor, ordered by the pageable
+     * sort. Only the rows of the page are read through the join table.
+     */
+    @Query(SELECT_RESPONSE_TASK_DTO + "join t.todoLists l where l.id = :todoListId and t.id > :after")
+    Slice<ResponseTaskDto> findDtosByTodoListIdAndIdGreaterThan(@Param("todoListId") long todoListId,
+                                                                @Param("after") long after, Pageable pageable);
+
+    /**
+     * Keyset page of the tasks of a todolist with the given status and an id greater than the cursor.
+     */
+    @Query(SELECT_RESPONSE_TASK_DTO + "join t.todoLists l where l.id = :todoListId and t.status = :status "
+            + "and t.id > :after")
+    Slice<ResponseTaskDto> findDtosByTodoListIdAndStatusAndIdGreaterThan(@Param("todoListId") long todoListId,
+                                                                         @Param("status") Status status,
+                                                                         @Param("after") long after,
+                                                                         Pageable pageable);
+
+    /**
+     * Counts the tasks of a todolist. Cached until the todolists, their tasks or the tasks change.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select count(t) from Task t join t.todoLists l where l.id = :todoListId")
+    long countByTodoListId(@Param("todoListId") long todoListId);
+
+    /**
+     * Counts the tasks of a todolist with the given status. Cached until the todolists, their tasks or the tasks
+     * change.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select count(t) from Task t join t.todoLists l where l.id = :todoListId and t.status = :status")
+    long countByTodoListIdAndStatus(@Param("todoListId") long todoListId, @Param("status") Status status);
+
+    /**
+     * Streams all the tasks ordered by id from a database cursor. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_RESPONSE_TASK_DTO + "order by t.id")
+    Stream<ResponseTaskDto> streamAllDtos();
+
+    /**
+     * Counts the tasks of each status.
+     */
+    @Query("select new nice.dto.TaskCountDto(t.status, count(t)) from Task t group by t.status")
+    List<TaskCountDto> findStatusCounts();
+
+    /**
+     * Counts the tasks of each status assigned to each user, including the tasks not assigned.
+     */
+    @Query("select new nice.dto.TaskCountDto(u.id, u.userName, t.status, count(t)) from Task t left join t.user u "
+            + "group by u.id, u.userName, t.status order by u.id")
+    List<TaskCountDto> findUserStatusCounts();
+
+    /**
+     * Streams the names of all the tasks from a database cursor. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select t.name from Task t")
+    Stream<String> streamAllNames();
 }
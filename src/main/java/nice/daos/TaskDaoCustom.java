@@ -0,0 +1,39 @@
+package nice.daos;
+
+import nice.constants.Status;
+import nice.dto.ResponseTaskDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DAO for sparse projections of tasks, selecting only the columns of the fields requested.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public interface TaskDaoCustom {
+
+    /**
+     * Fields of a task that can be requested, the id is always selected since it is the keyset cursor.
+     */
+    List<String> DTO_FIELDS = Collections.unmodifiableList(
+            Arrays.asList("id", "name", "description", "status", "user"));
+
+    /**
+     * Keyset page of tasks, optionally of a todolist and with a status, projected to DTOs with only the fields given.
+     * The users are joined only when the field user is requested.
+     *
+     * @param fields     The fields of {@link #DTO_FIELDS} to select, the other fields of the DTOs are left null.
+     * @param todoListId The id of the todolist of the tasks, or null for all the tasks.
+     * @param status     The status of the tasks, or null for all the tasks.
+     * @param after      The tasks returned have an id greater than the cursor.
+     * @param pageable   The page, sorted by properties of the task.
+     * @return The page of tasks, which tells if there are more tasks after it.
+     */
+    Slice<ResponseTaskDto> findDtos(Set<String> fields, Long todoListId, Status status, long after,
+                                    Pageable pageable);
+}
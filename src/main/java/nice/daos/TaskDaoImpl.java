@@ -0,0 +1,111 @@
+package nice.daos;
+
+import nice.constants.Status;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTaskFieldsDto;
+import nice.dto.ResponseUserDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link TaskDaoCustom} building the JPQL select clause from the fields requested, so that the
+ * columns not requested are never read, and the users are not joined unless requested.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskDaoImpl implements TaskDaoCustom {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Override
+    public Slice<ResponseTaskDto> findDtos(Set<String> fields, Long todoListId, Status status, long after,
+                                           Pageable pageable) {
+        StringBuilder jpql = new StringBuilder("select t.id");
+        for (String field : DTO_FIELDS) {
+            if (fields.contains(field) && !"id".equals(field)) {
+                jpql.append("user".equals(field) ? ", u.id, u.userName" : ", t." + field);
+            }
+        }
+        jpql.append(" from Task t");
+        if (fields.contains("user")) {
+            jpql.append(" left join t.user u");
+        }
+        if (todoListId != null) {
+            jpql.append(" join t.todoLists l");
+        }
+        jpql.append(" where t.id > :after");
+        if (todoListId != null) {
+            jpql.append(" and l.id = :todoListId");
+        }
+        if (status != null) {
+            jpql.append(" and t.status = :status");
+        }
+        String separator = " order by ";
+        for (Sort.Order order : pageable.getSort()) {
+            jpql.append(separator).append("t.").append(order.getProperty()).append(' ').append(order.getDirection());
+            separator = ", ";
+        }
+
+        Query query = this.entityManager.createQuery(jpql.toString()).setParameter("after", after);
+        if (todoListId != null) {
+            query.setParameter("todoListId", todoListId);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        List<?> rows = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<ResponseTaskDto> tasks = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (Object row : hasNext ? rows.subList(0, pageable.getPageSize()) : rows) {
+            tasks.add(toDto(fields, row instanceof Object[] ? (Object[]) row : new Object[]{row}));
+        }
+        return new SliceImpl<>(tasks, pageable, hasNext);
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Builds a DTO from a row whose columns are in the order of {@link #DTO_FIELDS}.
+     */
+    private ResponseTaskDto toDto(Set<String> fields, Object[] row) {
+        ResponseTaskDto task = new ResponseTaskFieldsDto();
+        task.setId((Long) row[0]);
+        int column = 1;
+        if (fields.contains("name")) {
+            task.setName((String) row[column++]);
+        }
+        if (fields.contains("description")) {
+            task.setDescription((String) row[column++]);
+        }
+        if (fields.contains("status")) {
+            task.setStatus((Status) row[column++]);
+        }
+        if (fields.contains("user") && row[column] != null) {
+            task.setResponseUserDto(new ResponseUserDto((Long) row[column], (String) row[column + 1]));
+        }
+        return task;
+    }
+}
@@ -1,8 +1,18 @@
 package nice.daos;
 
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.dto.TaskCountDto;
 import nice.entities.TodoList;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,6 +20,70 @@ import java.util.Optional;
  *
  * @author danielctrenado@gmail.com
  */
-public interface TodoListDao extends CrudRepository<TodoList, Long> {
+public interface TodoListDao extends JpaRepository<TodoList, Long>, TodoListDaoCustom {
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<TodoList> findByName(String name);
+
+    /**
+     * Finds the version of a todolist without loading it.
+     */
+    @Query("select l.version from TodoList l where l.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    /**
+     * Finds a page of todolists with an id greater than the cursor, ordered by id.
+     */
+    @Query("select l from TodoList l where l.id > :after order by l.id")
+    Slice<TodoList> findByIdGreaterThan(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Finds the summaries of a page of todolists with an id greater than the cursor, ordered by id, counting the tasks
+     * of every todolist of the page in a single aggregate query. There is one conditional sum for each value of
+     * {@link nice.constants.Status}.
+     */
+    @Query("select new nice.dto.ResponseTodoListSummaryDto(l.id, l.name, count(t), "
+            + "sum(case when t.status = nice.constants.Status.NOT_STARTED then 1 else 0 end), "
+            + "sum(case when t.status = nice.constants.Status.IN_PROGRESS then 1 else 0 end), "
+            + "sum(case when t.status = nice.constants.Status.COMPLETE then 1 else 0 end)) "
+            + "from TodoList l left join l.tasks t where l.id > :after group by l.id, l.name order by l.id")
+    Slice<ResponseTodoListSummaryDto> findSummariesByIdGreaterThan(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Counts the tasks of each status in a todolist.
+     */
+    @Query("select new nice.dto.TaskCountDto(t.status, count(t)) from TodoList l join l.tasks t "
+            + "where l.id = :id group by t.status")
+    List<TaskCountDto> findStatusCountsById(@Param("id") long id);
+
+    /**
+     * Counts the tasks of each status assigned to each user in a todolist, including the tasks not assigned.
+     */
+    @Query("select new nice.dto.TaskCountDto(u.id, u.userName, t.status, count(t)) from TodoList l join l.tasks t "
+            + "left join t.user u where l.id = :id group by u.id, u.userName, t.status order by u.id")
+    List<TaskCountDto> findUserStatusCountsById(@Param("id") long id);
+
+    /**
+     * Ids of the todolists containing the given task.
+     */
+    @Query("select l.id from TodoList l join l.tasks t where t.id = :taskId")
+    List<Long> findIdsByTaskId(@Param("taskId") long taskId);
+
+    /**
+     * Ids of the todolists containing any of the given tasks.
+     */
+    @Query("select distinct l.id from TodoList l join l.tasks t where t.id in :taskIds")
+    List<Long> findIdsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Ids of the todolists containing a task assigned to the given user.
+     */
+    @Query("select distinct l.id from TodoList l join l.tasks t where t.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") long userId);
+
+    /**
+     * Ids of the tasks of the given todolists, as pairs of the id of the todolist and the id of the task, ordered by
+     * the id of the task.
+     */
+    @Query("select l.id, t.id from TodoList l join l.tasks t where l.id in :ids order by t.id")
+    List<Object[]> findTaskIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
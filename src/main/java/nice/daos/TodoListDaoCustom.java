@@ -0,0 +1,47 @@
+package nice.daos;
+
+import java.util.Collection;
+
+/**
+ * DAO for the tasks and the versions of todolists, changing the rows of the join table without loading the tasks of
+ * the todolist, and bumping the versions without loading the todolists.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public interface TodoListDaoCustom {
+
+    /**
+     * Adds tasks to a todolist with a single INSERT ... SELECT, skipping the tasks not found and the tasks already in
+     * the todolist.
+     *
+     * @param todoListId The id of the todolist.
+     * @param taskIds    The ids of the tasks, callers keep the list short enough for the database.
+     * @return The number of tasks added.
+     */
+    int insertTasks(long todoListId, Collection<Long> taskIds);
+
+    /**
+     * Removes tasks from a todolist with a single DELETE, skipping the tasks not in the todolist.
+     *
+     * @param todoListId The id of the todolist.
+     * @param taskIds    The ids of the tasks, callers keep the list short enough for the database.
+     * @return The number of tasks removed.
+     */
+    int deleteTasks(long todoListId, Collection<Long> taskIds);
+
+    /**
+     * Bumps the version of a todolist, which also locks its row until the end of the transaction.
+     *
+     * @param id The id of the todolist.
+     * @return The number of todolists bumped, 0 if it is not found.
+     */
+    int incrementVersionById(long id);
+
+    /**
+     * Bumps the versions of todolists.
+     *
+     * @param ids The ids of the todolists, callers keep the list short enough for the database.
+     * @return The number of todolists bumped.
+     */
+    int incrementVersionsByIdIn(Collection<Long> ids);
+}
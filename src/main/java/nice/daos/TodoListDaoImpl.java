@@ -0,0 +1,125 @@
+package nice.daos;
+
+import nice.entities.TodoList;
+import org.hibernate.Cache;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Implementation of {@link TodoListDaoCustom} with native statements on the join table and the table of todolists.
+ * The statements on the join table are synchronized with it, so that Hibernate invalidates the cached queries reading
+ * it, as the counts of the tasks of the todolists. The increments of the versions are synchronized with a query space
+ * of their own, matching no entity nor collection: with no query space Hibernate would clear the whole second-level
+ * cache, and with the table all the todolists. Since the join table is the space of no entity, Hibernate clears no
+ * cached todolist nor tasks of a todolist either way: the entries changed are evicted here, once right away and once
+ * more after the transaction completes, in case a concurrent reader cached the old ones in between.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TodoListDaoImpl implements TodoListDaoCustom {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    private static final String TASKS_ROLE = TodoList.class.getName() + ".tasks";
+
+    private static final String QUERY_SPACE = "todolists_native";
+
+    private static final String INSERT_TASKS = "insert into " + TodoList.TASKS_JOIN_TABLE
+            + " (todolist_id, task_id) select :todoListId, t.id from tasks t where t.id in (:taskIds)"
+            + " and not exists (select 1 from " + TodoList.TASKS_JOIN_TABLE
+            + " lt where lt.todolist_id = :todoListId and lt.task_id = t.id)";
+
+    private static final String DELETE_TASKS = "delete from " + TodoList.TASKS_JOIN_TABLE
+            + " where todolist_id = :todoListId and task_id in (:taskIds)";
+
+    private static final String INCREMENT_VERSIONS = "update " + TodoList.TABLE
+            + " set version = version + 1 where id in (:ids)";
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    @Override
+    public int insertTasks(long todoListId, Collection<Long> taskIds) {
+        return executeUpdate(INSERT_TASKS, todoListId, taskIds);
+    }
+
+    @Override
+    public int deleteTasks(long todoListId, Collection<Long> taskIds) {
+        return executeUpdate(DELETE_TASKS, todoListId, taskIds);
+    }
+
+    @Override
+    public int incrementVersionById(long id) {
+        return incrementVersionsByIdIn(Collections.singletonList(id));
+    }
+
+    @Override
+    public int incrementVersionsByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int rows = this.entityManager.createNativeQuery(INCREMENT_VERSIONS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+        if (rows > 0) {
+            Cache cache = cache();
+            evictAfterCompletion(() -> ids.forEach(id -> cache.evictEntityData(TodoList.class, id)));
+        }
+        return rows;
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private int executeUpdate(String sql, long todoListId, Collection<Long> taskIds) {
+        int rows = this.entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(TodoList.TASKS_JOIN_TABLE)
+                .setParameter("todoListId", todoListId)
+                .setParameterList("taskIds", taskIds)
+                .executeUpdate();
+        if (rows > 0) {
+            Cache cache = cache();
+            evictAfterCompletion(() -> cache.evictCollectionData(TASKS_ROLE, todoListId));
+        }
+        return rows;
+    }
+
+    private Cache cache() {
+        return this.entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+    }
+
+    /**
+     * Evicts cached entries right away and once more after the transaction completes.
+     */
+    private void evictAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package nice.daos;
 
+import nice.config.CacheConfig;
+import nice.dto.ResponseUserDto;
 import nice.entities.User;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,6 +21,24 @@ import java.util.Optional;
  * @author danielctrenado@gmail.com
  */
 @Repository
-public interface UserDao extends CrudRepository<User, Long> {
+public interface UserDao extends JpaRepository<User, Long> {
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUserName(String userName);
+
+    List<User> findByUserNameIn(Collection<String> userNames);
+
+    /**
+     * Finds the users with the ids given as DTOs, ordered by id, without loading their tasks.
+     */
+    @Query("select new nice.dto.ResponseUserDto(u.id, u.userName) from User u where u.id in :ids order by u.id")
+    List<ResponseUserDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the id of the user with the given userName. The ids found are cached and evicted by the user service when
+     * users are renamed or deleted. Misses are not cached: one read before a user is committed could be stored after
+     * the eviction of its creation and hide it.
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_IDS_CACHE, key = "#p0", unless = "#result == null")
+    @Query("select u.id from User u where u.userName = :userName")
+    Optional<Long> findIdByUserName(@Param("userName") String userName);
 }
\ No newline at end of file
@@ -1,24 +1,36 @@
 package nice.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.Date;
 
+/**
+ * Body of the error responses. The timestamp is kept in epoch milliseconds, no Date is created per error, and is
+ * serialized as a Date, in the same format as before.
+ *
+ * @author danielctrenado@gmail.com
+ */
 public class ErrorDto implements Serializable {
-    private Date timestamp;
+    @JsonSerialize(using = TimestampSerializer.class)
+    private long timestamp;
     private String message;
     private String details;
 
-    public ErrorDto(Date timestamp, String message, String details) {
+    public ErrorDto(long timestamp, String message, String details) {
         this.timestamp = timestamp;
         this.message = message;
         this.details = details;
     }
 
-    public Date getTimestamp() {
+    public long getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(Date timestamp) {
+    public void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
 
@@ -38,6 +50,19 @@ public class ErrorDto implements Serializable {
         this.details = details;
     }
 
+    /**
+     * Serializer of an epoch-millis timestamp as the Date of the same instant would be.
+     */
+    static class TimestampSerializer extends StdSerializer<Long> {
 
+        TimestampSerializer() {
+            super(Long.class);
+        }
 
+        @Override
+        public void serialize(Long timestamp, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            provider.defaultSerializeDateValue(timestamp, generator);
+        }
+    }
 }
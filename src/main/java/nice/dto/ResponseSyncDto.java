@@ -0,0 +1,160 @@
+package nice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Response DTO for a page of the delta sync: the current state of the rows created or updated in the page of the
+ * change log, and the ids of the rows deleted. The rows deleted after their change are left out, their tombstones
+ * coming later.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class ResponseSyncDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * Version of the last change of the page, the cursor of the next page.
+     */
+    private long version;
+
+    /**
+     * True if there are more changes after the page.
+     */
+    private boolean more;
+
+    private List<ResponseUserDto> users = new ArrayList<>();
+
+    private List<ResponseTaskDto> tasks = new ArrayList<>();
+
+    private List<ResponseSyncTodoListDto> todoLists = new ArrayList<>();
+
+    private List<Long> deletedUserIds = new ArrayList<>();
+
+    private List<Long> deletedTaskIds = new ArrayList<>();
+
+    private List<Long> deletedTodoListIds = new ArrayList<>();
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseSyncDto() {
+    }
+
+    public ResponseSyncDto(long version, boolean more) {
+        this.version = version;
+        this.more = more;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    public List<ResponseUserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<ResponseUserDto> users) {
+        this.users = users;
+    }
+
+    public List<ResponseTaskDto> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<ResponseTaskDto> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<ResponseSyncTodoListDto> getTodoLists() {
+        return todoLists;
+    }
+
+    public void setTodoLists(List<ResponseSyncTodoListDto> todoLists) {
+        this.todoLists = todoLists;
+    }
+
+    public List<Long> getDeletedUserIds() {
+        return deletedUserIds;
+    }
+
+    public void setDeletedUserIds(List<Long> deletedUserIds) {
+        this.deletedUserIds = deletedUserIds;
+    }
+
+    public List<Long> getDeletedTaskIds() {
+        return deletedTaskIds;
+    }
+
+    public void setDeletedTaskIds(List<Long> deletedTaskIds) {
+        this.deletedTaskIds = deletedTaskIds;
+    }
+
+    public List<Long> getDeletedTodoListIds() {
+        return deletedTodoListIds;
+    }
+
+    public void setDeletedTodoListIds(List<Long> deletedTodoListIds) {
+        this.deletedTodoListIds = deletedTodoListIds;
+    }
+
+    //***************************************************************
+    // Overrides
+    //***************************************************************
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResponseSyncDto that = (ResponseSyncDto) o;
+        return version == that.version &&
+                more == that.more &&
+                Objects.equals(users, that.users) &&
+                Objects.equals(tasks, that.tasks) &&
+                Objects.equals(todoLists, that.todoLists) &&
+                Objects.equals(deletedUserIds, that.deletedUserIds) &&
+                Objects.equals(deletedTaskIds, that.deletedTaskIds) &&
+                Objects.equals(deletedTodoListIds, that.deletedTodoListIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, more, users, tasks, todoLists, deletedUserIds, deletedTaskIds,
+                deletedTodoListIds);
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseSyncDto{" +
+                "version=" + version +
+                ", more=" + more +
+                ", users=" + users +
+                ", tasks=" + tasks +
+                ", todoLists=" + todoLists +
+                ", deletedUserIds=" + deletedUserIds +
+                ", deletedTaskIds=" + deletedTaskIds +
+                ", deletedTodoListIds=" + deletedTodoListIds +
+                '}';
+    }
+}
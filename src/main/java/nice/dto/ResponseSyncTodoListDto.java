@@ -0,0 +1,92 @@
+package nice.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Response DTO for a todolist of the delta sync, with the ids of its tasks instead of the tasks, which are synced on
+ * their own.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class ResponseSyncTodoListDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private long id;
+
+    private String name;
+
+    private List<Long> taskIds;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseSyncTodoListDto() {
+    }
+
+    public ResponseSyncTodoListDto(long id, String name, List<Long> taskIds) {
+        this.id = id;
+        this.name = name;
+        this.taskIds = taskIds;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Long> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(List<Long> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    //***************************************************************
+    // Overrides
+    //***************************************************************
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResponseSyncTodoListDto that = (ResponseSyncTodoListDto) o;
+        return id == that.id &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(taskIds, that.taskIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, taskIds);
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseSyncTodoListDto{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", taskIds=" + taskIds +
+                '}';
+    }
+}
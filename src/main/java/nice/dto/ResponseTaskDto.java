@@ -9,7 +9,7 @@ import nice.entities.Task;
 import nice.entities.TodoList;
 import nice.entities.User;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.util.List;
 import java.util.Objects;
 
@@ -50,6 +50,19 @@ public class ResponseTaskDto {
         this.responseUserDto = responseUserDto;
     }
 
+    /**
+     * Constructor used by the JPQL projections that select the task and its assigned user in a single join.
+     */
+    public ResponseTaskDto(long id, String name, String description, Status status, Long userId, String userName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        if (userId != null) {
+            this.responseUserDto = new ResponseUserDto(userId, userName);
+        }
+    }
+
     public ResponseTaskDto(Task task) {
         this.id = task.getId();
         this.name = task.getName();
@@ -0,0 +1,95 @@
+package nice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import nice.constants.TaskEventType;
+
+import java.util.Objects;
+
+/**
+ * Response DTO for an event of the change feeds. The task is only sent when it was created or updated, the other
+ * events only tell the id of the task.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResponseTaskEventDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private TaskEventType type;
+
+    private Long taskId;
+
+    private ResponseTaskDto task;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseTaskEventDto() {
+    }
+
+    public ResponseTaskEventDto(TaskEventType type, Long taskId, ResponseTaskDto task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public void setType(TaskEventType type) {
+        this.type = type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public ResponseTaskDto getTask() {
+        return task;
+    }
+
+    public void setTask(ResponseTaskDto task) {
+        this.task = task;
+    }
+
+    //***************************************************************
+    // Overrides
+    //***************************************************************
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResponseTaskEventDto that = (ResponseTaskEventDto) o;
+        return type == that.type &&
+                Objects.equals(taskId, that.taskId) &&
+                Objects.equals(task, that.task);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, taskId, task);
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseTaskEventDto{" +
+                "type=" + type +
+                ", taskId=" + taskId +
+                ", task=" + task +
+                '}';
+    }
+}
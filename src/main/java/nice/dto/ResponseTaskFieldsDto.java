@@ -0,0 +1,20 @@
+package nice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response DTO for a task read with fields=. The null fields are not serialized, which leaves out the fields not
+ * requested, the full tasks of {@link ResponseTaskDto} keep their null fields.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResponseTaskFieldsDto extends ResponseTaskDto {
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseTaskFieldsDto() {
+    }
+}
@@ -0,0 +1,83 @@
+package nice.dto;
+
+import nice.constants.Status;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Response DTO for the summary of a todolist: its number of tasks, in total and of each status, without the tasks.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class ResponseTodoListSummaryDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private long id;
+
+    private String name;
+
+    private long taskCount;
+
+    private Map<Status, Long> counts;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseTodoListSummaryDto() {
+    }
+
+    /**
+     * Constructor used by the JPQL projection counting the tasks of each status with one conditional sum per status.
+     */
+    public ResponseTodoListSummaryDto(long id, String name, long taskCount, long notStarted, long inProgress,
+                                      long complete) {
+        this.id = id;
+        this.name = name;
+        this.taskCount = taskCount;
+        this.counts = new EnumMap<>(Status.class);
+        this.counts.put(Status.NOT_STARTED, notStarted);
+        this.counts.put(Status.IN_PROGRESS, inProgress);
+        this.counts.put(Status.COMPLETE, complete);
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(long taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public Map<Status, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<Status, Long> counts) {
+        this.counts = counts;
+    }
+}
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import nice.entities.Task;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.util.Objects;
 
 
@@ -0,0 +1,58 @@
+package nice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import nice.constants.Status;
+
+import java.util.Map;
+
+/**
+ * Response DTO for the number of tasks of each status assigned to a user.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class ResponseUserTaskStatsDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * The user, null for the tasks not assigned.
+     */
+    @JsonProperty("user")
+    private ResponseUserDto responseUserDto;
+
+    private Map<Status, Long> counts;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public ResponseUserTaskStatsDto() {
+    }
+
+    public ResponseUserTaskStatsDto(ResponseUserDto responseUserDto, Map<Status, Long> counts) {
+        this.responseUserDto = responseUserDto;
+        this.counts = counts;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public ResponseUserDto getResponseUserDto() {
+        return responseUserDto;
+    }
+
+    public void setResponseUserDto(ResponseUserDto responseUserDto) {
+        this.responseUserDto = responseUserDto;
+    }
+
+    public Map<Status, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<Status, Long> counts) {
+        this.counts = counts;
+    }
+}
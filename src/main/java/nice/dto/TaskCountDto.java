@@ -0,0 +1,65 @@
+package nice.dto;
+
+import nice.constants.Status;
+
+/**
+ * DTO for the number of tasks of a group, as computed by the GROUP BY queries.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskCountDto {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private Long userId;
+
+    private String userName;
+
+    private Status status;
+
+    private long count;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    /**
+     * Constructor used by the JPQL projections grouping by status.
+     */
+    public TaskCountDto(Status status, long count) {
+        this.status = status;
+        this.count = count;
+    }
+
+    /**
+     * Constructor used by the JPQL projections grouping by assigned user and status.
+     */
+    public TaskCountDto(Long userId, String userName, Status status, long count) {
+        this.userId = userId;
+        this.userName = userName;
+        this.status = status;
+        this.count = count;
+    }
+
+    //***************************************************************
+    // Getters.
+    //***************************************************************
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
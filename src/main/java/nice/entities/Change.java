@@ -0,0 +1,148 @@
+package nice.entities;
+
+import nice.constants.ChangeType;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Entity for a change of the change log: a row created, updated or deleted at a version. Only the last change of a
+ * row in a transaction is recorded.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Entity
+@Table(name = "changes")
+public class Change {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Sequence of the versions, allocated to the process by blocks.
+     */
+    public static final String VERSION_SEQUENCE = "changes_version_seq";
+
+    /**
+     * Number of versions allocated to the process at once, the increment of the sequence: the transactions only
+     * read the sequence once every so many changes.
+     */
+    public static final int VERSION_ALLOCATION_SIZE = 1000;
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    /**
+     * Version of the change, allocated by the sequence when the change is written, just before its transaction
+     * commits.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = VERSION_SEQUENCE)
+    @SequenceGenerator(name = VERSION_SEQUENCE, sequenceName = VERSION_SEQUENCE,
+            allocationSize = VERSION_ALLOCATION_SIZE)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType type;
+
+    private long entityId;
+
+    private boolean deleted;
+
+    /**
+     * Time the version was allocated at, never earlier than the one of a lower version.
+     */
+    private Instant recordedAt;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    public Change() {
+    }
+
+    public Change(ChangeType type, long entityId, boolean deleted) {
+        this.type = type;
+        this.entityId = entityId;
+        this.deleted = deleted;
+    }
+
+    //***************************************************************
+    // Getters and Setters.
+    //***************************************************************
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(long entityId) {
+        this.entityId = entityId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Instant recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    //***************************************************************
+    // Overrides
+    //***************************************************************
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Change change = (Change) o;
+        return version == change.version &&
+                entityId == change.entityId &&
+                deleted == change.deleted &&
+                type == change.type &&
+                Objects.equals(recordedAt, change.recordedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, type, entityId, deleted, recordedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "Change{" +
+                "version=" + version +
+                ", type=" + type +
+                ", entityId=" + entityId +
+                ", deleted=" + deleted +
+                ", recordedAt=" + recordedAt +
+                '}';
+    }
+}
@@ -1,11 +1,11 @@
 package nice.entities;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
 import nice.constants.Status;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Entity for task.
@@ -13,15 +13,37 @@ import java.util.Objects;
  * @author danielctrenado@gmail.com
  */
 @Entity
-@Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@Table(name = "tasks",
+        uniqueConstraints = @UniqueConstraint(name = Task.NAME_UNIQUE_CONSTRAINT, columnNames = "name"),
+        indexes = @Index(name = "idx_tasks_status", columnList = "status"))
 public class Task {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Name of the unique constraint on the name of the tasks.
+     */
+    public static final String NAME_UNIQUE_CONSTRAINT = "uk_tasks_name";
+
+    /**
+     * Name of the second-level cache region of the tasks.
+     */
+    public static final String CACHE_REGION = "tasks";
+
     //***************************************************************
     // Instance variables
     //***************************************************************
 
+    /**
+     * Pooled sequence, so the ids of a whole JDBC batch of inserts are reserved with one round-trip.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private long id;
 
     private String name;
@@ -31,9 +53,8 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(name = "assigned_user_id")
-    @JsonManagedReference
     private User user;
 
     @ManyToMany(mappedBy = "tasks")
@@ -117,22 +138,20 @@ public class Task {
     // Overrides
     //***************************************************************
 
+    // Tasks are compared by their id, the only field that never changes once persisted; a task not persisted yet is
+    // only equal to itself. The hash code is constant, so a task stays in its bucket of a set when it is persisted or
+    // renamed, and hashing it neither initializes the lazy user proxy nor the todolists collection.
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Task)) return false;
         Task task = (Task) o;
-        return id == task.id &&
-                Objects.equals(name, task.name) &&
-                Objects.equals(description, task.description) &&
-                status == task.status &&
-                Objects.equals(user, task.user) &&
-                Objects.equals(todoLists, task.todoLists);
+        return id != 0 && id == task.getId();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, status, user, todoLists);
+        return Task.class.hashCode();
     }
 
     @Override
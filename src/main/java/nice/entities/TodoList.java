@@ -1,8 +1,13 @@
 package nice.entities;
 
-import javax.persistence.*;
-import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.*;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Entity for todolist.
@@ -10,9 +15,41 @@ import java.util.Objects;
  * @author danielctrenado@gmail.com
  */
 @Entity
-@Table(name = "todolists")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TodoList.CACHE_REGION)
+@Table(name = TodoList.TABLE,
+        uniqueConstraints = @UniqueConstraint(name = TodoList.NAME_UNIQUE_CONSTRAINT, columnNames = "name"))
 public class TodoList {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Name of the table of the todolists.
+     */
+    public static final String TABLE = "todolists";
+
+    /**
+     * Name of the unique constraint on the name of the todolists.
+     */
+    public static final String NAME_UNIQUE_CONSTRAINT = "uk_todolists_name";
+
+    /**
+     * Name of the second-level cache region of the todolists.
+     */
+    public static final String CACHE_REGION = "todolists";
+
+    /**
+     * Name of the second-level cache region of the tasks of each todolist.
+     */
+    public static final String TASKS_CACHE_REGION = "todolists_tasks";
+
+    /**
+     * Name of the join table between the todolists and their tasks.
+     */
+    public static final String TASKS_JOIN_TABLE = "todolists_tasks";
+
     //***************************************************************
     // Instance variables
     //***************************************************************
@@ -23,10 +60,23 @@ public class TodoList {
 
     private String name;
 
+    /**
+     * Version of the todolist, bumped on every change of the todolist or of its tasks. Used as its ETag.
+     */
+    @Version
+    private long version;
+
+    /**
+     * Tasks of the todolist. A set, so the join table has a primary key and Hibernate inserts or deletes only the rows
+     * of the tasks added or removed, instead of recreating the whole bag.
+     */
     @ManyToMany(cascade = CascadeType.ALL)
-    @JoinTable(name = "todolists_tasks", joinColumns = @JoinColumn(name = "task_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn(name = "todolist_id", referencedColumnName = "id"))
-    private List<Task> tasks;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TodoList.TASKS_CACHE_REGION)
+    @JoinTable(name = TodoList.TASKS_JOIN_TABLE,
+            joinColumns = @JoinColumn(name = "todolist_id", referencedColumnName = "id"),
+            inverseJoinColumns = @JoinColumn(name = "task_id", referencedColumnName = "id"))
+    @OrderBy("id")
+    private Set<Task> tasks;
 
     //***************************************************************
     // Constructors.
@@ -35,15 +85,15 @@ public class TodoList {
     public TodoList() {
     }
 
-    public TodoList(String name, List<Task> tasks) {
+    public TodoList(String name, Collection<Task> tasks) {
         this.name = name;
-        this.tasks = tasks;
+        this.tasks = tasks != null ? new LinkedHashSet<>(tasks) : null;
     }
 
-    public TodoList(long id, String name, List<Task> tasks) {
+    public TodoList(long id, String name, Collection<Task> tasks) {
         this.id = id;
         this.name = name;
-        this.tasks = tasks;
+        this.tasks = tasks != null ? new LinkedHashSet<>(tasks) : null;
     }
 
     //***************************************************************
@@ -66,11 +116,19 @@ public class TodoList {
         this.name = name;
     }
 
-    public List<Task> getTasks() {
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Set<Task> getTasks() {
         return tasks;
     }
 
-    public void setTasks(List<Task> tasks) {
+    public void setTasks(Set<Task> tasks) {
         this.tasks = tasks;
     }
 
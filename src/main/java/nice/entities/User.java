@@ -1,8 +1,9 @@
 package nice.entities;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 
 
 /**
@@ -11,9 +12,26 @@ import javax.persistence.*;
  * @author danielctrenado@gmail.com
  */
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@Table(name = "users",
+        uniqueConstraints = @UniqueConstraint(name = User.USER_NAME_UNIQUE_CONSTRAINT, columnNames = "userName"))
 public class User {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Name of the unique constraint on the userName of the users.
+     */
+    public static final String USER_NAME_UNIQUE_CONSTRAINT = "uk_users_user_name";
+
+    /**
+     * Name of the second-level cache region of the users.
+     */
+    public static final String CACHE_REGION = "users";
+
     //***************************************************************
     // Instance varibles
     //***************************************************************
@@ -23,10 +41,6 @@ public class User {
     private long id;
     private String userName;
 
-    @OneToOne(mappedBy = "user")
-    @JsonBackReference
-    private Task task;
-
     //***************************************************************
     // Constructors.
     //***************************************************************
@@ -63,14 +77,6 @@ public class User {
         this.userName = userName;
     }
 
-    public Task getTask() {
-        return task;
-    }
-
-    public void setTask(Task task) {
-        this.task = task;
-    }
-
     //***************************************************************
     // Overrides
     //***************************************************************
@@ -83,15 +89,13 @@ public class User {
         User user = (User) o;
 
         if (id != user.id) return false;
-        if (!(userName != null ? !userName.equals(user.userName) : user.userName != null)) return false;
-        return task.equals(user.task);
+        return userName != null ? userName.equals(user.userName) : user.userName == null;
     }
 
     @Override
     public int hashCode() {
         int result = (int) (id ^ (id >>> 32));
         result = 31 * result + (userName != null ? userName.hashCode() : 0);
-        result = 31 * result + (task != null ? task.hashCode() : 0);
         return result;
     }
 
@@ -100,7 +104,6 @@ public class User {
         return "User{" +
                 "id=" + id +
                 ", userName='" + userName + '\'' +
-                ", task=" + task +
                 '}';
     }
 }
\ No newline at end of file
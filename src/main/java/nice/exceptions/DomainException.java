@@ -0,0 +1,49 @@
+package nice.exceptions;
+
+/**
+ * Base of the exceptions signaling the expected failures of the services, e.g. a name already taken or an id not
+ * found, answered to the clients as errors and never logged.
+ * They are thrown often, by clients retrying creates and probing ids, so by default they do not capture the stack
+ * trace, which is most of the cost of an exception, nor record suppressed exceptions. The stack traces are captured
+ * again for debugging by starting the JVM with -Dexceptions.stack-traces=true.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public abstract class DomainException extends Exception {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * System property enabling the stack traces of the exceptions.
+     */
+    public static final String STACK_TRACES_PROPERTY = "exceptions.stack-traces";
+
+    // read once, when the first exception is created.
+    private static final boolean STACK_TRACES = Boolean.getBoolean(STACK_TRACES_PROPERTY);
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    protected DomainException() {
+        this(null, null);
+    }
+
+    protected DomainException(String message) {
+        this(message, null);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        this(message, cause, STACK_TRACES, STACK_TRACES);
+    }
+
+    protected DomainException(Throwable cause) {
+        this(cause == null ? null : cause.toString(), cause);
+    }
+
+    protected DomainException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class NotValidParameterException extends Exception {
+public class NotValidParameterException extends DomainException {
 
     public NotValidParameterException() {
         super();
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class TaskNameAlreadyTakenException extends Exception {
+public class TaskNameAlreadyTakenException extends DomainException {
 
     public TaskNameAlreadyTakenException() {
         super();
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class TaskNotFoundException extends Exception {
+public class TaskNotFoundException extends DomainException {
 
     public TaskNotFoundException() {
         super();
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class TodoListNameAlreadyTakenException extends Exception {
+public class TodoListNameAlreadyTakenException extends DomainException {
 
     public TodoListNameAlreadyTakenException() {
         super();
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class TodoListNotFoundException extends Exception {
+public class TodoListNotFoundException extends DomainException {
 
     public TodoListNotFoundException() {
         super();
@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class UserNameAlreadyTakenException extends Exception {
+public class UserNameAlreadyTakenException extends DomainException {
 
     public UserNameAlreadyTakenException() {
         super();
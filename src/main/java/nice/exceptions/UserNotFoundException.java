@@ -5,7 +5,7 @@ package nice.exceptions;
  *
  * @author danielctrenado@gmail.com
  */
-public class UserNotFoundException extends Exception {
+public class UserNotFoundException extends DomainException {
 
     public UserNotFoundException() {
         super();
@@ -0,0 +1,200 @@
+package nice.services;
+
+import nice.constants.ChangeType;
+import nice.daos.ChangeDao;
+import nice.entities.Change;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorder of the changes of the tasks, todolists and users in the change log, read by the delta sync of the offline
+ * clients. The changes of a transaction are collected, the last change of a row replacing the previous ones, and
+ * inserted with one batch when it commits. Their versions are allocated by a database sequence just before the
+ * commit, and stamped with the time of the allocation, so that a greater version is never recorded earlier. The
+ * transactions commit concurrently, a lower version may become visible after a greater one: {@link SyncService} only
+ * reads the changes recorded before a safety lag, longer than the time from the allocation to the commit. The time
+ * is the one of the process, as the in-memory database; with a database shared by several processes the lag would
+ * also have to cover their clock skew and the blocks of versions they allocate.
+ * The rows written before the application is ready, by Application.init and the seed, are recorded then as changes
+ * of a baseline when the change log is empty, so a client syncing from version 0 obtains all the rows.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Component
+public class ChangeLog {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private ChangeDao changeDao;
+
+    // held while versions are allocated and stamped, never while waiting for the database to commit.
+    private final Object allocationLock = new Object();
+
+    // guarded by the allocation lock, the time of the last versions allocated.
+    private Instant lastRecordedAt = Instant.EPOCH;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Records a change for every row once the application is ready if the change log is empty, the rows being
+     * created without the change log at startup, then allocates the first block of versions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recordBaseline() {
+        synchronized (this.allocationLock) {
+            if (!this.changeDao.findLastVersion().isPresent()) {
+                Instant recordedAt = nextRecordedAt();
+                for (ChangeType type : ChangeType.values()) {
+                    this.changeDao.insertAllOfType(type, recordedAt);
+                }
+            }
+            this.changeDao.allocateVersions();
+        }
+    }
+
+    /**
+     * Records a row created or updated.
+     *
+     * @param type The type of the row.
+     * @param id   The id of the row.
+     */
+    public void changed(ChangeType type, long id) {
+        record(type, Collections.singletonList(id), false);
+    }
+
+    /**
+     * Records rows created or updated.
+     *
+     * @param type The type of the rows.
+     * @param ids  The ids of the rows.
+     */
+    public void changed(ChangeType type, Collection<Long> ids) {
+        record(type, ids, false);
+    }
+
+    /**
+     * Records a row deleted, as a tombstone.
+     *
+     * @param type The type of the row.
+     * @param id   The id of the row.
+     */
+    public void deleted(ChangeType type, long id) {
+        record(type, Collections.singletonList(id), true);
+    }
+
+    /**
+     * Records rows deleted, as tombstones.
+     *
+     * @param type The type of the rows.
+     * @param ids  The ids of the rows.
+     */
+    public void deleted(ChangeType type, Collection<Long> ids) {
+        record(type, ids, true);
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Adds changes to the ones of the current transaction, or writes them right away without a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private void record(ChangeType type, Collection<Long> ids, boolean deleted) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<ChangeType, Map<Long, Boolean>> changes;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes = new EnumMap<>(ChangeType.class);
+            put(changes, type, ids, deleted);
+            write(changes);
+            return;
+        }
+        changes = (Map<ChangeType, Map<Long, Boolean>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<ChangeType, Map<Long, Boolean>> transactionChanges = new EnumMap<>(ChangeType.class);
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // the other writes are flushed first, so only the inserts of the changes run between the
+                    // allocation of their versions and the commit.
+                    changeDao.flush();
+                    write(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLog.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        put(changes, type, ids, deleted);
+    }
+
+    private static void put(Map<ChangeType, Map<Long, Boolean>> changes, ChangeType type, Collection<Long> ids,
+                            boolean deleted) {
+        Map<Long, Boolean> typeChanges = changes.computeIfAbsent(type, key -> new LinkedHashMap<>());
+        for (Long id : ids) {
+            typeChanges.put(id, deleted);
+        }
+    }
+
+    /**
+     * Allocates the versions of the changes and stamps them under the allocation lock, the inserts being flushed on
+     * commit. The versions of a transaction rolled back are skipped.
+     */
+    private void write(Map<ChangeType, Map<Long, Boolean>> changes) {
+        int count = changes.values().stream().mapToInt(Map::size).sum();
+        if (count == 0) {
+            return;
+        }
+        List<Change> rows = new ArrayList<>(count);
+        for (Map.Entry<ChangeType, Map<Long, Boolean>> typeChanges : changes.entrySet()) {
+            for (Map.Entry<Long, Boolean> change : typeChanges.getValue().entrySet()) {
+                rows.add(new Change(typeChanges.getKey(), change.getKey(), change.getValue()));
+            }
+        }
+        synchronized (this.allocationLock) {
+            Instant recordedAt = nextRecordedAt();
+            for (Change row : rows) {
+                row.setRecordedAt(recordedAt);
+            }
+            this.changeDao.insertAll(rows);
+        }
+    }
+
+    /**
+     * Returns the time of the versions about to be allocated, never earlier than the previous one even if the clock
+     * goes back. Called under the allocation lock.
+     */
+    private Instant nextRecordedAt() {
+        Instant now = Instant.now();
+        if (now.isAfter(this.lastRecordedAt)) {
+            this.lastRecordedAt = now;
+        }
+        return this.lastRecordedAt;
+    }
+}
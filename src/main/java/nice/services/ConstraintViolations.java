@@ -0,0 +1,32 @@
+package nice.services;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Helper to recognize which database constraint caused a data integrity violation.
+ *
+ * @author danielctrenado@gmail.com
+ */
+final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Tells if the violation was caused by the constraint with the given name.
+     *
+     * @param exception      The data integrity violation.
+     * @param constraintName The name of the constraint, as declared in the entity mapping.
+     * @return true if the violated constraint is the given one.
+     */
+    static boolean isViolationOf(DataIntegrityViolationException exception, String constraintName) {
+        if (!(exception.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        // databases report the name of the constraint in their own case and decorated, e.g. "UK_TASKS_NAME_INDEX_4".
+        String violatedConstraint = ((ConstraintViolationException) exception.getCause()).getConstraintName();
+        return violatedConstraint != null
+                && violatedConstraint.toLowerCase().contains(constraintName.toLowerCase());
+    }
+}
@@ -0,0 +1,52 @@
+package nice.services;
+
+import nice.constants.Status;
+import nice.daos.ReactiveTaskDao;
+import nice.dto.ResponseTaskDto;
+import nice.exceptions.NotValidParameterException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Non-blocking service for the reads of tasks of the profile reactive. The parameters are validated as in
+ * {@link TaskService} when the method is called, and the tasks are read when the result is subscribed.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTaskService {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private ReactiveTaskDao reactiveTaskDao;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains a page of tasks ordered by id, optionally filtered by status, as {@link TaskService#getTasks}.
+     *
+     * @param status The status of the tasks, or null for all the tasks.
+     * @param after  The id of the last task of the previous page, or null for the first page.
+     * @param limit  The maximum number of tasks of the page, or null for the default page size.
+     * @param fields The comma separated fields of the tasks to return, or null for all the fields.
+     * @return The tasks of the page.
+     * @throws NotValidParameterException If the cursor, the limit or the fields are not valid.
+     */
+    public Flux<ResponseTaskDto> getTasks(Status status, Long after, Integer limit, String fields)
+            throws NotValidParameterException {
+        PageRequest pageRequest = TaskService.tasksPageRequest(after, limit);
+        Set<String> selectedFields = TaskService.parseFields("Error when obtaining tasks: ", fields);
+        return this.reactiveTaskDao.findDtos(selectedFields, null, status, after == null ? 0 : after, pageRequest);
+    }
+}
@@ -0,0 +1,112 @@
+package nice.services;
+
+import nice.constants.Status;
+import nice.daos.ReactiveTaskDao;
+import nice.daos.ReactiveTodoListDao;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.exceptions.NotValidParameterException;
+import nice.exceptions.TodoListNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Non-blocking service for the reads of todolists of the profile reactive. The parameters are validated as in
+ * {@link TodoListService} when the method is called, and the database is read when the result is subscribed.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTodoListService {
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private ReactiveTodoListDao reactiveTodoListDao;
+
+    @Autowired
+    private ReactiveTaskDao reactiveTaskDao;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains a page of todolists ordered by id, summarized with their number of tasks in total and of each status, as
+     * {@link TodoListService#getTodoListSummaries}.
+     *
+     * @param after The id of the last todolist of the previous page, or null for the first page.
+     * @param limit The maximum number of todolists of the page, or null for the default page size.
+     * @return The summaries of the todolists of the page.
+     * @throws NotValidParameterException If the cursor or the limit are not valid.
+     */
+    public Flux<ResponseTodoListSummaryDto> getTodoListSummaries(Long after, Integer limit)
+            throws NotValidParameterException {
+        PageRequest pageRequest = TodoListService.todoListsPageRequest("summarizing", after, limit);
+        return this.reactiveTodoListDao.findSummariesByIdGreaterThan(after == null ? 0 : after,
+                pageRequest.getPageSize());
+    }
+
+    /**
+     * Obtains the version of a todolist, without reading the todolist nor its tasks.
+     *
+     * @param id The id of the todolist.
+     * @return The version of the todolist, or the error {@link TodoListNotFoundException} if it is not found.
+     * @throws NotValidParameterException If the parameter is not valid.
+     */
+    public Mono<Long> getTodoListVersion(Long id) throws NotValidParameterException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when obtaining the version of a todolist: id is null.");
+        }
+        return this.reactiveTodoListDao.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new TodoListNotFoundException("Error when obtaining the version of "
+                        + "a todolist: todolist with id " + id + " was not found")));
+    }
+
+    /**
+     * Obtains a page of the tasks of a todolist, optionally filtered by status and sorted, as
+     * {@link TodoListService#getTodoListTasks}. The existence of the todolist is not checked, an unknown todolist has
+     * no tasks.
+     *
+     * @param id     The id of the todolist.
+     * @param status The status of the tasks, or null for all the tasks.
+     * @param sort   The property to sort by, id, name or status, prefixed with - to sort descending, or null for id.
+     * @param page   The number of the page from 0, or null for the first page.
+     * @param after  The id of the last task of the previous page when sorted by ascending id, or null.
+     * @param limit  The maximum number of tasks of the page, or null for the default page size.
+     * @param fields The comma separated fields of the tasks to return, or null for all the fields.
+     * @return The tasks of the page.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    public Flux<ResponseTaskDto> getTodoListTasks(Long id, Status status, String sort, Integer page, Long after,
+                                                  Integer limit, String fields) throws NotValidParameterException {
+        PageRequest pageRequest = TodoListService.todoListTasksPageRequest(id, sort, page, after, limit);
+        Set<String> selectedFields = TaskService.parseFields("Error when obtaining all tasks associated to "
+                + "todolist: ", fields);
+        return this.reactiveTaskDao.findDtos(selectedFields, id, status, after == null ? 0 : after, pageRequest);
+    }
+
+    /**
+     * Counts the tasks of a todolist, optionally filtered by status.
+     *
+     * @param id     The id of the todolist.
+     * @param status The status of the tasks, or null for all the tasks.
+     * @return The number of tasks.
+     * @throws NotValidParameterException If the parameter is not valid.
+     */
+    public Mono<Long> countTodoListTasks(Long id, Status status) throws NotValidParameterException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when counting the tasks of a todolist: id is null.");
+        }
+        return this.reactiveTaskDao.countByTodoListId(id, status);
+    }
+}
@@ -0,0 +1,162 @@
+package nice.services;
+
+import nice.constants.ChangeType;
+import nice.daos.ChangeDao;
+import nice.daos.TaskDao;
+import nice.daos.TodoListDao;
+import nice.daos.UserDao;
+import nice.dto.ResponseSyncDto;
+import nice.dto.ResponseSyncTodoListDto;
+import nice.entities.Change;
+import nice.entities.TodoList;
+import nice.exceptions.NotValidParameterException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for the delta sync of the offline clients, reading the change log recorded by {@link ChangeLog}.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Number of changes read in a page when no limit is requested.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of changes that can be requested in a single page.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private ChangeDao changeDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private TaskDao taskDao;
+
+    @Autowired
+    private TodoListDao todoListDao;
+
+    /**
+     * The changes recorded more recently are not read yet, a change with a lower version may not be committed.
+     */
+    @Value("${sync.safety-lag-ms:2000}")
+    private long safetyLagMillis;
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Obtains the changes after a version, one page of the change log at a time, with one query for the page and one
+     * IN-list query for each type of row changed, whatever the size of the data. A new client bootstraps either by
+     * syncing from version 0, as every row has a change, those existing at startup in the baseline recorded by
+     * {@link ChangeLog}, or without a version, which returns only the last version: the client reads it first, then
+     * loads all the data with the list endpoints and syncs from that version on. Only the changes recorded before
+     * sync.safety-lag-ms are read, once every change with a lower version is committed.
+     *
+     * @param since The version of the last change synced, or null to obtain the last version.
+     * @param limit The maximum number of changes of the page, or null for the default page size.
+     * @return The rows changed in the page, with the version to sync from next.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    public ResponseSyncDto getChanges(Long since, Integer limit) throws NotValidParameterException {
+        if (since != null && since < 0) {
+            throw new NotValidParameterException("Error when obtaining changes: since must not be negative.");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new NotValidParameterException("Error when obtaining changes: limit must be between 1 and "
+                    + MAX_PAGE_SIZE + ".");
+        }
+        Instant recordedBefore = Instant.now().minusMillis(this.safetyLagMillis);
+        if (since == null) {
+            return new ResponseSyncDto(this.changeDao.findLastVersion(recordedBefore).orElse(0L), false);
+        }
+        Slice<Change> changes = this.changeDao.findByVersionGreaterThan(since, recordedBefore,
+                PageRequest.of(0, limit == null ? DEFAULT_PAGE_SIZE : limit));
+
+        // only the last change of each row matters, a deleted row is not read.
+        long version = since;
+        Map<ChangeType, Set<Long>> changedIds = new EnumMap<>(ChangeType.class);
+        Map<ChangeType, Set<Long>> deletedIds = new EnumMap<>(ChangeType.class);
+        for (ChangeType type : ChangeType.values()) {
+            changedIds.put(type, new LinkedHashSet<>());
+            deletedIds.put(type, new LinkedHashSet<>());
+        }
+        for (Change change : changes) {
+            version = change.getVersion();
+            if (change.isDeleted()) {
+                changedIds.get(change.getType()).remove(change.getEntityId());
+                deletedIds.get(change.getType()).add(change.getEntityId());
+            } else {
+                changedIds.get(change.getType()).add(change.getEntityId());
+            }
+        }
+
+        ResponseSyncDto sync = new ResponseSyncDto(version, changes.hasNext());
+        if (!changedIds.get(ChangeType.USER).isEmpty()) {
+            sync.setUsers(this.userDao.findDtosByIdIn(changedIds.get(ChangeType.USER)));
+        }
+        if (!changedIds.get(ChangeType.TASK).isEmpty()) {
+            sync.setTasks(this.taskDao.findDtosByIdIn(changedIds.get(ChangeType.TASK)));
+        }
+        sync.setTodoLists(findTodoLists(changedIds.get(ChangeType.TODOLIST)));
+        sync.setDeletedUserIds(new ArrayList<>(deletedIds.get(ChangeType.USER)));
+        sync.setDeletedTaskIds(new ArrayList<>(deletedIds.get(ChangeType.TASK)));
+        sync.setDeletedTodoListIds(new ArrayList<>(deletedIds.get(ChangeType.TODOLIST)));
+        return sync;
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Finds the todolists with the ids of their tasks, with one query for the todolists and one for their tasks.
+     */
+    private List<ResponseSyncTodoListDto> findTodoLists(Set<Long> ids) {
+        List<ResponseSyncTodoListDto> todoLists = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, List<Long>> taskIds = new HashMap<>();
+            for (Object[] row : this.todoListDao.findTaskIdsByIdIn(ids)) {
+                taskIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+            }
+            for (TodoList todoList : this.todoListDao.findAllById(ids)) {
+                todoLists.add(new ResponseSyncTodoListDto(todoList.getId(), todoList.getName(),
+                        taskIds.getOrDefault(todoList.getId(), Collections.emptyList())));
+            }
+            todoLists.sort(Comparator.comparingLong(ResponseSyncTodoListDto::getId));
+        }
+        return todoLists;
+    }
+}
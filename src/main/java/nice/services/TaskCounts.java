@@ -0,0 +1,68 @@
+package nice.services;
+
+import nice.constants.Status;
+import nice.dto.ResponseUserDto;
+import nice.dto.ResponseUserTaskStatsDto;
+import nice.dto.TaskCountDto;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helper to fold the rows of the task GROUP BY queries into per-status counts.
+ *
+ * @author danielctrenado@gmail.com
+ */
+final class TaskCounts {
+
+    private TaskCounts() {
+    }
+
+    /**
+     * Folds rows grouped by status. Every status is present, with 0 when no task has it.
+     * Tasks without status have no key in the map and are not counted.
+     *
+     * @param taskCounts The rows grouped by status.
+     * @return The number of tasks of each status.
+     */
+    static EnumMap<Status, Long> byStatus(List<TaskCountDto> taskCounts) {
+        EnumMap<Status, Long> counts = emptyCounts();
+        for (TaskCountDto taskCount : taskCounts) {
+            if (taskCount.getStatus() != null) {
+                counts.put(taskCount.getStatus(), taskCount.getCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Folds rows grouped by assigned user and status, keeping the order in which the users come.
+     *
+     * @param taskCounts The rows grouped by user and status.
+     * @return The number of tasks of each status for each user, the tasks not assigned have no user.
+     */
+    static List<ResponseUserTaskStatsDto> byUserAndStatus(List<TaskCountDto> taskCounts) {
+        Map<Long, ResponseUserTaskStatsDto> statsByUserId = new LinkedHashMap<>();
+        for (TaskCountDto taskCount : taskCounts) {
+            ResponseUserTaskStatsDto stats = statsByUserId.computeIfAbsent(taskCount.getUserId(),
+                    userId -> new ResponseUserTaskStatsDto(
+                            userId == null ? null : new ResponseUserDto(userId, taskCount.getUserName()),
+                            emptyCounts()));
+            if (taskCount.getStatus() != null) {
+                stats.getCounts().put(taskCount.getStatus(), taskCount.getCount());
+            }
+        }
+        return new ArrayList<>(statsByUserId.values());
+    }
+
+    private static EnumMap<Status, Long> emptyCounts() {
+        EnumMap<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
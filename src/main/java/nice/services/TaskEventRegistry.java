@@ -0,0 +1,331 @@
+package nice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import nice.dto.ResponseTaskEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registry of the subscribers to the change feeds of tasks, one feed per todolist and one of all the tasks.
+ * The events are published once the transaction that made the change commits, and each subscriber has a bounded
+ * buffer drained by its own virtual thread, so a slow subscriber never delays the publisher nor the other
+ * subscribers: when its buffer is full it is dropped, and the client reconnects and reloads.
+ * Nothing is done, and no query is needed, while a feed has no subscriber.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Component
+public class TaskEventRegistry {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Feed of the events of all the tasks. No todolist has the id 0.
+     */
+    public static final long ALL_TASKS = 0;
+
+    private static Logger logger = LoggerFactory.getLogger(TaskEventRegistry.class);
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final int bufferSize;
+
+    // the senders block on the sockets of their subscribers, which only parks their virtual thread.
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter droppedSubscribers;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    /**
+     * Creates a registry.
+     *
+     * @param bufferSize    The number of events buffered for a subscriber before it is dropped.
+     * @param meterRegistry The registry of the metrics of the feeds.
+     */
+    public TaskEventRegistry(@Value("${tasks.events.buffer-size:256}") int bufferSize, MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.droppedSubscribers = meterRegistry.counter("tasks.events.dropped.subscribers");
+        meterRegistry.gauge("tasks.events.subscribers", this, TaskEventRegistry::countSubscribers);
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Subscribes to a feed.
+     *
+     * @param feed The id of the todolist, or {@link #ALL_TASKS}.
+     * @param sink The sink to send the events to.
+     * @return The subscription, to close when the client goes away.
+     */
+    public Subscription subscribe(long feed, Sink sink) {
+        Subscription subscription = new Subscription(feed, sink);
+        // added inside compute, so that a concurrent unsubscribe cannot remove the set of the feed meanwhile.
+        this.subscriptions.compute(feed, (key, feedSubscriptions) -> {
+            Set<Subscription> updatedSubscriptions = feedSubscriptions == null
+                    ? ConcurrentHashMap.newKeySet() : feedSubscriptions;
+            updatedSubscriptions.add(subscription);
+            return updatedSubscriptions;
+        });
+        return subscription;
+    }
+
+    /**
+     * Tells if any feed has subscribers.
+     *
+     * @return True if there is at least one subscriber.
+     */
+    public boolean hasSubscribers() {
+        return !this.subscriptions.isEmpty();
+    }
+
+    /**
+     * Tells if a feed has subscribers.
+     *
+     * @param feed The id of the todolist, or {@link #ALL_TASKS}.
+     * @return True if the feed has at least one subscriber.
+     */
+    public boolean hasSubscribers(long feed) {
+        return this.subscriptions.containsKey(feed);
+    }
+
+    /**
+     * Publishes events to feeds once the current transaction commits, or right away without a transaction.
+     * The events are dropped if the transaction rolls back.
+     *
+     * @param feeds  The ids of the todolists, or {@link #ALL_TASKS}.
+     * @param events The events, in order.
+     */
+    public void publishAfterCommit(Collection<Long> feeds, List<ResponseTaskEventDto> events) {
+        afterCommit(() -> {
+            for (Long feed : feeds) {
+                for (ResponseTaskEventDto event : events) {
+                    publish(feed, event);
+                }
+            }
+        });
+    }
+
+    /**
+     * Publishes a last event to a feed and closes its subscriptions once the current transaction commits, or right
+     * away without a transaction.
+     *
+     * @param feed      The id of the todolist.
+     * @param lastEvent The last event of the feed.
+     */
+    public void closeAfterCommit(long feed, ResponseTaskEventDto lastEvent) {
+        if (!hasSubscribers(feed)) {
+            return;
+        }
+        afterCommit(() -> {
+            Set<Subscription> feedSubscriptions = this.subscriptions.remove(feed);
+            if (feedSubscriptions != null) {
+                for (Subscription subscription : feedSubscriptions) {
+                    subscription.offer(lastEvent);
+                    subscription.closeWhenSent();
+                }
+            }
+        });
+    }
+
+    /**
+     * Closes all the subscriptions when the application stops.
+     */
+    @PreDestroy
+    public void closeAll() {
+        for (Set<Subscription> feedSubscriptions : new ArrayList<>(this.subscriptions.values())) {
+            feedSubscriptions.forEach(Subscription::close);
+        }
+        this.senders.shutdown();
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    private void publish(long feed, ResponseTaskEventDto event) {
+        Set<Subscription> feedSubscriptions = this.subscriptions.get(feed);
+        if (feedSubscriptions != null) {
+            for (Subscription subscription : feedSubscriptions) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        this.subscriptions.computeIfPresent(subscription.feed, (key, feedSubscriptions) -> {
+            feedSubscriptions.remove(subscription);
+            return feedSubscriptions.isEmpty() ? null : feedSubscriptions;
+        });
+    }
+
+    private double countSubscribers() {
+        return this.subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    //***************************************************************
+    // Inner classes.
+    //***************************************************************
+
+    /**
+     * Destination of the events of a subscriber, e.g. a Server-Sent Events response.
+     */
+    public interface Sink {
+
+        /**
+         * Sends an event, blocking while the client does not read.
+         *
+         * @param event The event.
+         * @throws IOException If the client went away.
+         */
+        void send(ResponseTaskEventDto event) throws IOException;
+
+        /**
+         * Ends the stream of events.
+         */
+        void complete();
+    }
+
+    /**
+     * Subscription of a sink to a feed, with its buffer of events not sent yet.
+     */
+    public final class Subscription {
+
+        private final long feed;
+
+        private final Sink sink;
+
+        private final BlockingQueue<ResponseTaskEventDto> buffer;
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile boolean closeWhenSent;
+
+        private Subscription(long feed, Sink sink) {
+            this.feed = feed;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Unsubscribes and ends the stream of events, without waiting for a send in progress.
+         */
+        public void close() {
+            if (this.closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                senders.execute(this::complete);
+            }
+        }
+
+        /**
+         * Unsubscribes without ending the stream of events, when the sink already ended: the client went away or
+         * the stream completed or timed out.
+         */
+        public void cancel() {
+            if (this.closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+            }
+        }
+
+        private void complete() {
+            try {
+                this.sink.complete();
+            } catch (IllegalStateException e) {
+                // the sink ended meanwhile, its own callback cancels the subscription
+                logger.debug("--> the stream of the feed {} already ended", this.feed);
+            }
+        }
+
+        private void offer(ResponseTaskEventDto event) {
+            if (this.closed.get()) {
+                return;
+            }
+            if (!this.buffer.offer(event)) {
+                droppedSubscribers.increment();
+                logger.warn("--> dropping a slow subscriber of the feed {} with {} events buffered", this.feed,
+                        bufferSize);
+                close();
+                return;
+            }
+            if (this.sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        private void closeWhenSent() {
+            this.closeWhenSent = true;
+            if (this.sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        /**
+         * Sends the events buffered, until the buffer is empty or the subscription is closed. Only one send runs at
+         * a time, the events published meanwhile are picked up before it ends.
+         */
+        private void send() {
+            try {
+                do {
+                    ResponseTaskEventDto event;
+                    while (!this.closed.get() && (event = this.buffer.poll()) != null) {
+                        this.sink.send(event);
+                    }
+                    this.sending.set(false);
+                } while (!this.buffer.isEmpty() && !this.closed.get() && this.sending.compareAndSet(false, true));
+                if (this.closeWhenSent) {
+                    close();
+                }
+            } catch (IOException e) {
+                this.sending.set(false);
+                cancel();
+            } catch (RuntimeException e) {
+                this.sending.set(false);
+                close();
+            }
+        }
+    }
+}
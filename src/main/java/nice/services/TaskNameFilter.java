@@ -0,0 +1,141 @@
+package nice.services;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import nice.daos.TaskDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the names taken by tasks, used to skip the lookups of names that are certainly free.
+ * The filter can answer "maybe taken" for a free name (a false positive, or the old name of a renamed task), which
+ * only costs the lookup, but never "free" for a taken name. The database constraint stays the source of truth.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Component
+public class TaskNameFilter {
+
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    private static Logger logger = LoggerFactory.getLogger(TaskNameFilter.class);
+
+    //***************************************************************
+    // Instance variables
+    //***************************************************************
+
+    @Autowired
+    private TaskDao taskDao;
+
+    // Guava's filter is lock-free and safe for concurrent puts and lookups.
+    private final BloomFilter<CharSequence> bloomFilter;
+
+    // Until the names in the database are loaded every name may be taken.
+    private volatile boolean warmedUp;
+
+    private final Counter skippedLookups;
+
+    private final Counter prunedNames;
+
+    //***************************************************************
+    // Constructors.
+    //***************************************************************
+
+    /**
+     * Creates a filter sized for the given memory budget and false positive rate.
+     *
+     * @param falsePositiveRate The false positive rate expected while the filter holds the names it was sized for.
+     * @param maxBytes          The memory budget of the filter, in bytes.
+     * @param meterRegistry     The registry of the filter metrics.
+     */
+    public TaskNameFilter(@Value("${tasks.name-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${tasks.name-filter.max-bytes:1048576}") long maxBytes,
+                          MeterRegistry meterRegistry) {
+        // optimal number of bits for n elements is -n ln(p) / ln(2)^2, solved here for n.
+        long expectedNames = Math.max(1, (long) (maxBytes * 8 * Math.log(2) * Math.log(2) / -Math.log(falsePositiveRate)));
+        this.bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedNames,
+                falsePositiveRate);
+        this.skippedLookups = meterRegistry.counter("tasks.name.filter.skipped.lookups");
+        this.prunedNames = meterRegistry.counter("tasks.name.filter.pruned.names");
+        meterRegistry.gauge("tasks.name.filter.expected.fpp", this, TaskNameFilter::expectedFalsePositiveRate);
+        logger.info("--> task name filter sized for {} names", expectedNames);
+    }
+
+    //***************************************************************
+    // Public methods.
+    //***************************************************************
+
+    /**
+     * Loads the names of all the tasks with a streaming scan, once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long count = 0;
+        try (Stream<String> names = this.taskDao.streamAllNames()) {
+            for (String name : (Iterable<String>) names::iterator) {
+                put(name);
+                count++;
+            }
+        }
+        this.warmedUp = true;
+        logger.info("--> task name filter warmed up with {} names", count);
+    }
+
+    /**
+     * Records a name as taken. Must be called before the task with that name is saved.
+     *
+     * @param name The name of the task.
+     */
+    public void put(String name) {
+        this.bloomFilter.put(name);
+    }
+
+    /**
+     * Keeps the names that may be taken, dropping the ones that are certainly free.
+     *
+     * @param names The names to check.
+     * @return The names that may be taken, empty when none of them needs a lookup.
+     */
+    public List<String> mightBeTaken(Collection<String> names) {
+        if (!this.warmedUp) {
+            return new ArrayList<>(names);
+        }
+        List<String> mightBeTaken = new ArrayList<>();
+        for (String name : names) {
+            if (this.bloomFilter.mightContain(name)) {
+                mightBeTaken.add(name);
+            }
+        }
+        this.prunedNames.increment(names.size() - mightBeTaken.size());
+        if (mightBeTaken.isEmpty()) {
+            this.skippedLookups.increment();
+        }
+        return mightBeTaken;
+    }
+
+    /**
+     * Obtains the false positive rate at the current number of names.
+     *
+     * @return The probability that a free name is reported as maybe taken.
+     */
+    public double expectedFalsePositiveRate() {
+        return this.bloomFilter.expectedFpp();
+    }
+}
@@ -1,9 +1,16 @@
 package nice.services;
 
+import nice.constants.ChangeType;
 import nice.constants.Status;
+import nice.constants.TaskEventType;
 import nice.daos.TaskDao;
+import nice.daos.TaskDaoCustom;
+import nice.daos.TodoListDao;
 import nice.daos.UserDao;
 import nice.dto.RequestTaskDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTaskEventDto;
+import nice.dto.ResponseUserTaskStatsDto;
 import nice.entities.Task;
 import nice.entities.User;
 import nice.exceptions.NotValidParameterException;
@@ -11,10 +18,26 @@ import nice.exceptions.TaskNameAlreadyTakenException;
 import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for task.
@@ -22,9 +45,28 @@ import java.util.Optional;
  * @author danielctrenado@gmail.com
  */
 @Service
-@Transactional
+@Transactional(rollbackFor = TaskNameAlreadyTakenException.class)
 public class TaskService {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Number of tasks returned in a page when no limit is requested.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of tasks that can be requested in a single page.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Maximum number of tasks that can be created in a single batch.
+     */
+    public static final int MAX_BATCH_SIZE = 10000;
+
     //***************************************************************
     // Instance variables
     //***************************************************************
@@ -35,27 +77,122 @@ public class TaskService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private TodoListDao todoListDao;
+
+    @Autowired
+    private TaskNameFilter taskNameFilter;
+
+    @Autowired
+    private TaskEventRegistry taskEventRegistry;
+
+    @Autowired
+    private ChangeLog changeLog;
+
     //***************************************************************
     // Public methods.
     //***************************************************************
 
     /**
-     * Finds all the tasks.
+     * Finds a page of tasks using keyset pagination: the tasks with an id greater than the cursor,
+     * ordered by id. When fields are requested only their columns are selected.
+     *
+     * @param status The status of the tasks, or null for all the tasks.
+     * @param after  The id of the last task of the previous page, or null for the first page.
+     * @param limit  The maximum number of tasks of the page, or null for the default page size.
+     * @param fields The comma separated fields of the tasks to return, or null for all the fields.
+     * @return The page of tasks, which tells if there are more tasks after it.
+     * @throws NotValidParameterException If the cursor, the limit or the fields are not valid.
+     */
+    public Slice<ResponseTaskDto> getTasks(Status status, Long after, Integer limit, String fields)
+            throws NotValidParameterException {
+        PageRequest pageRequest = tasksPageRequest(after, limit);
+        Set<String> selectedFields = parseFields("Error when obtaining tasks: ", fields);
+        long cursor = after == null ? 0 : after;
+        if (selectedFields != null) {
+            return this.taskDao.findDtos(selectedFields, null, status, cursor, pageRequest);
+        }
+        if (status == null) {
+            return this.taskDao.findDtosByIdGreaterThan(cursor, pageRequest);
+        }
+        return this.taskDao.findDtosByStatusAndIdGreaterThan(status, cursor, pageRequest);
+    }
+
+    /**
+     * Validates the keyset cursor and the limit of a page of tasks.
      *
-     * @return The list of the tasks.
+     * @param after The id of the last task of the previous page, or null for the first page.
+     * @param limit The maximum number of tasks of the page, or null for the default page size.
+     * @return The request of the first page of that size sorted by id, the cursor being part of the queries.
+     * @throws NotValidParameterException If the cursor or the limit are not valid.
      */
-    public Iterable<Task> getAllTasks() {
-        return this.taskDao.findAll();
+    public static PageRequest tasksPageRequest(Long after, Integer limit) throws NotValidParameterException {
+        if (after != null && after < 0) {
+            throw new NotValidParameterException("Error when obtaining tasks: after must not be negative.");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new NotValidParameterException("Error when obtaining tasks: limit must be between 1 and "
+                    + MAX_PAGE_SIZE + ".");
+        }
+        return PageRequest.of(0, limit == null ? DEFAULT_PAGE_SIZE : limit, Sort.by(Sort.Direction.ASC, "id"));
     }
 
     /**
-     * Finds all the tasks by status.
+     * Parses the fields of the tasks requested, the id is always returned.
      *
-     * @param status The status of the task.
-     * @return List of tasks according to status parameter.
+     * @param error  The beginning of the error message.
+     * @param fields The comma separated fields, or null for all the fields.
+     * @return The fields requested with the id, or null for all the fields.
+     * @throws NotValidParameterException If a field is not one of {@link TaskDaoCustom#DTO_FIELDS}.
      */
-    public Iterable<Task> getAllTasksByStatus(Status status) {
-        return this.taskDao.findByStatus(status);
+    public static Set<String> parseFields(String error, String fields) throws NotValidParameterException {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> selectedFields = new LinkedHashSet<>();
+        selectedFields.add("id");
+        for (String field : fields.split(",")) {
+            if (!TaskDaoCustom.DTO_FIELDS.contains(field.trim())) {
+                throw new NotValidParameterException(error + "fields must be among " + TaskDaoCustom.DTO_FIELDS
+                        + ".");
+            }
+            selectedFields.add(field.trim());
+        }
+        return selectedFields;
+    }
+
+    /**
+     * Exports all the tasks ordered by id, handing them one at a time to the consumer as they are read from a
+     * database cursor. The tasks are projected straight into DTOs, so nothing accumulates in the persistence
+     * context and the memory used does not depend on the number of tasks.
+     *
+     * @param consumer The consumer of each task exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<ResponseTaskDto> consumer) {
+        try (Stream<ResponseTaskDto> tasks = this.taskDao.streamAllDtos()) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    /**
+     * Counts the tasks of each status with a single GROUP BY query.
+     *
+     * @return The number of tasks of each status, 0 for the statuses without tasks.
+     */
+    @Transactional(readOnly = true)
+    public EnumMap<Status, Long> getTaskStats() {
+        return TaskCounts.byStatus(this.taskDao.findStatusCounts());
+    }
+
+    /**
+     * Counts the tasks of each status assigned to each user with a single GROUP BY query.
+     *
+     * @return The number of tasks of each status for each user with tasks, the tasks not assigned have no user.
+     */
+    @Transactional(readOnly = true)
+    public List<ResponseUserTaskStatsDto> getTaskStatsByUser() {
+        return TaskCounts.byUserAndStatus(this.taskDao.findUserStatusCounts());
     }
 
     /**
@@ -75,23 +212,30 @@ public class TaskService {
         if (requestTaskDto.getName() == null || requestTaskDto.getName().trim().isEmpty()) {
             throw new NotValidParameterException("Error when creating task: the name of the task is null or empty.");
         }
-        Optional<Task> optionalTask = this.taskDao.findByName(requestTaskDto.getName());
-        if (optionalTask.isPresent()) {
-            throw new TaskNameAlreadyTakenException("Error when creating task: name " + requestTaskDto.getName() + " already taken.");
-        }
         if (requestTaskDto.getUserName() != null) {
-            Optional<User> optionalUser = this.userDao.findByUserName(requestTaskDto.getUserName());
-            if (!optionalUser.isPresent()) {
+            Optional<Long> optionalUserId = this.userDao.findIdByUserName(requestTaskDto.getUserName());
+            if (!optionalUserId.isPresent()) {
                 throw new UserNotFoundException("Error when creating task: userName " + requestTaskDto.getUserName() + " to assign the task was not found.");
             }
-            user = optionalUser.get();
+            user = this.userDao.getReferenceById(optionalUserId.get());
         }
 
         Task task = new Task(requestTaskDto.getName(), requestTaskDto.getDescription(),
                 requestTaskDto.getStatus(), user);
 
-        // Save task in db.
-        return this.taskDao.save(task);
+        // Save task in db, the uniqueness of the name is checked by the database.
+        this.taskNameFilter.put(task.getName());
+        try {
+            Task createdTask = this.taskDao.saveAndFlush(task);
+            this.changeLog.changed(ChangeType.TASK, createdTask.getId());
+            publishCreated(Collections.singletonList(createdTask));
+            return createdTask;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, Task.NAME_UNIQUE_CONSTRAINT)) {
+                throw new TaskNameAlreadyTakenException("Error when creating task: name " + requestTaskDto.getName() + " already taken.", e);
+            }
+            throw e;
+        }
     }
 
     /**
@@ -116,25 +260,20 @@ public class TaskService {
             throw new NotValidParameterException("Error when updating task: the name of the task is null or empty.");
         }
         // find the user to assign the task if and only if userName is different from null and not empty.
-        Optional<User> optionalUser = Optional.empty();
         if (requestTaskDto.getUserName() != null && !requestTaskDto.getUserName().trim().isEmpty()) {
-            optionalUser = this.userDao.findByUserName(requestTaskDto.getUserName());
-            if (!optionalUser.isPresent()) {
+            Optional<Long> optionalUserId = this.userDao.findIdByUserName(requestTaskDto.getUserName());
+            if (!optionalUserId.isPresent()) {
                 throw new UserNotFoundException("Error when updating task: userName " + requestTaskDto.getUserName() + " to assign the task was not found.");
             }
-            user = optionalUser.get();
+            user = this.userDao.getReferenceById(optionalUserId.get());
         }
         // find the task to update.
         Optional<Task> optionalTask = this.taskDao.findById(id);
         if (!optionalTask.isPresent()) {
             throw new TaskNotFoundException("Error when updating task: The task with id " + id + " was not found.");
         }
-        Optional<Task> optionalTaskName = this.taskDao.findByName(requestTaskDto.getName());
-        if (optionalTaskName.isPresent() && optionalTaskName.get().getId() != id) {
-            throw new TaskNameAlreadyTakenException("Error when updating task: name " + requestTaskDto.getName() + " already taken.");
-        }
-
         Task task = optionalTask.get();
+        Status previousStatus = task.getStatus();
 
         // update the information.
         task.setName(requestTaskDto.getName());
@@ -142,8 +281,127 @@ public class TaskService {
         task.setStatus(requestTaskDto.getStatus());
         task.setUser(user);
 
-        // Save the task updated.
-        return this.taskDao.save(task);
+        // Save the task updated, the uniqueness of the name is checked by the database.
+        this.taskNameFilter.put(task.getName());
+        try {
+            Task updatedTask = this.taskDao.saveAndFlush(task);
+            // the todolists showing the task have changed too.
+            List<Long> todoListIds = this.todoListDao.findIdsByTaskId(updatedTask.getId());
+            this.todoListDao.incrementVersionsByIdIn(todoListIds);
+            this.changeLog.changed(ChangeType.TASK, updatedTask.getId());
+            publishUpdated(updatedTask, previousStatus, todoListIds);
+            return updatedTask;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, Task.NAME_UNIQUE_CONSTRAINT)) {
+                throw new TaskNameAlreadyTakenException("Error when updating task: name " + requestTaskDto.getName() + " already taken.", e);
+            }
+            throw e;
+        }
     }
 
+    /**
+     * Creates a batch of tasks. The batch is validated as a set, with one query to check the names already taken
+     * and one query to find all the users to assign, and the tasks are inserted with JDBC batches.
+     *
+     * @param requestTaskDtos The tasks to create.
+     * @return The tasks created, in the same order.
+     * @throws NotValidParameterException    If a parameter is not valid.
+     * @throws TaskNameAlreadyTakenException If a name is repeated in the batch or already exists.
+     * @throws UserNotFoundException         If a user to assign is not found.
+     */
+    public List<Task> createTasks(List<RequestTaskDto> requestTaskDtos)
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        // Validations.
+        if (requestTaskDtos == null || requestTaskDtos.isEmpty()) {
+            throw new NotValidParameterException("Error when creating tasks: tasks are null or empty.");
+        }
+        if (requestTaskDtos.size() > MAX_BATCH_SIZE) {
+            throw new NotValidParameterException("Error when creating tasks: more than " + MAX_BATCH_SIZE
+                    + " tasks in the batch.");
+        }
+        Set<String> names = new HashSet<>();
+        Set<String> userNames = new HashSet<>();
+        for (RequestTaskDto requestTaskDto : requestTaskDtos) {
+            if (requestTaskDto == null) throw new NotValidParameterException("Error when creating tasks: task is null");
+            if (requestTaskDto.getName() == null || requestTaskDto.getName().trim().isEmpty()) {
+                throw new NotValidParameterException("Error when creating tasks: the name of a task is null or empty.");
+            }
+            if (!names.add(requestTaskDto.getName())) {
+                throw new TaskNameAlreadyTakenException("Error when creating tasks: name " + requestTaskDto.getName() + " is repeated.");
+            }
+            if (requestTaskDto.getUserName() != null) {
+                userNames.add(requestTaskDto.getUserName());
+            }
+        }
+        // only the names the filter cannot rule out are looked up, usually none.
+        List<String> namesToCheck = this.taskNameFilter.mightBeTaken(names);
+        List<String> namesTaken = namesToCheck.isEmpty()
+                ? Collections.emptyList() : this.taskDao.findNamesByNameIn(namesToCheck);
+        if (!namesTaken.isEmpty()) {
+            throw new TaskNameAlreadyTakenException("Error when creating tasks: names " + namesTaken + " already taken.");
+        }
+        Map<String, User> usersByUserName = new HashMap<>();
+        if (!userNames.isEmpty()) {
+            for (User user : this.userDao.findByUserNameIn(userNames)) {
+                usersByUserName.put(user.getUserName(), user);
+            }
+            userNames.removeAll(usersByUserName.keySet());
+            if (!userNames.isEmpty()) {
+                throw new UserNotFoundException("Error when creating tasks: userNames " + userNames + " to assign the tasks were not found.");
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>(requestTaskDtos.size());
+        for (RequestTaskDto requestTaskDto : requestTaskDtos) {
+            tasks.add(new Task(requestTaskDto.getName(), requestTaskDto.getDescription(),
+                    requestTaskDto.getStatus(), usersByUserName.get(requestTaskDto.getUserName())));
+        }
+
+        // Save tasks in db, a name taken meanwhile is still caught by the database.
+        names.forEach(this.taskNameFilter::put);
+        try {
+            List<Task> savedTasks = this.taskDao.saveAll(tasks);
+            this.taskDao.flush();
+            this.changeLog.changed(ChangeType.TASK, savedTasks.stream().map(Task::getId).collect(Collectors.toList()));
+            publishCreated(savedTasks);
+            return savedTasks;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, Task.NAME_UNIQUE_CONSTRAINT)) {
+                throw new TaskNameAlreadyTakenException("Error when creating tasks: a name is already taken.", e);
+            }
+            throw e;
+        }
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Publishes the tasks created to the feed of all the tasks once committed, they are not in any todolist yet.
+     */
+    private void publishCreated(List<Task> tasks) {
+        if (!this.taskEventRegistry.hasSubscribers(TaskEventRegistry.ALL_TASKS)) {
+            return;
+        }
+        List<ResponseTaskEventDto> events = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            events.add(new ResponseTaskEventDto(TaskEventType.CREATED, task.getId(), new ResponseTaskDto(task)));
+        }
+        this.taskEventRegistry.publishAfterCommit(Collections.singletonList(TaskEventRegistry.ALL_TASKS), events);
+    }
+
+    /**
+     * Publishes a task updated to the feeds of its todolists and of all the tasks once committed.
+     */
+    private void publishUpdated(Task task, Status previousStatus, List<Long> todoListIds) {
+        if (!this.taskEventRegistry.hasSubscribers()) {
+            return;
+        }
+        List<Long> feeds = new ArrayList<>(todoListIds);
+        feeds.add(TaskEventRegistry.ALL_TASKS);
+        TaskEventType type = task.getStatus() == previousStatus ? TaskEventType.UPDATED : TaskEventType.STATUS_CHANGED;
+        this.taskEventRegistry.publishAfterCommit(feeds, Collections.singletonList(
+                new ResponseTaskEventDto(type, task.getId(), new ResponseTaskDto(task))));
+    }
 }
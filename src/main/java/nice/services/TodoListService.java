@@ -2,17 +2,40 @@ package nice.services;
 
 import nice.daos.TaskDao;
 import nice.daos.TodoListDao;
+import nice.constants.ChangeType;
+import nice.constants.Status;
+import nice.constants.TaskEventType;
 import nice.dto.RequestTodoListDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTaskEventDto;
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.dto.ResponseUserTaskStatsDto;
+import nice.dto.TaskCountDto;
 import nice.entities.Task;
 import nice.entities.TodoList;
 import nice.exceptions.NotValidParameterException;
+import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.TodoListNameAlreadyTakenException;
 import nice.exceptions.TodoListNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -21,8 +44,29 @@ import java.util.stream.Collectors;
  * @author danielctrenado@gmail.com
  */
 @Service
+@Transactional(rollbackFor = TodoListNameAlreadyTakenException.class)
 public class TodoListService {
 
+    //***************************************************************
+    // Static variables
+    //***************************************************************
+
+    /**
+     * Maximum number of ids of each IN-list query resolving the tasks of a new todolist.
+     */
+    public static final int TASK_IDS_CHUNK_SIZE = 1000;
+
+    /**
+     * Maximum number of ids listed in the error when the tasks of a new todolist are not found.
+     */
+    public static final int MISSING_IDS_REPORTED = 100;
+
+    /**
+     * Properties the tasks of a todolist can be sorted by.
+     */
+    public static final Set<String> TASK_SORT_PROPERTIES =
+            Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("id", "name", "status")));
+
     //***************************************************************
     // Instance variables
     //***************************************************************
@@ -33,17 +77,45 @@ public class TodoListService {
     @Autowired
     private TaskDao taskDao;
 
+    @Autowired
+    private TaskEventRegistry taskEventRegistry;
+
+    @Autowired
+    private ChangeLog changeLog;
+
     //***************************************************************
     // Public methods.
     //***************************************************************
 
     /**
-     * Obtains all the todolists.
+     * Obtains a page of todolists using keyset pagination: the todolists with an id greater than the cursor, ordered
+     * by id. Their tasks are loaded when read, so this is only meant for clients needing the full todolists.
      *
-     * @return The list with all the todolists.
+     * @param after The id of the last todolist of the previous page, or null for the first page.
+     * @param limit The maximum number of todolists of the page, or null for the default page size.
+     * @return The page of todolists, which tells if there are more todolists after it.
+     * @throws NotValidParameterException If the cursor or the limit are not valid.
      */
-    public Iterable<TodoList> getAllTodoLists() {
-        return this.todoListDao.findAll();
+    @Transactional(readOnly = true)
+    public Slice<TodoList> getTodoLists(Long after, Integer limit) throws NotValidParameterException {
+        PageRequest pageRequest = todoListsPageRequest("obtaining", after, limit);
+        return this.todoListDao.findByIdGreaterThan(after == null ? 0 : after, pageRequest);
+    }
+
+    /**
+     * Obtains the summaries of a page of todolists using keyset pagination: their number of tasks, in total and of
+     * each status, counted in the database by one aggregate query without loading any task.
+     *
+     * @param after The id of the last todolist of the previous page, or null for the first page.
+     * @param limit The maximum number of todolists of the page, or null for the default page size.
+     * @return The page of summaries, which tells if there are more todolists after it.
+     * @throws NotValidParameterException If the cursor or the limit are not valid.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ResponseTodoListSummaryDto> getTodoListSummaries(Long after, Integer limit)
+            throws NotValidParameterException {
+        PageRequest pageRequest = todoListsPageRequest("summarizing", after, limit);
+        return this.todoListDao.findSummariesByIdGreaterThan(after == null ? 0 : after, pageRequest);
     }
 
     /**
@@ -54,6 +126,7 @@ public class TodoListService {
      * @throws NotValidParameterException If the parameter is not valid.
      * @throws TodoListNotFoundException  If the todolist is not found.
      */
+    @Transactional(readOnly = true)
     public TodoList getTodoListById(Long id) throws NotValidParameterException, TodoListNotFoundException {
         if (id == null) {
             throw new NotValidParameterException("Error when obtaining a todolist: id is null.");
@@ -67,37 +140,169 @@ public class TodoListService {
     }
 
     /**
-     * Obtains a task associated to an specific todolist using parameter id.
+     * Obtains the version of a todolist, without loading the todolist nor its tasks.
      *
-     * @param id The id of the todolist to get the tasks.
-     * @return The list of Task associated to the todolist.
+     * @param id The id of the todolist.
+     * @return The version of the todolist.
      * @throws NotValidParameterException If the parameter is not valid.
      * @throws TodoListNotFoundException  If the todolist is not found.
      */
-    public Iterable<Task> getTodoListTasks(Long id) throws TodoListNotFoundException,
-            NotValidParameterException {
+    @Transactional(readOnly = true)
+    public long getTodoListVersion(Long id) throws NotValidParameterException, TodoListNotFoundException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when obtaining the version of a todolist: id is null.");
+        }
+        Optional<Long> version = this.todoListDao.findVersionById(id);
+        if (!version.isPresent()) {
+            throw new TodoListNotFoundException("Error when obtaining the version of a todolist: todolist with id "
+                    + id + " was not found");
+        }
+        return version.get();
+    }
+
+    /**
+     * Obtains a page of the tasks of a todolist, optionally filtered by status, sliced and sorted in the database.
+     * Pages are requested by number, or when sorted by ascending id also with a keyset cursor.
+     *
+     * @param id     The id of the todolist.
+     * @param status The status of the tasks, or null for all the tasks.
+     * @param sort   The property to sort by, id, name or status, prefixed with - to sort descending, or null for id.
+     * @param page   The number of the page from 0, or null for the first page.
+     * @param after  The id of the last task of the previous page when sorted by ascending id, or null.
+     * @param limit  The maximum number of tasks of the page, or null for the default page size.
+     * @param fields The comma separated fields of the tasks to return, or null for all the fields.
+     * @return The page of tasks, which tells if there are more tasks after it.
+     * @throws NotValidParameterException If the parameters are not valid.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ResponseTaskDto> getTodoListTasks(Long id, Status status, String sort, Integer page, Long after,
+                                                   Integer limit, String fields)
+            throws NotValidParameterException, TodoListNotFoundException {
+        PageRequest pageRequest = todoListTasksPageRequest(id, sort, page, after, limit);
+        Set<String> selectedFields = TaskService.parseFields("Error when obtaining all tasks associated to "
+                + "todolist: ", fields);
+        long cursor = after == null ? 0 : after;
+        Slice<ResponseTaskDto> tasks;
+        if (selectedFields != null) {
+            tasks = this.taskDao.findDtos(selectedFields, id, status, cursor, pageRequest);
+        } else if (status == null) {
+            tasks = this.taskDao.findDtosByTodoListIdAndIdGreaterThan(id, cursor, pageRequest);
+        } else {
+            tasks = this.taskDao.findDtosByTodoListIdAndStatusAndIdGreaterThan(id, status, cursor, pageRequest);
+        }
+        if (!tasks.hasContent() && !this.todoListDao.existsById(id)) {
+            throw new TodoListNotFoundException("Error when obtaining all tasks associated to todolist: " +
+                    "todolist with id " + id + " was not found");
+        }
+        return tasks;
+    }
+
+    /**
+     * Counts the tasks of a todolist, optionally filtered by status, with a query whose result is cached until the
+     * todolists or the tasks change.
+     *
+     * @param id     The id of the todolist.
+     * @param status The status of the tasks, or null for all the tasks.
+     * @return The number of tasks.
+     * @throws NotValidParameterException If the parameter is not valid.
+     */
+    @Transactional(readOnly = true)
+    public long countTodoListTasks(Long id, Status status) throws NotValidParameterException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when counting the tasks of a todolist: id is null.");
+        }
+        if (status == null) {
+            return this.taskDao.countByTodoListId(id);
+        }
+        return this.taskDao.countByTodoListIdAndStatus(id, status);
+    }
+
+    /**
+     * Tells if the tasks of a todolist sorted as requested can be paged with a keyset cursor.
+     *
+     * @param sort The sort requested.
+     * @return True when the tasks are sorted by ascending id.
+     */
+    public static boolean isKeysetSort(String sort) {
+        return sort == null || "id".equals(sort);
+    }
+
+    /**
+     * Validates the keyset cursor and the limit of a page of todolists.
+     *
+     * @param operation The operation, for the error messages.
+     * @param after     The id of the last todolist of the previous page, or null.
+     * @param limit     The maximum number of todolists of the page, or null.
+     * @return The request of the first page of that size, the order being part of the queries.
+     * @throws NotValidParameterException If the cursor or the limit are not valid.
+     */
+    public static PageRequest todoListsPageRequest(String operation, Long after, Integer limit)
+            throws NotValidParameterException {
+        if (after != null && after < 0) {
+            throw new NotValidParameterException("Error when " + operation + " todolists: after must not be "
+                    + "negative.");
+        }
+        if (limit != null && (limit < 1 || limit > TaskService.MAX_PAGE_SIZE)) {
+            throw new NotValidParameterException("Error when " + operation + " todolists: limit must be between 1 "
+                    + "and " + TaskService.MAX_PAGE_SIZE + ".");
+        }
+        return PageRequest.of(0, limit == null ? TaskService.DEFAULT_PAGE_SIZE : limit);
+    }
+
+    /**
+     * Validates the sort, the page number, the keyset cursor and the limit of a page of the tasks of a todolist.
+     *
+     * @param id    The id of the todolist.
+     * @param sort  The property to sort by, id, name or status, prefixed with - to sort descending, or null for id.
+     * @param page  The number of the page from 0, or null for the first page.
+     * @param after The id of the last task of the previous page when sorted by ascending id, or null.
+     * @param limit The maximum number of tasks of the page, or null for the default page size.
+     * @return The request of the page, sorted by the property and then by id so that pages are stable.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    public static PageRequest todoListTasksPageRequest(Long id, String sort, Integer page, Long after, Integer limit)
+            throws NotValidParameterException {
         if (id == null) {
             throw new NotValidParameterException("Error when obtaining all tasks associated to todolist: " +
                     "id of todolist is null.");
         }
-        Optional<TodoList> todoList = this.todoListDao.findById(id);
-        if (!todoList.isPresent()) {
-            throw new TodoListNotFoundException("Error when obtaining all tasks associated to todolist: " +
-                    "todolist with id " + id + "was not found");
+        String property = sort == null ? "id" : sort.startsWith("-") ? sort.substring(1) : sort;
+        if (!TASK_SORT_PROPERTIES.contains(property)) {
+            throw new NotValidParameterException("Error when obtaining all tasks associated to todolist: " +
+                    "sort must be one of " + TASK_SORT_PROPERTIES + ", prefixed with - to sort descending.");
         }
-        return todoList.get().getTasks();
+        if (page != null && page < 0) {
+            throw new NotValidParameterException("Error when obtaining all tasks associated to todolist: " +
+                    "page must not be negative.");
+        }
+        if (after != null && (after < 0 || !isKeysetSort(sort) || page != null)) {
+            throw new NotValidParameterException("Error when obtaining all tasks associated to todolist: " +
+                    "after must not be negative, and is only allowed without page when sorted by ascending id.");
+        }
+        if (limit != null && (limit < 1 || limit > TaskService.MAX_PAGE_SIZE)) {
+            throw new NotValidParameterException("Error when obtaining all tasks associated to todolist: " +
+                    "limit must be between 1 and " + TaskService.MAX_PAGE_SIZE + ".");
+        }
+        Sort.Direction direction = sort != null && sort.startsWith("-") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = "id".equals(property) ? Sort.by(direction, "id")
+                : Sort.by(direction, property).and(Sort.by(direction, "id"));
+        return PageRequest.of(page == null ? 0 : page,
+                limit == null ? TaskService.DEFAULT_PAGE_SIZE : limit, order);
     }
 
     /**
-     * Creates a todolist.
+     * Creates a todolist. The tasks are resolved with one IN-list query per chunk of ids, and the rows of the join
+     * table are inserted with JDBC batching.
      *
      * @param requestTodoListDto The todolist to create.
      * @return The new todolist.
      * @throws NotValidParameterException        If the parameters are not valid.
+     * @throws TaskNotFoundException             If some of the tasks are not found, all of them are reported.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
     public TodoList createTodoList(RequestTodoListDto requestTodoListDto)
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         List<Task> tasks = null;
         if (requestTodoListDto == null) {
             throw new NotValidParameterException("Error when creating todolist: todolist object is null.");
@@ -106,26 +311,137 @@ public class TodoListService {
             throw new NotValidParameterException("Error when creating todolist: the name of the todolist " +
                     "is null or empty.");
         }
-        Optional<TodoList> optionalTodoList = this.todoListDao.findByName(requestTodoListDto.getName());
-        if (optionalTodoList.isPresent()) {
-            throw new TodoListNameAlreadyTakenException("Error when creating a todolist: the name of todolist "
-                    + requestTodoListDto.getName() + " already exists.");
+        if (requestTodoListDto.getTasks() != null) {
+            if (requestTodoListDto.getTasks().contains(null)) {
+                throw new NotValidParameterException("Error when creating todolist: the id of a task is null.");
+            }
+            tasks = findTasks(new ArrayList<>(new LinkedHashSet<>(requestTodoListDto.getTasks())));
         }
+        TodoList todoList = new TodoList(requestTodoListDto.getName(), tasks);
+        // the uniqueness of the name is checked by the database.
+        try {
+            TodoList createdTodoList = this.todoListDao.saveAndFlush(todoList);
+            this.changeLog.changed(ChangeType.TODOLIST, createdTodoList.getId());
+            return createdTodoList;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, TodoList.NAME_UNIQUE_CONSTRAINT)) {
+                throw new TodoListNameAlreadyTakenException("Error when creating a todolist: the name of todolist "
+                        + requestTodoListDto.getName() + " already exists.", e);
+            }
+            throw e;
+        }
+    }
 
-        if (requestTodoListDto.getTasks() != null) {
-            tasks = requestTodoListDto.getTasks()
-                    .stream()
-                    .map(idTask -> this.taskDao.findById(idTask))
-                    .map(optionalTask -> optionalTask.isPresent() ? optionalTask.get() : null)
-                    .filter(task -> task != null)
+    /**
+     * Adds tasks to a todolist, inserting only the rows of the tasks not yet in the todolist with one INSERT ... SELECT
+     * per chunk of ids, without loading the tasks of the todolist. The version of the todolist is bumped first, which
+     * also serializes the concurrent changes of its tasks.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to add, the tasks already in the todolist are skipped, though they are
+     *                notified again to the subscribers of the todolist.
+     * @throws NotValidParameterException If the parameters are not valid.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     * @throws TaskNotFoundException      If some of the tasks are not found, all of them are reported and none is
+     *                                    added.
+     */
+    @Transactional(rollbackFor = TaskNotFoundException.class)
+    public void addTodoListTasks(Long id, List<Long> taskIds)
+            throws NotValidParameterException, TodoListNotFoundException, TaskNotFoundException {
+        List<Long> ids = checkTodoListTasksParameters("adding tasks to", id, taskIds);
+        incrementTodoListVersion("adding tasks to", id);
+        int added = 0;
+        for (int from = 0; from < ids.size(); from += TASK_IDS_CHUNK_SIZE) {
+            added += this.todoListDao.insertTasks(id, ids.subList(from, Math.min(from + TASK_IDS_CHUNK_SIZE,
+                    ids.size())));
+        }
+        // only look for the missing tasks when some of them were not added, they may just be in the todolist already.
+        if (added < ids.size()) {
+            Set<Long> foundIds = new HashSet<>(ids.size() * 4 / 3 + 1);
+            for (int from = 0; from < ids.size(); from += TASK_IDS_CHUNK_SIZE) {
+                foundIds.addAll(this.taskDao.findIdsByIdIn(ids.subList(from, Math.min(from + TASK_IDS_CHUNK_SIZE,
+                        ids.size()))));
+            }
+            List<Long> missingIds = ids.stream()
+                    .filter(taskId -> !foundIds.contains(taskId))
                     .collect(Collectors.toList());
+            if (!missingIds.isEmpty()) {
+                throw new TaskNotFoundException("Error when adding tasks to todolist: the tasks with ids "
+                        + reportedIds(missingIds) + " were not found.");
+            }
         }
-        TodoList todoList = new TodoList(requestTodoListDto.getName(), tasks);
-        return this.todoListDao.save(todoList);
+        if (added > 0) {
+            this.changeLog.changed(ChangeType.TODOLIST, id);
+        }
+        publishTaskIds(id, TaskEventType.ADDED, ids);
+    }
+
+    /**
+     * Removes tasks from a todolist, deleting only their rows with one DELETE per chunk of ids, without loading the
+     * tasks of the todolist. The version of the todolist is bumped first, which also serializes the concurrent changes
+     * of its tasks.
+     *
+     * @param id      The id of the todolist.
+     * @param taskIds The ids of the tasks to remove, the tasks not in the todolist are skipped.
+     * @throws NotValidParameterException If the parameters are not valid.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    public void removeTodoListTasks(Long id, List<Long> taskIds)
+            throws NotValidParameterException, TodoListNotFoundException {
+        List<Long> ids = checkTodoListTasksParameters("removing tasks from", id, taskIds);
+        incrementTodoListVersion("removing tasks from", id);
+        int removed = 0;
+        for (int from = 0; from < ids.size(); from += TASK_IDS_CHUNK_SIZE) {
+            removed += this.todoListDao.deleteTasks(id, ids.subList(from, Math.min(from + TASK_IDS_CHUNK_SIZE,
+                    ids.size())));
+        }
+        if (removed > 0) {
+            this.changeLog.changed(ChangeType.TODOLIST, id);
+        }
+        publishTaskIds(id, TaskEventType.REMOVED, ids);
     }
 
     /**
-     * Deletes a todolist.
+     * Counts the tasks of each status in a todolist with a single GROUP BY query.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status, 0 for the statuses without tasks.
+     * @throws NotValidParameterException If the parameter is not valid.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Transactional(readOnly = true)
+    public EnumMap<Status, Long> getTodoListStats(Long id)
+            throws NotValidParameterException, TodoListNotFoundException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when counting the tasks of a todolist: id is null.");
+        }
+        List<TaskCountDto> taskCounts = this.todoListDao.findStatusCountsById(id);
+        checkTodoListExists(id, taskCounts);
+        return TaskCounts.byStatus(taskCounts);
+    }
+
+    /**
+     * Counts the tasks of each status assigned to each user in a todolist with a single GROUP BY query.
+     *
+     * @param id The id of the todolist.
+     * @return The number of tasks of each status for each user with tasks, the tasks not assigned have no user.
+     * @throws NotValidParameterException If the parameter is not valid.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<ResponseUserTaskStatsDto> getTodoListStatsByUser(Long id)
+            throws NotValidParameterException, TodoListNotFoundException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when counting the tasks of a todolist: id is null.");
+        }
+        List<TaskCountDto> taskCounts = this.todoListDao.findUserStatusCountsById(id);
+        checkTodoListExists(id, taskCounts);
+        return TaskCounts.byUserAndStatus(taskCounts);
+    }
+
+    /**
+     * Deletes a todolist, with its tasks. The tasks are removed first from the other todolists showing them, whose
+     * versions are bumped.
      *
      * @param id The id of the todolist to delete.
      * @throws NotValidParameterException If the parameter is not valid.
@@ -141,7 +457,136 @@ public class TodoListService {
             throw new TodoListNotFoundException("Error when deleting todolist: todolist with id "
                     + id + "was not found");
         }
+        // the tasks are deleted in cascade.
+        List<Long> taskIds = todoList.get().getTasks() == null ? Collections.emptyList()
+                : todoList.get().getTasks().stream().map(Task::getId).collect(Collectors.toList());
+        Set<Long> otherIds = new LinkedHashSet<>();
+        for (int from = 0; from < taskIds.size(); from += TASK_IDS_CHUNK_SIZE) {
+            otherIds.addAll(this.todoListDao.findIdsByTaskIdIn(taskIds.subList(from,
+                    Math.min(from + TASK_IDS_CHUNK_SIZE, taskIds.size()))));
+        }
+        otherIds.remove(id);
+        if (!otherIds.isEmpty()) {
+            this.todoListDao.incrementVersionsByIdIn(otherIds);
+            for (Long otherId : otherIds) {
+                for (int from = 0; from < taskIds.size(); from += TASK_IDS_CHUNK_SIZE) {
+                    this.todoListDao.deleteTasks(otherId, taskIds.subList(from,
+                            Math.min(from + TASK_IDS_CHUNK_SIZE, taskIds.size())));
+                }
+                publishTaskIds(otherId, TaskEventType.REMOVED, taskIds);
+            }
+            this.changeLog.changed(ChangeType.TODOLIST, otherIds);
+        }
         this.todoListDao.deleteById(id);
+        this.changeLog.deleted(ChangeType.TODOLIST, id);
+        this.changeLog.deleted(ChangeType.TASK, taskIds);
+        publishTaskIds(TaskEventRegistry.ALL_TASKS, TaskEventType.DELETED, taskIds);
+        this.taskEventRegistry.closeAfterCommit(id, new ResponseTaskEventDto(TaskEventType.TODOLIST_DELETED, null,
+                null));
+    }
+
+    //***************************************************************
+    // Private methods.
+    //***************************************************************
+
+    /**
+     * Publishes the ids of the tasks added to or removed from a todolist, or deleted, to a feed once committed.
+     */
+    private void publishTaskIds(long feed, TaskEventType type, List<Long> taskIds) {
+        if (!this.taskEventRegistry.hasSubscribers(feed)) {
+            return;
+        }
+        List<ResponseTaskEventDto> events = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            events.add(new ResponseTaskEventDto(type, taskId, null));
+        }
+        this.taskEventRegistry.publishAfterCommit(Collections.singletonList(feed), events);
+    }
+
+    /**
+     * Finds the tasks with the ids given, querying them by chunks of {@link #TASK_IDS_CHUNK_SIZE} ids.
+     *
+     * @param ids The ids of the tasks, without duplicates.
+     * @return The tasks in the order of the ids.
+     * @throws TaskNotFoundException If some of the tasks are not found.
+     */
+    private List<Task> findTasks(List<Long> ids) throws TaskNotFoundException {
+        Map<Long, Task> tasksById = new HashMap<>(ids.size() * 4 / 3 + 1);
+        for (int from = 0; from < ids.size(); from += TASK_IDS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + TASK_IDS_CHUNK_SIZE, ids.size()));
+            this.taskDao.findAllById(chunk).forEach(task -> tasksById.put(task.getId(), task));
+        }
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !tasksById.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new TaskNotFoundException("Error when creating todolist: the tasks with ids "
+                    + reportedIds(missingIds) + " were not found.");
+        }
+        return ids.stream().map(tasksById::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks the parameters of a change of the tasks of a todolist.
+     *
+     * @param operation The operation, for the error messages.
+     * @param id        The id of the todolist.
+     * @param taskIds   The ids of the tasks.
+     * @return The ids of the tasks without duplicates.
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    private List<Long> checkTodoListTasksParameters(String operation, Long id, List<Long> taskIds)
+            throws NotValidParameterException {
+        if (id == null) {
+            throw new NotValidParameterException("Error when " + operation + " todolist: id is null.");
+        }
+        if (taskIds == null || taskIds.isEmpty()) {
+            throw new NotValidParameterException("Error when " + operation + " todolist: no task ids.");
+        }
+        if (taskIds.contains(null)) {
+            throw new NotValidParameterException("Error when " + operation + " todolist: the id of a task is null.");
+        }
+        return new ArrayList<>(new LinkedHashSet<>(taskIds));
+    }
+
+    /**
+     * Bumps the version of a todolist before changing its tasks.
+     *
+     * @param operation The operation, for the error messages.
+     * @param id        The id of the todolist.
+     * @throws TodoListNotFoundException If the todolist is not found.
+     */
+    private void incrementTodoListVersion(String operation, long id) throws TodoListNotFoundException {
+        if (this.todoListDao.incrementVersionById(id) == 0) {
+            throw new TodoListNotFoundException("Error when " + operation + " todolist: todolist with id "
+                    + id + " was not found");
+        }
+    }
+
+    /**
+     * Lists the ids of an error, up to {@link #MISSING_IDS_REPORTED} of them.
+     *
+     * @param ids The ids.
+     * @return The ids reported.
+     */
+    private String reportedIds(List<Long> ids) {
+        return ids.size() > MISSING_IDS_REPORTED
+                ? ids.subList(0, MISSING_IDS_REPORTED) + " and " + (ids.size() - MISSING_IDS_REPORTED) + " more"
+                : ids.toString();
+    }
+
+    /**
+     * Checks that a todolist exists when counting its tasks gave no rows, which is also the case of an empty one.
+     *
+     * @param id         The id of the todolist.
+     * @param taskCounts The rows counted.
+     * @throws TodoListNotFoundException If the todolist is not found.
+     */
+    private void checkTodoListExists(long id, List<TaskCountDto> taskCounts) throws TodoListNotFoundException {
+        if (taskCounts.isEmpty() && !this.todoListDao.existsById(id)) {
+            throw new TodoListNotFoundException("Error when counting the tasks of a todolist: todolist with id "
+                    + id + " was not found");
+        }
     }
 
 }
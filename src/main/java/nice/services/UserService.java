@@ -1,14 +1,21 @@
 package nice.services;
 
+import nice.config.CacheConfig;
+import nice.constants.ChangeType;
+import nice.daos.TaskDao;
+import nice.daos.TodoListDao;
 import nice.daos.UserDao;
 import nice.exceptions.NotValidParameterException;
 import nice.exceptions.UserNameAlreadyTakenException;
 import nice.exceptions.UserNotFoundException;
 import nice.entities.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,7 +24,7 @@ import java.util.Optional;
  * @author danielctrenado@gmail.com
  */
 @Service
-@Transactional
+@Transactional(rollbackFor = UserNameAlreadyTakenException.class)
 public class UserService {
 
     //***************************************************************
@@ -27,6 +34,15 @@ public class UserService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private TodoListDao todoListDao;
+
+    @Autowired
+    private TaskDao taskDao;
+
+    @Autowired
+    private ChangeLog changeLog;
+
     //***************************************************************
     // Public methods.
     //***************************************************************
@@ -48,17 +64,24 @@ public class UserService {
      * @throws NotValidParameterException when the parameter is null or empty.
      * @throws UserNameAlreadyTakenException When userName already exists.
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_IDS_CACHE, key = "#p0")
     public User createUser(String userName)
             throws NotValidParameterException, UserNameAlreadyTakenException {
         if (userName == null || userName.trim().isEmpty()) {
             throw new NotValidParameterException("Error when creating user: userName is null or empty.");
         }
-        Optional<User> optionalUser = this.userDao.findByUserName(userName);
-        if (optionalUser.isPresent()) {
-            throw new UserNameAlreadyTakenException("Error when creating user: userName " + userName + " already taken.");
-        }
         User user = new User(userName);
-        return userDao.save(user);
+        // the uniqueness of the userName is checked by the database.
+        try {
+            User createdUser = userDao.saveAndFlush(user);
+            this.changeLog.changed(ChangeType.USER, createdUser.getId());
+            return createdUser;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, User.USER_NAME_UNIQUE_CONSTRAINT)) {
+                throw new UserNameAlreadyTakenException("Error when creating user: userName " + userName + " already taken.", e);
+            }
+            throw e;
+        }
     }
 
     /**
@@ -70,6 +93,7 @@ public class UserService {
      * @throws NotValidParameterException When the parameter is null or empty.
      * @throws UserNotFoundException when user was not found.
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_IDS_CACHE, allEntries = true)
     public User updateUser(Long id, String userName)
             throws NotValidParameterException, UserNotFoundException, UserNameAlreadyTakenException {
 
@@ -81,23 +105,33 @@ public class UserService {
             throw new UserNotFoundException("Error when updating user: The user with id " + id + " was not found.");
         }
 
-        Optional<User> optionalUserName = this.userDao.findByUserName(userName);
-        if (optionalUserName.isPresent() && optionalUserName.get().getId() != id) {
-            throw new UserNameAlreadyTakenException("Error when updating user: userName " + userName + " already taken.");
-        }
-
         User user = optionalUser.get();
         user.setUserName(userName);
-        return userDao.save(user);
+        // the uniqueness of the userName is checked by the database.
+        try {
+            User updatedUser = userDao.saveAndFlush(user);
+            // the todolists showing a task of the user have changed too.
+            todoListDao.incrementVersionsByIdIn(todoListDao.findIdsByUserId(updatedUser.getId()));
+            // so do the tasks of the user, which show its userName.
+            this.changeLog.changed(ChangeType.USER, updatedUser.getId());
+            this.changeLog.changed(ChangeType.TASK, taskDao.findIdsByUserId(updatedUser.getId()));
+            return updatedUser;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, User.USER_NAME_UNIQUE_CONSTRAINT)) {
+                throw new UserNameAlreadyTakenException("Error when updating user: userName " + userName + " already taken.", e);
+            }
+            throw e;
+        }
     }
 
     /**
-     * Deletes a user.
+     * Deletes a user. Its tasks are unassigned first, which changes the todolists showing them too.
      *
      * @param id The id of the user to delete.
      * @throws NotValidParameterException When the parameter is null.
      * @throws UserNotFoundException When user was not found.
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_IDS_CACHE, allEntries = true)
     public void deleteUser(Long id)
             throws NotValidParameterException, UserNotFoundException {
         if (id == null) {
@@ -107,7 +141,14 @@ public class UserService {
         if (!user.isPresent()) {
             throw new UserNotFoundException("Error when updating user: The user with id " + id + "was not found");
         }
+        List<Long> taskIds = this.taskDao.findIdsByUserId(id);
+        if (!taskIds.isEmpty()) {
+            this.todoListDao.incrementVersionsByIdIn(this.todoListDao.findIdsByUserId(id));
+            this.taskDao.findAllById(taskIds).forEach(task -> task.setUser(null));
+            this.changeLog.changed(ChangeType.TASK, taskIds);
+        }
         this.userDao.delete(user.get());
+        this.changeLog.deleted(ChangeType.USER, id);
     }
 
 }
\ No newline at end of file
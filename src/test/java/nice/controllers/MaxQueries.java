@@ -0,0 +1,23 @@
+package nice.controllers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a test may execute, checked by {@link QueryCountRule}.
+ *
+ * @author danielctrenado@gmail.com
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MaxQueries {
+
+    /**
+     * The maximum number of statements, a JDBC batch counts as one.
+     *
+     * @return The maximum number of statements.
+     */
+    long value();
+}
@@ -0,0 +1,36 @@
+package nice.controllers;
+
+import nice.config.QueryCountListener;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rule failing the tests annotated with {@link MaxQueries} that execute more SQL statements than allowed.
+ * The statements are counted on every thread, since the requests are served by the threads of the server, so the
+ * bound holds for the whole test and the second-level cache can only lower the count.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class QueryCountRule implements TestRule {
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        MaxQueries maxQueries = description.getAnnotation(MaxQueries.class);
+        if (maxQueries == null) {
+            return base;
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                long before = QueryCountListener.total();
+                base.evaluate();
+                long queries = QueryCountListener.total() - before;
+                assertTrue(description.getMethodName() + " executed " + queries + " SQL statements, at most "
+                        + maxQueries.value() + " expected.", queries <= maxQueries.value());
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package nice.controllers;
+
+import nice.Application;
+import nice.constants.Status;
+import nice.dto.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@AutoConfigureObservability
+@ActiveProfiles("reactive")
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void getTasks() {
+        List<ResponseTaskDto> tasks = get("/tasks")
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTaskDto.class).returnResult().getResponseBody();
+        assertNotNull(tasks);
+        assertEquals(3, tasks.size());
+        assertEquals("task1", tasks.get(0).getName());
+        assertEquals(Status.NOT_STARTED, tasks.get(0).getStatus());
+        assertEquals("niceUser1", tasks.get(0).getResponseUserDto().getUserName());
+
+        List<ResponseTaskDto> page = get("/tasks?limit=2")
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTaskDto.class).returnResult().getResponseBody();
+        assertEquals(tasks.subList(0, 2), page);
+
+        List<ResponseTaskDto> nextPage = get("/tasks?limit=2&after=" + page.get(1).getId())
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTaskDto.class).returnResult().getResponseBody();
+        assertEquals(tasks.subList(2, 3), nextPage);
+
+        get("/tasks?limit=0").expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void getTasksAsNdjsonWithFields() {
+        List<Map> tasks = this.webTestClient.get().uri("/api/v1/tasks?status=COMPLETE&fields=status")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Map.class).getResponseBody().collectList().block();
+        assertNotNull(tasks);
+        assertEquals(1, tasks.size());
+        assertEquals(new HashSet<>(Arrays.asList("id", "status")), tasks.get(0).keySet());
+        assertEquals("COMPLETE", tasks.get(0).get("status"));
+    }
+
+    @Test
+    public void getTodoLists() {
+        List<ResponseTodoListSummaryDto> todoLists = get("/todolists")
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTodoListSummaryDto.class).returnResult().getResponseBody();
+        assertNotNull(todoLists);
+        ResponseTodoListSummaryDto todoList1 = todoLists.get(0);
+        assertEquals("todolist1", todoList1.getName());
+        assertEquals(2, todoList1.getTaskCount());
+        assertEquals(Long.valueOf(1), todoList1.getCounts().get(Status.NOT_STARTED));
+        assertEquals(Long.valueOf(0), todoList1.getCounts().get(Status.IN_PROGRESS));
+        assertEquals(Long.valueOf(1), todoList1.getCounts().get(Status.COMPLETE));
+
+        List<ResponseTodoListSummaryDto> nextPage = get("/todolists?limit=1&after=" + todoList1.getId())
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTodoListSummaryDto.class).returnResult().getResponseBody();
+        assertEquals(1, nextPage.size());
+        assertEquals("todolist2", nextPage.get(0).getName());
+
+        get("/todolists?view=full").expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void getTodoListTasks() {
+        long id = get("/todolists?limit=1")
+                .expectBodyList(ResponseTodoListSummaryDto.class).returnResult().getResponseBody().get(0).getId();
+
+        EntityExchangeResult<List<ResponseTaskDto>> result = get("/todolists/" + id + "/tasks?sort=-name")
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(TodoListController.TOTAL_COUNT_HEADER, "2")
+                .expectBodyList(ResponseTaskDto.class).returnResult();
+        List<String> names = result.getResponseBody().stream()
+                .map(ResponseTaskDto::getName)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("task2", "task1"), names);
+        String eTag = result.getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        this.webTestClient.get().uri("/api/v1/todolists/" + id + "/tasks")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        get("/todolists/" + id + "/tasks?status=NOT_STARTED&fields=name")
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(TodoListController.TOTAL_COUNT_HEADER, "1")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("task1")
+                .jsonPath("$[0].status").doesNotExist();
+
+        get("/todolists/" + id + "/tasks?sort=owner").expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void getTodoListTasksNotFound() {
+        get("/todolists/999999/tasks")
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.details").isEqualTo("uri=/api/v1/todolists/999999/tasks");
+    }
+
+    /**
+     * Test scenario of the writes with the profile reactive, served by the blocking services off the event loops:
+     * a user, a task assigned to it and a todolist are created, read, updated and deleted.
+     */
+    @Test
+    public void writeAndReadTodoList() {
+        ResponseUserDto user = send(HttpMethod.POST, "/users", new RequestUserDto("reactiveUser"))
+                .expectStatus().isOk()
+                .expectBody(ResponseUserDto.class).returnResult().getResponseBody();
+        ResponseTaskDto task = send(HttpMethod.POST, "/tasks",
+                new RequestTaskDto("reactiveTask", "desc", Status.NOT_STARTED, "reactiveUser"))
+                .expectStatus().isOk()
+                .expectBody(ResponseTaskDto.class).returnResult().getResponseBody();
+        assertEquals("reactiveUser", task.getResponseUserDto().getUserName());
+        ResponseTodoListDto todoList = send(HttpMethod.POST, "/todolists",
+                new RequestTodoListDto("reactiveTodoList", Collections.singletonList(task.getId())))
+                .expectStatus().isOk()
+                .expectBody(ResponseTodoListDto.class).returnResult().getResponseBody();
+        assertEquals(1, todoList.getResponseTaskDtos().size());
+
+        EntityExchangeResult<ResponseTodoListDto> result = get("/todolists/" + todoList.getId())
+                .expectStatus().isOk()
+                .expectBody(ResponseTodoListDto.class).returnResult();
+        assertEquals("reactiveTask", result.getResponseBody().getResponseTaskDtos().get(0).getName());
+        String eTag = result.getResponseHeaders().getETag();
+        this.webTestClient.get().uri("/api/v1/todolists/" + todoList.getId())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        send(HttpMethod.PUT, "/tasks/" + task.getId(),
+                new RequestTaskDto("reactiveTask", "desc", Status.COMPLETE, "reactiveUser"))
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("COMPLETE");
+        this.webTestClient.get().uri("/api/v1/todolists/" + todoList.getId())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk();
+
+        send(HttpMethod.POST, "/users", new RequestUserDto("reactiveUser")).expectStatus().isNotFound();
+        send(HttpMethod.PUT, "/tasks/999999", new RequestTaskDto("reactiveTask"))
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.details").isEqualTo("uri=/api/v1/tasks/999999");
+
+        // deleting the todolist deletes its task, the data is left as it was.
+        send(HttpMethod.DELETE, "/todolists/" + todoList.getId(), null).expectStatus().isOk();
+        send(HttpMethod.DELETE, "/users/" + user.getId(), null).expectStatus().isOk();
+        get("/todolists/" + todoList.getId()).expectStatus().isNotFound();
+    }
+
+    private WebTestClient.ResponseSpec send(HttpMethod method, String uri, Object body) {
+        WebTestClient.RequestBodySpec request = this.webTestClient.method(method).uri("/api/v1" + uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON);
+        return body == null ? request.exchange() : request.bodyValue(body).exchange();
+    }
+
+    private WebTestClient.ResponseSpec get(String uri) {
+        return this.webTestClient.get().uri("/api/v1" + uri)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+}
@@ -0,0 +1,231 @@
+package nice.controllers;
+
+import nice.Application;
+import nice.config.QueryCountFilter;
+import nice.constants.Status;
+import nice.dto.*;
+import nice.services.SyncService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@AutoConfigureObservability
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "datasource.query-count.headers=true")
+public class SyncControllerIntegrationTest {
+
+    @Rule
+    public QueryCountRule queryCountRule = new QueryCountRule();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SyncService syncService;
+
+    private Object safetyLagMillis;
+
+    /**
+     * The changes are read as soon as committed, as the requests of a test are sequential.
+     */
+    @Before
+    public void setup() {
+        safetyLagMillis = ReflectionTestUtils.getField(syncService, "safetyLagMillis");
+        ReflectionTestUtils.setField(syncService, "safetyLagMillis", 0L);
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.setField(syncService, "safetyLagMillis", safetyLagMillis);
+    }
+
+    /**
+     * Test scenario to sync the rows created, updated and deleted after a version, one page at a time.
+     */
+    @Test
+    public void getChanges() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        long since = getChanges("/sync").getBody().getVersion();
+
+        ResponseUserDto user = restTemplate.exchange(createURLWithPort("/users"), HttpMethod.POST,
+                new HttpEntity<>(new RequestUserDto("syncUser"), headers), ResponseUserDto.class).getBody();
+        RequestTaskDto requestTaskDto = new RequestTaskDto("syncTask", "desc", Status.NOT_STARTED, "syncUser");
+        ResponseTaskDto task = restTemplate.exchange(createURLWithPort("/tasks"), HttpMethod.POST,
+                new HttpEntity<>(requestTaskDto, headers), ResponseTaskDto.class).getBody();
+        ResponseTodoListDto todoList = restTemplate.exchange(createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("syncTodoList", Collections.singletonList(task.getId())),
+                        headers), ResponseTodoListDto.class).getBody();
+        requestTaskDto.setStatus(Status.COMPLETE);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", task.getId());
+        restTemplate.exchange(createURLWithPort("/tasks/{id}"), HttpMethod.PUT,
+                new HttpEntity<>(requestTaskDto, headers), ResponseTaskDto.class, params);
+
+        // the task created then updated is synced once, in its current state.
+        ResponseEntity<ResponseSyncDto> response = getChanges("/sync?since=" + since);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ResponseSyncDto sync = response.getBody();
+        assertFalse(sync.isMore());
+        assertTrue(sync.getVersion() > since);
+        assertEquals(Collections.singletonList(user), sync.getUsers());
+        assertEquals(1, sync.getTasks().size());
+        assertEquals(Status.COMPLETE, sync.getTasks().get(0).getStatus());
+        assertEquals(Collections.singletonList(new ResponseSyncTodoListDto(todoList.getId(), "syncTodoList",
+                Collections.singletonList(task.getId()))), sync.getTodoLists());
+        assertTrue(sync.getDeletedTaskIds().isEmpty());
+        assertTrue(Integer.parseInt(response.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER)) <= 5);
+
+        // the same changes one at a time, the task twice.
+        List<Long> versions = new ArrayList<>();
+        ResponseSyncDto page = new ResponseSyncDto(since, true);
+        while (page.isMore()) {
+            page = getChanges("/sync?limit=1&since=" + page.getVersion()).getBody();
+            versions.add(page.getVersion());
+            assertEquals(1, page.getUsers().size() + page.getTasks().size() + page.getTodoLists().size());
+        }
+        assertEquals(4, versions.size());
+        assertEquals(sync.getVersion(), page.getVersion());
+
+        // deleting the todolist deletes its task, then the user can be deleted.
+        params.put("id", todoList.getId());
+        restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.DELETE,
+                new HttpEntity<>(null, headers), String.class, params);
+        params.put("id", user.getId());
+        restTemplate.exchange(createURLWithPort("/users/{id}"), HttpMethod.DELETE,
+                new HttpEntity<>(null, headers), String.class, params);
+
+        ResponseSyncDto tombstones = getChanges("/sync?since=" + sync.getVersion()).getBody();
+        assertEquals(Collections.singletonList(todoList.getId()), tombstones.getDeletedTodoListIds());
+        assertEquals(Collections.singletonList(task.getId()), tombstones.getDeletedTaskIds());
+        assertEquals(Collections.singletonList(user.getId()), tombstones.getDeletedUserIds());
+        assertTrue(tombstones.getTasks().isEmpty());
+        assertTrue(tombstones.getTodoLists().isEmpty());
+        assertTrue(tombstones.getUsers().isEmpty());
+        assertEquals(tombstones.getVersion(), getChanges("/sync").getBody().getVersion());
+    }
+
+    /**
+     * Test scenario to sync without changes, a single statement reads the empty page.
+     */
+    @Test
+    @MaxQueries(2)
+    public void getChangesUpToDate() {
+        long version = getChanges("/sync").getBody().getVersion();
+
+        ResponseSyncDto sync = getChanges("/sync?since=" + version).getBody();
+
+        assertEquals(version, sync.getVersion());
+        assertFalse(sync.isMore());
+        assertTrue(sync.getTasks().isEmpty());
+    }
+
+    /**
+     * Test scenario of a new client syncing from version 0, which obtains the rows created at startup too.
+     */
+    @Test
+    public void getChangesFromStart() {
+        List<String> userNames = new ArrayList<>();
+        List<String> taskNames = new ArrayList<>();
+        List<String> todoListNames = new ArrayList<>();
+        ResponseSyncDto page = new ResponseSyncDto(0, true);
+        while (page.isMore()) {
+            page = getChanges("/sync?limit=" + SyncService.MAX_PAGE_SIZE + "&since=" + page.getVersion()).getBody();
+            page.getUsers().forEach(user -> userNames.add(user.getUserName()));
+            page.getTasks().forEach(task -> taskNames.add(task.getName()));
+            page.getTodoLists().forEach(todoList -> todoListNames.add(todoList.getName()));
+        }
+
+        assertTrue(userNames.containsAll(Arrays.asList("niceUser1", "niceUser2", "niceUser3")));
+        assertTrue(taskNames.containsAll(Arrays.asList("task1", "task2", "task3")));
+        assertTrue(todoListNames.containsAll(Arrays.asList("todolist1", "todolist2")));
+        assertEquals(getChanges("/sync").getBody().getVersion(), page.getVersion());
+    }
+
+    /**
+     * Test scenario of a new client reading the last version, then all the todolists, then syncing the changes made
+     * after the version only.
+     */
+    @Test
+    public void getChangesAfterFullRead() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        long since = getChanges("/sync").getBody().getVersion();
+        ResponseTodoListSummaryDto[] todoLists = restTemplate.exchange(createURLWithPort("/todolists"),
+                HttpMethod.GET, new HttpEntity<>(null, headers), ResponseTodoListSummaryDto[].class).getBody();
+        assertTrue(Arrays.stream(todoLists).anyMatch(todoList -> "todolist1".equals(todoList.getName())));
+
+        ResponseUserDto user = restTemplate.exchange(createURLWithPort("/users"), HttpMethod.POST,
+                new HttpEntity<>(new RequestUserDto("syncAfterFullRead"), headers), ResponseUserDto.class).getBody();
+
+        ResponseSyncDto sync = getChanges("/sync?since=" + since).getBody();
+        assertEquals(Collections.singletonList(user), sync.getUsers());
+        assertTrue(sync.getTasks().isEmpty());
+        assertTrue(sync.getTodoLists().isEmpty());
+    }
+
+    /**
+     * Test scenario to sync right after a change, which is not read before the safety lag: a change with a lower
+     * version could still be committing.
+     */
+    @Test
+    public void getChangesWithinSafetyLag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        long since = getChanges("/sync").getBody().getVersion();
+        ResponseUserDto user = restTemplate.exchange(createURLWithPort("/users"), HttpMethod.POST,
+                new HttpEntity<>(new RequestUserDto("syncWithinLag"), headers), ResponseUserDto.class).getBody();
+
+        ReflectionTestUtils.setField(syncService, "safetyLagMillis", 60000L);
+        ResponseSyncDto sync = getChanges("/sync?since=" + since).getBody();
+        assertEquals(since, sync.getVersion());
+        assertTrue(sync.getUsers().isEmpty());
+        assertTrue(getChanges("/sync").getBody().getVersion() <= since);
+
+        ReflectionTestUtils.setField(syncService, "safetyLagMillis", 0L);
+        sync = getChanges("/sync?since=" + since).getBody();
+        assertEquals(Collections.singletonList(user), sync.getUsers());
+    }
+
+    @Test
+    @MaxQueries(0)
+    public void getChangesNotValid() {
+        assertEquals(HttpStatus.BAD_REQUEST, getChanges("/sync?since=-1").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, getChanges("/sync?since=0&limit=0").getStatusCode());
+    }
+
+    private ResponseEntity<ResponseSyncDto> getChanges(String uri) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange(createURLWithPort(uri), HttpMethod.GET, new HttpEntity<>(null, headers),
+                ResponseSyncDto.class);
+    }
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + "/api/v1" + uri;
+    }
+}
@@ -1,58 +1,124 @@
 package nice.controllers;
 
 import nice.Application;
+import nice.config.QueryCountFilter;
 import nice.constants.Status;
+import nice.constants.TaskEventType;
 import nice.dto.*;
+import nice.entities.TodoList;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
-import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import jakarta.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "datasource.query-count.headers=true")
 public class TodoListControllerIntegrationTest {
 
+    @Rule
+    public QueryCountRule queryCountRule = new QueryCountRule();
+
     @LocalServerPort
     private int port;
 
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Test scenario to obtain the summaries of the todolists, counted by a single aggregate query.
+     */
     @Test
+    @MaxQueries(1)
     public void getTodoLists() {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<RequestUserDto> entity = new HttpEntity<>(null, headers);
 
-        ResponseEntity<List> response = restTemplate.exchange(createURLWithPort("/todolists"),
-                HttpMethod.GET, entity, List.class);
-
-        List<ResponseTodoListDto> todoListDtos = response.getBody();
-        assertNotNull(todoListDtos);
-        assertTrue(!todoListDtos.isEmpty());
+        ResponseEntity<ResponseTodoListSummaryDto[]> response = restTemplate.exchange(createURLWithPort("/todolists"),
+                HttpMethod.GET, entity, ResponseTodoListSummaryDto[].class);
 
         assertEquals(response.getStatusCode(), HttpStatus.OK);
+        assertEquals("1", response.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER));
+        ResponseTodoListSummaryDto todoList = Arrays.stream(response.getBody())
+                .filter(dto -> "todolist1".equals(dto.getName()))
+                .findFirst().get();
+        assertEquals(2, todoList.getTaskCount());
+        assertEquals(Long.valueOf(1), todoList.getCounts().get(Status.NOT_STARTED));
+        assertEquals(Long.valueOf(0), todoList.getCounts().get(Status.IN_PROGRESS));
+        assertEquals(Long.valueOf(1), todoList.getCounts().get(Status.COMPLETE));
     }
 
+    /**
+     * Test scenario to obtain the todolists with their tasks, one page at a time.
+     */
     @Test
+    public void getTodoListsFullView() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestUserDto> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ResponseTodoListDto[]> firstPage = restTemplate.exchange(
+                createURLWithPort("/todolists?view=full&limit=1"), HttpMethod.GET, entity,
+                ResponseTodoListDto[].class);
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(1, firstPage.getBody().length);
+        assertNotNull(firstPage.getBody()[0].getResponseTaskDtos());
+        String cursor = firstPage.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER);
+        assertEquals(String.valueOf(firstPage.getBody()[0].getId()), cursor);
+
+        ResponseEntity<ResponseTodoListDto[]> secondPage = restTemplate.exchange(
+                createURLWithPort("/todolists?view=full&limit=1&after=" + cursor), HttpMethod.GET, entity,
+                ResponseTodoListDto[].class);
+
+        assertEquals(1, secondPage.getBody().length);
+        assertTrue(secondPage.getBody()[0].getId() > firstPage.getBody()[0].getId());
+
+        ResponseEntity<String> responseNotValid = restTemplate.exchange(createURLWithPort("/todolists?view=tasks"),
+                HttpMethod.GET, entity, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseNotValid.getStatusCode());
+    }
+
+    @Test
+    @MaxQueries(2)
     public void addTodoList() {
 
         String name = "todolistname";
         RequestTodoListDto requestTodoListDto = new RequestTodoListDto(name, null);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON_UTF8));
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
         HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(requestTodoListDto, headers);
 
         ResponseEntity<ResponseTodoListDto> response = restTemplate.exchange(createURLWithPort("/todolists"),
@@ -66,10 +132,224 @@ public class TodoListControllerIntegrationTest {
         assertEquals(response.getStatusCode(), HttpStatus.OK);
     }
 
+    /**
+     * Test scenario to add a todolist with many tasks, resolved and linked with a handful of statements.
+     */
+    @Test
+    public void addTodoListWithManyTasks() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+        List<RequestTaskDto> requestTaskDtos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requestTaskDtos.add(new RequestTaskDto("manyTasks" + i, "desc", Status.NOT_STARTED, null));
+        }
+        ResponseEntity<ResponseTaskDto[]> tasksResponse = restTemplate.exchange(createURLWithPort("/tasks/batch"),
+                HttpMethod.POST, new HttpEntity<>(requestTaskDtos, headers), ResponseTaskDto[].class);
+        List<Long> ids = Arrays.stream(tasksResponse.getBody()).map(ResponseTaskDto::getId)
+                .collect(Collectors.toList());
+
+        ResponseEntity<ResponseTodoListDto> response = restTemplate.exchange(createURLWithPort("/todolists"),
+                HttpMethod.POST, new HttpEntity<>(new RequestTodoListDto("todolistManyTasks", ids), headers),
+                ResponseTodoListDto.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ids.size(), response.getBody().getResponseTaskDtos().size());
+        assertEquals(ids.get(0).longValue(), response.getBody().getResponseTaskDtos().get(0).getId());
+        // the tasks query, the id and the insert of the todolist, and the join rows in batches of 50.
+        assertTrue(Long.parseLong(response.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER)) <= 7);
+    }
+
+    /**
+     * Test scenario to add a todolist with tasks not found, which are reported instead of ignored.
+     */
+    @Test
+    public void addTodoListWithTasksNotFound() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+        RequestTodoListDto requestTodoListDto = new RequestTodoListDto("todolistTasksNotFound",
+                Arrays.asList(1L, -1L, -2L));
+
+        ResponseEntity<String> response = restTemplate.exchange(createURLWithPort("/todolists"),
+                HttpMethod.POST, new HttpEntity<>(requestTodoListDto, headers), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(response.getBody().contains("[-1, -2]"));
+    }
+
+    /**
+     * Test scenario to add and remove tasks of a todolist, each change touches only the rows of its tasks.
+     */
     @Test
+    public void addAndRemoveTodoListTasks() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<RequestTaskDto> requestTaskDtos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requestTaskDtos.add(new RequestTaskDto("todoListTasks" + i, "desc", Status.NOT_STARTED, null));
+        }
+        ResponseEntity<ResponseTaskDto[]> tasksResponse = restTemplate.exchange(createURLWithPort("/tasks/batch"),
+                HttpMethod.POST, new HttpEntity<>(requestTaskDtos, headers), ResponseTaskDto[].class);
+        List<Long> ids = Arrays.stream(tasksResponse.getBody()).map(ResponseTaskDto::getId)
+                .collect(Collectors.toList());
+        ResponseEntity<ResponseTodoListDto> responseCreateTodoList = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("todoListTasks", ids.subList(0, 1)), headers),
+                ResponseTodoListDto.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateTodoList.getBody().getId());
+        params.put("taskId", ids.get(1));
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        // the version bump, a single insert and the change.
+        ResponseEntity<String> responseAdd = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks/{taskId}"),
+                HttpMethod.POST, entity, String.class, params);
+        assertEquals(HttpStatus.OK, responseAdd.getStatusCode());
+        assertEquals("3", responseAdd.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER));
+
+        // the tasks already in the todolist are skipped, and no task is added when one of them is not found.
+        ResponseEntity<String> responseAddNotFound = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks"),
+                HttpMethod.POST, new HttpEntity<>(Arrays.asList(ids.get(1), ids.get(2), -1L), headers), String.class,
+                params);
+        assertEquals(HttpStatus.NOT_FOUND, responseAddNotFound.getStatusCode());
+        assertTrue(responseAddNotFound.getBody().contains("[-1]"));
+        assertEquals(ids.subList(0, 2), getTaskIds(params));
+
+        ResponseEntity<String> responseAddAll = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks"),
+                HttpMethod.POST, new HttpEntity<>(ids, headers), String.class, params);
+        assertEquals(HttpStatus.OK, responseAddAll.getStatusCode());
+        assertEquals(ids, getTaskIds(params));
+
+        ResponseEntity<String> responseRemove = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks/{taskId}"), HttpMethod.DELETE, entity, String.class, params);
+        assertEquals(HttpStatus.OK, responseRemove.getStatusCode());
+        assertEquals("3", responseRemove.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER));
+        assertEquals(Arrays.asList(ids.get(0), ids.get(2)), getTaskIds(params));
+
+        params.put("ids", ids.get(0) + "," + ids.get(2));
+        ResponseEntity<String> responseRemoveAll = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?ids={ids}"), HttpMethod.DELETE, entity, String.class, params);
+        assertEquals(HttpStatus.OK, responseRemoveAll.getStatusCode());
+        assertTrue(getTaskIds(params).isEmpty());
+
+        params.put("id", -1);
+        ResponseEntity<String> responseNotFound = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks/{taskId}"), HttpMethod.POST, entity, String.class, params);
+        assertEquals(HttpStatus.NOT_FOUND, responseNotFound.getStatusCode());
+    }
+
+    /**
+     * Test scenario to obtain the tasks of a todolist by pages, sorted and filtered in the database.
+     */
+    /**
+     * Test scenario of the cached count of the tasks of a todolist, invalidated by adding and removing a task.
+     */
+    @Test
+    public void getTodoListTasksCountAfterChanges() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("countAfterChanges0", "desc", Status.NOT_STARTED, null),
+                new RequestTaskDto("countAfterChanges1", "desc", Status.NOT_STARTED, null));
+        List<Long> ids = taskIds(restTemplate.exchange(createURLWithPort("/tasks/batch"), HttpMethod.POST,
+                new HttpEntity<>(requestTaskDtos, headers), ResponseTaskDto[].class).getBody());
+        ResponseEntity<ResponseTodoListDto> responseCreateTodoList = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("countAfterChanges", ids.subList(0, 1)), headers),
+                ResponseTodoListDto.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateTodoList.getBody().getId());
+        params.put("taskId", ids.get(1));
+        assertEquals("1", getTodoListTasks(params).getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+
+        restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks/{taskId}"), HttpMethod.POST, entity,
+                String.class, params);
+
+        ResponseEntity<ResponseTaskDto[]> responseAfterAdd = getTodoListTasks(params);
+        assertEquals(2, responseAfterAdd.getBody().length);
+        assertEquals("2", responseAfterAdd.getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+
+        restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks/{taskId}"), HttpMethod.DELETE, entity,
+                String.class, params);
+
+        ResponseEntity<ResponseTaskDto[]> responseAfterRemove = getTodoListTasks(params);
+        assertEquals(1, responseAfterRemove.getBody().length);
+        assertEquals("1", responseAfterRemove.getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+    }
+
+    @Test
+    public void getTodoListTasksPages() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<RequestTaskDto> requestTaskDtos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requestTaskDtos.add(new RequestTaskDto("pagedTask" + (4 - i), "desc",
+                    i % 2 == 0 ? Status.NOT_STARTED : Status.COMPLETE, null));
+        }
+        ResponseEntity<ResponseTaskDto[]> tasksResponse = restTemplate.exchange(createURLWithPort("/tasks/batch"),
+                HttpMethod.POST, new HttpEntity<>(requestTaskDtos, headers), ResponseTaskDto[].class);
+        List<Long> ids = Arrays.stream(tasksResponse.getBody()).map(ResponseTaskDto::getId)
+                .collect(Collectors.toList());
+        ResponseEntity<ResponseTodoListDto> responseCreateTodoList = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("pagedTodoList", ids), headers), ResponseTodoListDto.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateTodoList.getBody().getId());
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ResponseTaskDto[]> firstPage = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?limit=2"), HttpMethod.GET, entity, ResponseTaskDto[].class,
+                params);
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(ids.subList(0, 2), taskIds(firstPage.getBody()));
+        assertEquals("5", firstPage.getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+        assertEquals("1", firstPage.getHeaders().getFirst(TodoListController.NEXT_PAGE_HEADER));
+        assertEquals(String.valueOf(ids.get(1)), firstPage.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+
+        // the count is now cached, only the version and the page are read.
+        params.put("after", ids.get(1));
+        ResponseEntity<ResponseTaskDto[]> secondPage = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?after={after}&limit=2"), HttpMethod.GET, entity,
+                ResponseTaskDto[].class, params);
+        assertEquals(ids.subList(2, 4), taskIds(secondPage.getBody()));
+        assertEquals("5", secondPage.getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+        assertEquals("2", secondPage.getHeaders().getFirst(QueryCountFilter.QUERY_COUNT_HEADER));
+
+        ResponseEntity<ResponseTaskDto[]> sortedPage = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?sort=name&page=1&limit=2"), HttpMethod.GET, entity,
+                ResponseTaskDto[].class, params);
+        assertEquals(Arrays.asList(ids.get(2), ids.get(1)), taskIds(sortedPage.getBody()));
+        assertEquals("2", sortedPage.getHeaders().getFirst(TodoListController.NEXT_PAGE_HEADER));
+        assertNull(sortedPage.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+
+        ResponseEntity<ResponseTaskDto[]> descendingPage = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?sort=-id&status=COMPLETE"), HttpMethod.GET, entity,
+                ResponseTaskDto[].class, params);
+        assertEquals(Arrays.asList(ids.get(3), ids.get(1)), taskIds(descendingPage.getBody()));
+        assertEquals("2", descendingPage.getHeaders().getFirst(TodoListController.TOTAL_COUNT_HEADER));
+        assertNull(descendingPage.getHeaders().getFirst(TodoListController.NEXT_PAGE_HEADER));
+
+        // only the selected columns are read, the page is still sorted by a column not selected.
+        ResponseEntity<ResponseTaskDto[]> sparsePage = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?sort=-name&fields=status&limit=2"), HttpMethod.GET, entity,
+                ResponseTaskDto[].class, params);
+        assertEquals(Arrays.asList(ids.get(0), ids.get(1)), taskIds(sparsePage.getBody()));
+        assertEquals(Status.NOT_STARTED, sparsePage.getBody()[0].getStatus());
+        assertNull(sparsePage.getBody()[0].getName());
+        assertNull(sparsePage.getBody()[0].getDescription());
+        assertEquals("1", sparsePage.getHeaders().getFirst(TodoListController.NEXT_PAGE_HEADER));
+
+        ResponseEntity<String> responseNotValid = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks?sort=name&after={after}"), HttpMethod.GET, entity,
+                String.class, params);
+        assertEquals(HttpStatus.BAD_REQUEST, responseNotValid.getStatusCode());
+    }
+
+    @Test
+    @MaxQueries(5)
     public void deleteTodoList() {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.setContentType(MediaType.APPLICATION_JSON);
 
         RequestTodoListDto requestTodoListDto = new RequestTodoListDto("taskToDelete", null);
         HttpEntity<RequestTodoListDto> entityCreateTodoList = new HttpEntity<>(requestTodoListDto, headers);
@@ -89,6 +369,307 @@ public class TodoListControllerIntegrationTest {
         assertEquals(responseDeleteTodoList.getStatusCode(), HttpStatus.OK);
     }
 
+    @Test
+    @MaxQueries(8)
+    public void getTodoListFromSecondLevelCache() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        RequestTodoListDto requestTodoListDto = new RequestTodoListDto("cachedTodoList", null);
+        ResponseEntity<ResponseTodoListDto> responseCreateTodoList = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST, new HttpEntity<>(requestTodoListDto, headers),
+                ResponseTodoListDto.class);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateTodoList.getBody().getId());
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.GET, entity,
+                ResponseTodoListDto.class, params);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+
+            ResponseEntity<ResponseTodoListDto> response = restTemplate.exchange(
+                    createURLWithPort("/todolists/{id}"), HttpMethod.GET, entity, ResponseTodoListDto.class, params);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("cachedTodoList", response.getBody().getName());
+            assertEquals(0, statistics.getEntityStatistics(TodoList.class.getName()).getFetchCount());
+            assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.DELETE, entity, String.class, params);
+
+        ResponseEntity<String> responseAfterDelete = restTemplate.exchange(createURLWithPort("/todolists/{id}"),
+                HttpMethod.GET, entity, String.class, params);
+
+        assertNotEquals(HttpStatus.OK, responseAfterDelete.getStatusCode());
+    }
+
+    @Test
+    @MaxQueries(16)
+    public void getTodoListNotModified() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ResponseTodoListSummaryDto[]> responseTodoLists = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.GET, entity, ResponseTodoListSummaryDto[].class);
+        ResponseTodoListSummaryDto todoList = Arrays.stream(responseTodoLists.getBody())
+                .filter(dto -> "todolist2".equals(dto.getName()))
+                .findFirst().get();
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", todoList.getId());
+        ResponseTaskDto task = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks?limit=1"),
+                HttpMethod.GET, entity, ResponseTaskDto[].class, params).getBody()[0];
+        ResponseEntity<ResponseTodoListDto> response = restTemplate.exchange(createURLWithPort("/todolists/{id}"),
+                HttpMethod.GET, entity, ResponseTodoListDto.class, params);
+        String eTag = response.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(eTag);
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setContentType(MediaType.APPLICATION_JSON);
+        conditionalHeaders.setIfNoneMatch(eTag);
+        HttpEntity<RequestTodoListDto> conditionalEntity = new HttpEntity<>(null, conditionalHeaders);
+
+        ResponseEntity<String> responseNotModified = restTemplate.exchange(createURLWithPort("/todolists/{id}"),
+                HttpMethod.GET, conditionalEntity, String.class, params);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseNotModified.getStatusCode());
+        assertNull(responseNotModified.getBody());
+
+        // updating a task of the todolist changes its version.
+        RequestTaskDto requestTaskDto = new RequestTaskDto(task.getName(), task.getDescription() + ".",
+                task.getStatus(), task.getResponseUserDto() == null ? null : task.getResponseUserDto().getUserName());
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("id", task.getId());
+        restTemplate.exchange(createURLWithPort("/tasks/{id}"), HttpMethod.PUT,
+                new HttpEntity<>(requestTaskDto, headers), ResponseTaskDto.class, taskParams);
+
+        ResponseEntity<ResponseTaskDto[]> responseModified = restTemplate.exchange(
+                createURLWithPort("/todolists/{id}/tasks"), HttpMethod.GET, conditionalEntity,
+                ResponseTaskDto[].class, params);
+        assertEquals(HttpStatus.OK, responseModified.getStatusCode());
+        assertNotEquals(eTag, responseModified.getHeaders().getETag());
+    }
+
+    /**
+     * Test scenario of the conditional gets of a todolist after deleting a user assigned to one of its tasks, and
+     * after deleting another todolist sharing a task, each answered with the todolist modified instead of 304.
+     */
+    @Test
+    public void getTodoListModifiedAfterDeletes() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<ResponseUserDto> responseCreateUser = restTemplate.exchange(createURLWithPort("/users"),
+                HttpMethod.POST, new HttpEntity<>(new RequestUserDto("modifiedAfterDeletes"), headers),
+                ResponseUserDto.class);
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("modifiedAfterDeletes0", "desc", Status.NOT_STARTED, "modifiedAfterDeletes"),
+                new RequestTaskDto("modifiedAfterDeletes1", "desc", Status.NOT_STARTED, null));
+        List<Long> ids = taskIds(restTemplate.exchange(createURLWithPort("/tasks/batch"), HttpMethod.POST,
+                new HttpEntity<>(requestTaskDtos, headers), ResponseTaskDto[].class).getBody());
+        ResponseEntity<ResponseTodoListDto> responseCreateTodoList = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("modifiedAfterDeletes", ids), headers),
+                ResponseTodoListDto.class);
+        ResponseEntity<ResponseTodoListDto> responseCreateOther = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("modifiedAfterDeletesOther", ids.subList(1, 2)), headers),
+                ResponseTodoListDto.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateTodoList.getBody().getId());
+        String eTag = restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.GET, entity,
+                ResponseTodoListDto.class, params).getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, getTodoListIfNoneMatch(params, eTag).getStatusCode());
+
+        // deleting the user unassigns its task, which changes the todolist.
+        Map<String, Object> userParams = new HashMap<>();
+        userParams.put("id", responseCreateUser.getBody().getId());
+        ResponseEntity<String> responseDeleteUser = restTemplate.exchange(createURLWithPort("/users/{id}"),
+                HttpMethod.DELETE, entity, String.class, userParams);
+        assertEquals(HttpStatus.OK, responseDeleteUser.getStatusCode());
+
+        ResponseEntity<ResponseTodoListDto> responseAfterUserDelete = getTodoListIfNoneMatch(params, eTag);
+        assertEquals(HttpStatus.OK, responseAfterUserDelete.getStatusCode());
+        String eTagAfterUserDelete = responseAfterUserDelete.getHeaders().getETag();
+        assertNotEquals(eTag, eTagAfterUserDelete);
+        assertEquals(HttpStatus.NOT_MODIFIED, getTodoListIfNoneMatch(params, eTagAfterUserDelete).getStatusCode());
+
+        // deleting the other todolist deletes the task shared, which changes the todolist.
+        Map<String, Object> otherParams = new HashMap<>();
+        otherParams.put("id", responseCreateOther.getBody().getId());
+        restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.DELETE, entity, String.class,
+                otherParams);
+
+        ResponseEntity<ResponseTodoListDto> responseAfterTodoListDelete = getTodoListIfNoneMatch(params,
+                eTagAfterUserDelete);
+        assertEquals(HttpStatus.OK, responseAfterTodoListDelete.getStatusCode());
+        assertNotEquals(eTagAfterUserDelete, responseAfterTodoListDelete.getHeaders().getETag());
+        assertEquals(ids.subList(0, 1), getTaskIds(params));
+    }
+
+    /**
+     * Test scenario to update a task, which evicts from the second-level cache only the todolists showing it.
+     */
+    @Test
+    public void updateTaskKeepsOtherTodoListsCached() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<ResponseTaskDto> responseCreateTask = restTemplate.exchange(createURLWithPort("/tasks"),
+                HttpMethod.POST, new HttpEntity<>(new RequestTaskDto("keepsOtherCached", "desc",
+                        Status.NOT_STARTED, null), headers), ResponseTaskDto.class);
+        restTemplate.exchange(createURLWithPort("/todolists"), HttpMethod.POST, new HttpEntity<>(
+                new RequestTodoListDto("keepsOtherCached",
+                        Arrays.asList(responseCreateTask.getBody().getId())), headers), ResponseTodoListDto.class);
+        ResponseEntity<ResponseTodoListDto> responseCreateOther = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.POST,
+                new HttpEntity<>(new RequestTodoListDto("keepsOtherCachedOther", null), headers),
+                ResponseTodoListDto.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateOther.getBody().getId());
+        restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.GET, entity,
+                ResponseTodoListDto.class, params);
+
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("id", responseCreateTask.getBody().getId());
+        restTemplate.exchange(createURLWithPort("/tasks/{id}"), HttpMethod.PUT, new HttpEntity<>(
+                new RequestTaskDto("keepsOtherCached", "desc.", Status.IN_PROGRESS, null), headers),
+                ResponseTaskDto.class, taskParams);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+
+            ResponseEntity<ResponseTodoListDto> response = restTemplate.exchange(
+                    createURLWithPort("/todolists/{id}"), HttpMethod.GET, entity, ResponseTodoListDto.class, params);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(0, statistics.getEntityStatistics(TodoList.class.getName()).getFetchCount());
+            assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @MaxQueries(7)
+    public void getTodoListStats() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ResponseTodoListSummaryDto[]> responseTodoLists = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.GET, entity, ResponseTodoListSummaryDto[].class);
+        ResponseTodoListSummaryDto todoList = Arrays.stream(responseTodoLists.getBody())
+                .filter(dto -> "todolist1".equals(dto.getName()))
+                .findFirst().get();
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", todoList.getId());
+        ResponseEntity<Map> response = restTemplate.exchange(createURLWithPort("/todolists/{id}/stats"),
+                HttpMethod.GET, entity, Map.class, params);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ((Number) response.getBody().get(Status.NOT_STARTED.name())).intValue());
+        assertEquals(0, ((Number) response.getBody().get(Status.IN_PROGRESS.name())).intValue());
+        assertEquals(1, ((Number) response.getBody().get(Status.COMPLETE.name())).intValue());
+
+        params.put("id", -1);
+        ResponseEntity<String> responseNotFound = restTemplate.exchange(createURLWithPort("/todolists/{id}/stats"),
+                HttpMethod.GET, entity, String.class, params);
+
+        assertEquals(HttpStatus.NOT_FOUND, responseNotFound.getStatusCode());
+    }
+
+    /**
+     * Test scenario to follow the changes of the tasks of a todolist as Server-Sent Events.
+     */
+    @Test
+    public void getTodoListEvents() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestTodoListDto> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ResponseTodoListSummaryDto[]> responseTodoLists = restTemplate.exchange(
+                createURLWithPort("/todolists"), HttpMethod.GET, entity, ResponseTodoListSummaryDto[].class);
+        ResponseTodoListSummaryDto todoList = Arrays.stream(responseTodoLists.getBody())
+                .filter(dto -> "todolist2".equals(dto.getName()))
+                .findFirst().get();
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", todoList.getId());
+        ResponseTaskDto task = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks?limit=1"),
+                HttpMethod.GET, entity, ResponseTaskDto[].class, params).getBody()[0];
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpResponse<Stream<String>> events = httpClient.send(HttpRequest.newBuilder()
+                        .uri(URI.create(createURLWithPort("/todolists/" + todoList.getId() + "/events")))
+                        .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertEquals(HttpStatus.OK.value(), events.statusCode());
+        CompletableFuture<List<String>> firstEvent = CompletableFuture.supplyAsync(() -> events.body()
+                .filter(line -> !line.isEmpty() && !line.startsWith(":"))
+                .limit(2)
+                .collect(Collectors.toList()));
+
+        RequestTaskDto requestTaskDto = new RequestTaskDto(task.getName(), task.getDescription() + "!",
+                task.getStatus(), task.getResponseUserDto() == null ? null : task.getResponseUserDto().getUserName());
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("id", task.getId());
+        restTemplate.exchange(createURLWithPort("/tasks/{id}"), HttpMethod.PUT,
+                new HttpEntity<>(requestTaskDto, headers), ResponseTaskDto.class, taskParams);
+
+        List<String> lines = firstEvent.get(10, TimeUnit.SECONDS);
+        assertEquals("event:" + TaskEventType.UPDATED.name(), lines.get(0));
+        assertTrue(lines.get(1).startsWith("data:"));
+        assertTrue(lines.get(1).contains("\"taskId\":" + task.getId()));
+        assertTrue(lines.get(1).contains(requestTaskDto.getDescription()));
+        events.body().close();
+
+        HttpResponse<Void> responseNotFound = httpClient.send(HttpRequest.newBuilder()
+                        .uri(URI.create(createURLWithPort("/todolists/-1/events")))
+                        .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(HttpStatus.NOT_FOUND.value(), responseNotFound.statusCode());
+    }
+
+    private List<Long> taskIds(ResponseTaskDto[] tasks) {
+        return Arrays.stream(tasks).map(ResponseTaskDto::getId).collect(Collectors.toList());
+    }
+
+    private ResponseEntity<ResponseTaskDto[]> getTodoListTasks(Map<String, Object> params) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks"), HttpMethod.GET,
+                new HttpEntity<>(null, headers), ResponseTaskDto[].class, params);
+    }
+
+    private List<Long> getTaskIds(Map<String, Object> params) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<ResponseTaskDto[]> response = restTemplate.exchange(createURLWithPort("/todolists/{id}/tasks"),
+                HttpMethod.GET, new HttpEntity<>(null, headers), ResponseTaskDto[].class, params);
+        return Arrays.stream(response.getBody()).map(ResponseTaskDto::getId).collect(Collectors.toList());
+    }
+
+    private ResponseEntity<ResponseTodoListDto> getTodoListIfNoneMatch(Map<String, Object> params, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfNoneMatch(eTag);
+        return restTemplate.exchange(createURLWithPort("/todolists/{id}"), HttpMethod.GET,
+                new HttpEntity<>(null, headers), ResponseTodoListDto.class, params);
+    }
 
     private String createURLWithPort(String uri) {
         return "http://localhost:" + port + "/api/v1" + uri;
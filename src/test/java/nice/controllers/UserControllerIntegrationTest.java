@@ -1,14 +1,19 @@
 package nice.controllers;
 
 import nice.Application;
+import nice.constants.Status;
+import nice.dto.RequestTaskDto;
 import nice.dto.RequestUserDto;
+import nice.dto.ResponseTaskDto;
 import nice.dto.ResponseUserDto;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
-import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -20,19 +25,28 @@ import java.util.Map;
 import static org.junit.Assert.*;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "datasource.query-count.headers=true")
 public class UserControllerIntegrationTest {
 
+    @Rule
+    public QueryCountRule queryCountRule = new QueryCountRule();
+
     @LocalServerPort
     private int port;
 
     @Autowired
     private TestRestTemplate restTemplate;
 
+    /**
+     * Test scenario to obtain all users with a single statement.
+     */
     @Test
+    @MaxQueries(1)
     public void getUsers() {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<RequestUserDto> entity = new HttpEntity<>(null, headers);
 
         ResponseEntity<List> response = restTemplate.exchange(createURLWithPort("/users"),
@@ -45,12 +59,13 @@ public class UserControllerIntegrationTest {
     }
 
     @Test
+    @MaxQueries(2)
     public void addUser() {
         String userName = "batman";
         RequestUserDto requestUserDto = new RequestUserDto(userName);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON_UTF8));
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
         HttpEntity<RequestUserDto> entity = new HttpEntity<>(requestUserDto, headers);
 
         ResponseEntity<ResponseUserDto> response = restTemplate.exchange(createURLWithPort("/users"),
@@ -63,12 +78,13 @@ public class UserControllerIntegrationTest {
     }
 
     @Test
+    @MaxQueries(5)
     public void updateUser() {
         String userName = "Hulk";
         RequestUserDto requestUserDto = new RequestUserDto(userName);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON_UTF8));
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
         HttpEntity<RequestUserDto> entity = new HttpEntity<>(requestUserDto, headers);
         Map<String, Object> params = new HashMap<>();
         params.put("id", 1);
@@ -84,9 +100,10 @@ public class UserControllerIntegrationTest {
     }
 
     @Test
+    @MaxQueries(5)
     public void deleteUser() {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.setContentType(MediaType.APPLICATION_JSON);
         RequestUserDto requestUserDto = new RequestUserDto("Venom");
         HttpEntity<RequestUserDto> entityCreateUser = new HttpEntity<>(requestUserDto, headers);
 
@@ -103,6 +120,35 @@ public class UserControllerIntegrationTest {
         assertEquals(responseDeleteUser.getStatusCode(), HttpStatus.OK);
     }
 
+    /**
+     * Test scenario to delete a user still assigned to a task, which is left unassigned.
+     */
+    @Test
+    @MaxQueries(12)
+    public void deleteUserAssignedToTask() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<ResponseUserDto> responseCreateUser = restTemplate.exchange(createURLWithPort("/users"),
+                HttpMethod.POST, new HttpEntity<>(new RequestUserDto("assignedUser"), headers), ResponseUserDto.class);
+        ResponseEntity<ResponseTaskDto> responseCreateTask = restTemplate.exchange(createURLWithPort("/tasks"),
+                HttpMethod.POST,
+                new HttpEntity<>(new RequestTaskDto("assignedUserTask", "desc", Status.NOT_STARTED, "assignedUser"),
+                        headers), ResponseTaskDto.class);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", responseCreateUser.getBody().getId());
+        ResponseEntity<String> responseDeleteUser = restTemplate.exchange(createURLWithPort("/users/{id}"),
+                HttpMethod.DELETE, new HttpEntity<>(null, headers), String.class, params);
+
+        assertEquals(HttpStatus.OK, responseDeleteUser.getStatusCode());
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("after", responseCreateTask.getBody().getId() - 1);
+        ResponseTaskDto[] tasks = restTemplate.exchange(createURLWithPort("/tasks?after={after}&limit=1"),
+                HttpMethod.GET, new HttpEntity<>(null, headers), ResponseTaskDto[].class, taskParams).getBody();
+        assertEquals(responseCreateTask.getBody().getId(), tasks[0].getId());
+        assertNull(tasks[0].getResponseUserDto());
+    }
+
     private String createURLWithPort(String uri) {
         return "http://localhost:" + port + "/api/v1" + uri;
     }
@@ -0,0 +1,101 @@
+package nice.entities;
+
+import nice.constants.Status;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the equality of Task.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskTest {
+
+    /**
+     * Tasks with the same id are equal whatever their other fields, with the same hash code.
+     */
+    @Test
+    public void equalsTest_sameId() {
+        //given
+        Task task = new Task(1, "task1", "desc", Status.NOT_STARTED, null);
+        Task renamedTask = new Task(1, "renamedTask1", "other desc", Status.COMPLETE, new User(1, "user1"));
+
+        //then
+        assertEquals(task, renamedTask);
+        assertEquals(renamedTask, task);
+        assertEquals(task.hashCode(), renamedTask.hashCode());
+    }
+
+    /**
+     * Tasks with different ids are not equal, even with the same name.
+     */
+    @Test
+    public void equalsTest_differentIds() {
+        //given
+        Task task1 = new Task(1, "task", "desc", Status.NOT_STARTED, null);
+        Task task2 = new Task(2, "task", "desc", Status.NOT_STARTED, null);
+
+        //then
+        assertNotEquals(task1, task2);
+    }
+
+    /**
+     * A task not persisted yet is only equal to itself.
+     */
+    @Test
+    public void equalsTest_notPersisted() {
+        //given
+        Task task = new Task("task", "desc", Status.NOT_STARTED, null);
+        Task sameNameTask = new Task("task", "desc", Status.NOT_STARTED, null);
+
+        //then
+        assertEquals(task, task);
+        assertNotEquals(task, sameNameTask);
+        assertNotEquals(task, new Task(1, "task", "desc", Status.NOT_STARTED, null));
+    }
+
+    /**
+     * A subclass of the task, as the proxies of Hibernate are, is equal to the task with the same id both ways.
+     */
+    @Test
+    public void equalsTest_subclass() {
+        //given
+        Task task = new Task(1, "task1", "desc", Status.NOT_STARTED, null);
+        Task proxy = new Task(1, null, null, null, null) {
+        };
+
+        //then
+        assertEquals(task, proxy);
+        assertEquals(proxy, task);
+    }
+
+    /**
+     * A task in the tasks of a todolist is still found once renamed or persisted.
+     */
+    @Test
+    public void hashCodeTest_changedTaskInSet() {
+        //given
+        Task task = new Task(1, "task1", "desc", Status.NOT_STARTED, null);
+        Task newTask = new Task("task2", "desc", Status.NOT_STARTED, null);
+        Set<Task> tasks = new LinkedHashSet<>(Arrays.asList(task, newTask));
+
+        //when
+        task.setName("renamedTask1");
+        newTask.setId(2);
+
+        //then
+        assertTrue(tasks.contains(task));
+        assertTrue(tasks.contains(new Task(2, "task2", "desc", Status.NOT_STARTED, null)));
+        assertTrue(tasks.remove(task));
+        assertFalse(tasks.contains(task));
+        assertEquals(1, tasks.size());
+    }
+}
@@ -0,0 +1,49 @@
+package nice.exceptions;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for DomainException.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class DomainExceptionTest {
+
+    /**
+     * By default the exceptions keep their message and cause but neither the stack trace nor suppressed exceptions.
+     */
+    @Test
+    public void stacklessTest() {
+        //given
+        IllegalStateException cause = new IllegalStateException("duplicate");
+
+        //when
+        TaskNameAlreadyTakenException exception = new TaskNameAlreadyTakenException("name already taken.", cause);
+        exception.addSuppressed(new IllegalStateException("suppressed"));
+
+        //then
+        assertEquals("name already taken.", exception.getMessage());
+        assertSame(cause, exception.getCause());
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+        assertTrue(cause.getStackTrace().length > 0);
+    }
+
+    /**
+     * The exceptions created with the stack traces enabled, as with -Dexceptions.stack-traces=true, capture them.
+     */
+    @Test
+    public void stackTracesTest() {
+        //when
+        DomainException exception = new DomainException("task not found.", null, true, true) {
+        };
+
+        //then
+        assertEquals("task not found.", exception.getMessage());
+        assertEquals(DomainExceptionTest.class.getName(), exception.getStackTrace()[0].getClassName());
+    }
+}
@@ -0,0 +1,202 @@
+package nice.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nice.constants.TaskEventType;
+import nice.dto.ResponseTaskEventDto;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for TaskEventRegistry.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskEventRegistryTest {
+
+    private MeterRegistry meterRegistry;
+
+    private TaskEventRegistry taskEventRegistry;
+
+    @Before
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskEventRegistry = new TaskEventRegistry(2, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        taskEventRegistry.closeAll();
+    }
+
+    /**
+     * The events published to a feed are sent in order to its subscribers only.
+     */
+    @Test
+    public void publishAfterCommitTest() throws InterruptedException {
+        //given
+        RecordingSink sink = new RecordingSink(2);
+        RecordingSink otherSink = new RecordingSink(1);
+        taskEventRegistry.subscribe(1L, sink);
+        taskEventRegistry.subscribe(2L, otherSink);
+        ResponseTaskEventDto added = new ResponseTaskEventDto(TaskEventType.ADDED, 1L, null);
+        ResponseTaskEventDto removed = new ResponseTaskEventDto(TaskEventType.REMOVED, 1L, null);
+
+        //when
+        taskEventRegistry.publishAfterCommit(Collections.singletonList(1L), Arrays.asList(added, removed));
+
+        //then
+        assertTrue(sink.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(added, removed), sink.events);
+        assertTrue(otherSink.events.isEmpty());
+        assertTrue(taskEventRegistry.hasSubscribers(1L));
+        assertFalse(taskEventRegistry.hasSubscribers(TaskEventRegistry.ALL_TASKS));
+    }
+
+    /**
+     * A subscriber whose buffer is full is dropped, the other subscribers still receive the events.
+     */
+    @Test
+    public void publishAfterCommitTest_slowSubscriber() throws InterruptedException {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slowSink = new RecordingSink(0) {
+            @Override
+            public void send(ResponseTaskEventDto event) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink sink = new RecordingSink(4);
+        taskEventRegistry.subscribe(1L, slowSink);
+        taskEventRegistry.subscribe(1L, sink);
+        List<Long> feeds = Collections.singletonList(1L);
+
+        //when
+        taskEventRegistry.publishAfterCommit(feeds, Collections.singletonList(event(1L)));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (long taskId = 2; taskId <= 4; taskId++) {
+            // one event at a time, so that only the buffer of the slow subscriber fills up.
+            sink.awaitEvents((int) taskId - 1);
+            taskEventRegistry.publishAfterCommit(feeds, Collections.singletonList(event(taskId)));
+        }
+
+        //then
+        assertTrue(slowSink.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(sink.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(event(1L), event(2L), event(3L), event(4L)), sink.events);
+        assertEquals(1.0, meterRegistry.counter("tasks.events.dropped.subscribers").count(), 0);
+        assertEquals(1.0, meterRegistry.get("tasks.events.subscribers").gauge().value(), 0);
+        release.countDown();
+    }
+
+    /**
+     * A closed subscription is unsubscribed and completed, and receives no more events.
+     */
+    @Test
+    public void closeTest() throws InterruptedException {
+        //given
+        RecordingSink sink = new RecordingSink(1);
+        TaskEventRegistry.Subscription subscription = taskEventRegistry.subscribe(1L, sink);
+
+        //when
+        subscription.close();
+        taskEventRegistry.publishAfterCommit(Collections.singletonList(1L), Collections.singletonList(event(1L)));
+
+        //then
+        assertTrue(sink.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(sink.events.isEmpty());
+        assertFalse(taskEventRegistry.hasSubscribers());
+    }
+
+    /**
+     * A subscription canceled because its sink ended is unsubscribed without completing the sink again.
+     */
+    @Test
+    public void cancelTest() throws InterruptedException {
+        //given
+        RecordingSink sink = new RecordingSink(1);
+        TaskEventRegistry.Subscription subscription = taskEventRegistry.subscribe(1L, sink);
+
+        //when
+        subscription.cancel();
+        subscription.close();
+        taskEventRegistry.publishAfterCommit(Collections.singletonList(1L), Collections.singletonList(event(1L)));
+
+        //then
+        assertFalse(sink.completed.await(100, TimeUnit.MILLISECONDS));
+        assertTrue(sink.events.isEmpty());
+        assertFalse(taskEventRegistry.hasSubscribers());
+    }
+
+    /**
+     * Closing a feed sends its last event then completes its subscribers.
+     */
+    @Test
+    public void closeAfterCommitTest() throws InterruptedException {
+        //given
+        RecordingSink sink = new RecordingSink(1);
+        taskEventRegistry.subscribe(1L, sink);
+        ResponseTaskEventDto deleted = new ResponseTaskEventDto(TaskEventType.TODOLIST_DELETED, null, null);
+
+        //when
+        taskEventRegistry.closeAfterCommit(1L, deleted);
+
+        //then
+        assertTrue(sink.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(deleted), sink.events);
+        assertFalse(taskEventRegistry.hasSubscribers(1L));
+    }
+
+    private static ResponseTaskEventDto event(long taskId) {
+        return new ResponseTaskEventDto(TaskEventType.UPDATED, taskId, null);
+    }
+
+    private static class RecordingSink implements TaskEventRegistry.Sink {
+
+        private final List<ResponseTaskEventDto> events = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch sent;
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private RecordingSink(int expectedEvents) {
+            this.sent = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(ResponseTaskEventDto event) {
+            events.add(event);
+            sent.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
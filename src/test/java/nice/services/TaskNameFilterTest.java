@@ -0,0 +1,73 @@
+package nice.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nice.daos.TaskDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for TaskNameFilter.
+ *
+ * @author danielctrenado@gmail.com
+ */
+public class TaskNameFilterTest {
+
+    private TaskDao taskDao;
+
+    private MeterRegistry meterRegistry;
+
+    private TaskNameFilter taskNameFilter;
+
+    @Before
+    public void setup() {
+        taskDao = Mockito.mock(TaskDao.class);
+        meterRegistry = new SimpleMeterRegistry();
+        taskNameFilter = new TaskNameFilter(0.01, 1024, meterRegistry);
+        ReflectionTestUtils.setField(taskNameFilter, "taskDao", taskDao);
+    }
+
+    /**
+     * Before the warm up every name may be taken.
+     */
+    @Test
+    public void mightBeTakenTest_beforeWarmUp() {
+        //given
+        List<String> names = Arrays.asList("task1", "task2");
+
+        //when
+        List<String> mightBeTaken = taskNameFilter.mightBeTaken(names);
+
+        //then
+        assertEquals(names, mightBeTaken);
+    }
+
+    /**
+     * After the warm up the names in the database and the names put are kept, and free names are dropped.
+     */
+    @Test
+    public void mightBeTakenTest_afterWarmUp() {
+        //given
+        Mockito.when(taskDao.streamAllNames()).thenReturn(Stream.of("task1", "task2"));
+        taskNameFilter.warmUp();
+        taskNameFilter.put("task3");
+
+        //when
+        List<String> mightBeTaken = taskNameFilter.mightBeTaken(Arrays.asList("task1", "task3", "free"));
+        List<String> noneTaken = taskNameFilter.mightBeTaken(Arrays.asList("free"));
+
+        //then
+        assertTrue(mightBeTaken.containsAll(Arrays.asList("task1", "task3")));
+        assertTrue(noneTaken.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("tasks.name.filter.skipped.lookups").count(), 0.0);
+    }
+}
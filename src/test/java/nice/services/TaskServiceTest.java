@@ -2,26 +2,42 @@ package nice.services;
 
 import nice.constants.Status;
 import nice.daos.TaskDao;
+import nice.daos.TodoListDao;
 import nice.daos.UserDao;
 import nice.dto.RequestTaskDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseUserTaskStatsDto;
+import nice.dto.TaskCountDto;
 import nice.entities.Task;
 import nice.entities.User;
 import nice.exceptions.NotValidParameterException;
 import nice.exceptions.TaskNameAlreadyTakenException;
 import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.UserNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for TaskService.
@@ -36,13 +52,24 @@ public class TaskServiceTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private TodoListDao todoListDao;
+
+    @Mock
+    private TaskNameFilter taskNameFilter;
+
+    @Mock
+    private TaskEventRegistry taskEventRegistry;
+
+    @Mock
+    private ChangeLog changeLog;
 
     @InjectMocks
     private TaskService taskService = new TaskService();
 
     @Before
     public void setup() {
-        MockitoAnnotations.initMocks(this);
+        MockitoAnnotations.openMocks(this);
     }
 
     /**
@@ -66,15 +93,17 @@ public class TaskServiceTest {
         Task expectedTask = new Task(taskName, descTask, status, assignedUser);
         expectedTask.setId(1);
 
-        Mockito.when(taskDao.findByName(taskName)).thenReturn(Optional.empty());
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.of(new User(1, userName)));
-        Mockito.when(taskDao.save(Mockito.any(Task.class))).thenReturn(expectedTask);
+        Mockito.when(userDao.findIdByUserName(userName)).thenReturn(Optional.of(1L));
+        Mockito.when(userDao.getReferenceById(1L)).thenReturn(assignedUser);
+        Mockito.when(taskDao.saveAndFlush(Mockito.any(Task.class))).thenReturn(expectedTask);
 
         //when
         Task actualTask = taskService.createTask(requestTaskDto);
 
         //then
-        Mockito.verify(taskDao, Mockito.times(1)).save(Mockito.any(Task.class));
+        Mockito.verify(taskDao, Mockito.never()).findByName(taskName);
+        Mockito.verify(userDao, Mockito.never()).findByUserName(userName);
+        Mockito.verify(taskDao, Mockito.times(1)).saveAndFlush(Mockito.any(Task.class));
         assertEquals(expectedTask, actualTask);
     }
 
@@ -135,9 +164,28 @@ public class TaskServiceTest {
         String descTask = "descTask";
         Status status = Status.NOT_STARTED;
         RequestTaskDto requestTaskDto = new RequestTaskDto(taskName, descTask, status, null);
-        Task existingTaskWithSameName = new Task(2, taskName, null, null, null);
 
-        Mockito.when(taskDao.findByName(taskName)).thenReturn(Optional.of(existingTaskWithSameName));
+        Mockito.when(taskDao.saveAndFlush(Mockito.any(Task.class))).thenThrow(nameAlreadyTakenViolation());
+
+        //when
+        taskService.createTask(requestTaskDto);
+    }
+
+    /**
+     * Fail scenario for create task when the user to assign does not exist.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If the name of the task already exists.
+     * @throws UserNotFoundException         If the user to assign was not found.
+     */
+    @Test(expected = UserNotFoundException.class)
+    public void createTaskTest_failScenario_userNotFound()
+            throws TaskNameAlreadyTakenException, NotValidParameterException, UserNotFoundException {
+        //given
+        String userName = "joker";
+        RequestTaskDto requestTaskDto = new RequestTaskDto("taskName", "descTask", Status.NOT_STARTED, userName);
+
+        Mockito.when(userDao.findIdByUserName(userName)).thenReturn(Optional.empty());
 
         //when
         taskService.createTask(requestTaskDto);
@@ -166,16 +214,17 @@ public class TaskServiceTest {
         Optional<Task> optionalTask = Optional.of(expectedTask);
 
         Mockito.when(taskDao.findById(idTask)).thenReturn(optionalTask);
-        Mockito.when(taskDao.findByName(taskName)).thenReturn(Optional.empty());
-        Mockito.when(taskDao.save(Mockito.any(Task.class))).thenReturn(expectedTask);
+        Mockito.when(taskDao.saveAndFlush(Mockito.any(Task.class))).thenReturn(expectedTask);
+        Mockito.when(todoListDao.findIdsByTaskId(idTask)).thenReturn(Arrays.asList(2L, 3L));
 
         //when
         Task actualTask = taskService.updateTask(idTask, requestTaskDto);
 
         //then
         Mockito.verify(taskDao, Mockito.times(1)).findById(idTask);
-        Mockito.verify(taskDao, Mockito.times(1)).findByName(taskName);
-        Mockito.verify(taskDao, Mockito.times(1)).save(Mockito.any(Task.class));
+        Mockito.verify(taskDao, Mockito.never()).findByName(taskName);
+        Mockito.verify(taskDao, Mockito.times(1)).saveAndFlush(Mockito.any(Task.class));
+        Mockito.verify(todoListDao, Mockito.times(1)).incrementVersionsByIdIn(Arrays.asList(2L, 3L));
         assertEquals(expectedTask, actualTask);
     }
 
@@ -275,33 +324,278 @@ public class TaskServiceTest {
         RequestTaskDto requestTaskDto = new RequestTaskDto(taskName, descTask, status, userName);
 
         Task task = new Task(taskId, taskName, descTask, status, null);
-        Task existingTaskWithSameName = new Task(2, taskName, null, null, null);
 
         Mockito.when(taskDao.findById(taskId)).thenReturn(Optional.of(task));
-        Mockito.when(taskDao.findByName(taskName)).thenReturn(Optional.of(existingTaskWithSameName));
+        Mockito.when(taskDao.saveAndFlush(Mockito.any(Task.class))).thenThrow(nameAlreadyTakenViolation());
 
         //when
         taskService.updateTask(taskId, requestTaskDto);
     }
 
     /**
-     * Successful scenario for obtain all tasks.
+     * Successful scenario for obtain a keyset page of tasks by status.
+     *
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @Test
+    public void getTasksTest_successfulScenario_keysetPage() throws NotValidParameterException {
+        //given
+        ResponseTaskDto task1 = new ResponseTaskDto(5, "tasK5", "descTask5", Status.IN_PROGRESS, null);
+        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<ResponseTaskDto> expectedPage = new SliceImpl<>(Arrays.asList(task1), pageRequest, true);
+        Mockito.when(taskDao.findDtosByStatusAndIdGreaterThan(Status.IN_PROGRESS, 4L, pageRequest))
+                .thenReturn(expectedPage);
+
+        //when
+        Slice<ResponseTaskDto> actualPage = this.taskService.getTasks(Status.IN_PROGRESS, 4L, 1, null);
+
+        //then
+        assertEquals(expectedPage, actualPage);
+        assertTrue(actualPage.hasNext());
+    }
+
+    /**
+     * Successful scenario for obtain a keyset page of tasks with only some fields, the id is always selected.
+     *
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @Test
+    public void getTasksTest_successfulScenario_sparseFields() throws NotValidParameterException {
+        //given
+        ResponseTaskDto task1 = new ResponseTaskDto(5, null, null, Status.IN_PROGRESS, null);
+        PageRequest pageRequest = PageRequest.of(0, TaskService.DEFAULT_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<ResponseTaskDto> expectedPage = new SliceImpl<>(Arrays.asList(task1), pageRequest, false);
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("id", "status"));
+        Mockito.when(taskDao.findDtos(fields, null, null, 0L, pageRequest)).thenReturn(expectedPage);
+
+        //when
+        Slice<ResponseTaskDto> actualPage = this.taskService.getTasks(null, null, null, "status");
+
+        //then
+        assertEquals(expectedPage, actualPage);
+        Mockito.verify(taskDao, Mockito.never()).findDtosByIdGreaterThan(Mockito.anyLong(),
+                Mockito.any(Pageable.class));
+    }
+
+    /**
+     * Fail scenario for obtain a page of tasks with a field that does not exist.
+     *
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @Test(expected = NotValidParameterException.class)
+    public void getTasksTest_failScenario_unknownField() throws NotValidParameterException {
+        //when
+        this.taskService.getTasks(null, null, null, "status,todoLists");
+    }
+
+    /**
+     * Fail scenario for obtain a page of tasks when the limit is greater than the maximum page size.
+     *
+     * @throws NotValidParameterException If the parameters are not valid.
+     */
+    @Test(expected = NotValidParameterException.class)
+    public void getTasksTest_failScenario_limitTooBig() throws NotValidParameterException {
+        //when
+        this.taskService.getTasks(null, null, TaskService.MAX_PAGE_SIZE + 1, null);
+    }
+
+    /**
+     * Successful scenario for export all tasks.
+     */
+    @Test
+    public void exportTasksTest_successfulScenario() {
+        //given
+        ResponseTaskDto task1 = new ResponseTaskDto(1, "tasK1", "descTask1", Status.IN_PROGRESS, null);
+        ResponseTaskDto task2 = new ResponseTaskDto(2, "tasK2", "descTask2", Status.COMPLETE, null);
+        List<ResponseTaskDto> expectedTasks = Arrays.asList(task1, task2);
+        Mockito.when(taskDao.streamAllDtos()).thenReturn(expectedTasks.stream());
+
+        //when
+        List<ResponseTaskDto> actualTasks = new ArrayList<>();
+        this.taskService.exportTasks(actualTasks::add);
+
+        //then
+        assertEquals(expectedTasks, actualTasks);
+    }
+
+    /**
+     * Successful scenario for create a batch of tasks.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If a name of the tasks already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
+     */
+    @Test
+    public void createTasksTest_successfulScenario()
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        //given
+        String userName = "batman";
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("task1", "desc1", Status.NOT_STARTED, userName),
+                new RequestTaskDto("task2", "desc2", Status.COMPLETE, null));
+        User assignedUser = new User(1, userName);
+        List<Task> expectedTasks = Arrays.asList(
+                new Task(1, "task1", "desc1", Status.NOT_STARTED, assignedUser),
+                new Task(2, "task2", "desc2", Status.COMPLETE, null));
+
+        Mockito.when(taskNameFilter.mightBeTaken(Mockito.anyCollection())).thenReturn(Arrays.asList("task2"));
+        Mockito.when(taskDao.findNamesByNameIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
+        Mockito.when(userDao.findByUserNameIn(Mockito.anyCollection())).thenReturn(Arrays.asList(assignedUser));
+        Mockito.when(taskDao.saveAll(Mockito.anyList())).thenReturn(expectedTasks);
+
+        //when
+        List<Task> actualTasks = taskService.createTasks(requestTaskDtos);
+
+        //then
+        Mockito.verify(taskDao, Mockito.times(1)).findNamesByNameIn(Arrays.asList("task2"));
+        Mockito.verify(taskNameFilter, Mockito.times(1)).put("task1");
+        Mockito.verify(taskNameFilter, Mockito.times(1)).put("task2");
+        Mockito.verify(userDao, Mockito.times(1)).findByUserNameIn(Mockito.anyCollection());
+        Mockito.verify(taskDao, Mockito.times(1)).saveAll(Mockito.anyList());
+        Mockito.verify(taskDao, Mockito.never()).findByName(Mockito.anyString());
+        Mockito.verify(userDao, Mockito.never()).findByUserName(Mockito.anyString());
+        assertEquals(expectedTasks, actualTasks);
+    }
+
+    /**
+     * Successful scenario for count the tasks of each status.
+     */
+    @Test
+    public void getTaskStatsTest_successfulScenario() {
+        //given
+        Mockito.when(taskDao.findStatusCounts()).thenReturn(Arrays.asList(
+                new TaskCountDto(Status.NOT_STARTED, 2), new TaskCountDto(Status.COMPLETE, 5)));
+
+        //when
+        Map<Status, Long> stats = taskService.getTaskStats();
+
+        //then
+        Mockito.verify(taskDao, Mockito.never()).findAll();
+        assertEquals(Long.valueOf(2), stats.get(Status.NOT_STARTED));
+        assertEquals(Long.valueOf(0), stats.get(Status.IN_PROGRESS));
+        assertEquals(Long.valueOf(5), stats.get(Status.COMPLETE));
+    }
+
+    /**
+     * Successful scenario for count the tasks of each status grouped by assigned user.
+     */
+    @Test
+    public void getTaskStatsByUserTest_successfulScenario() {
+        //given
+        Mockito.when(taskDao.findUserStatusCounts()).thenReturn(Arrays.asList(
+                new TaskCountDto(null, null, Status.NOT_STARTED, 1),
+                new TaskCountDto(1L, "batman", Status.NOT_STARTED, 2),
+                new TaskCountDto(1L, "batman", Status.COMPLETE, 3)));
+
+        //when
+        List<ResponseUserTaskStatsDto> stats = taskService.getTaskStatsByUser();
+
+        //then
+        assertEquals(2, stats.size());
+        assertEquals(null, stats.get(0).getResponseUserDto());
+        assertEquals(Long.valueOf(1), stats.get(0).getCounts().get(Status.NOT_STARTED));
+        assertEquals("batman", stats.get(1).getResponseUserDto().getUserName());
+        assertEquals(Long.valueOf(2), stats.get(1).getCounts().get(Status.NOT_STARTED));
+        assertEquals(Long.valueOf(0), stats.get(1).getCounts().get(Status.IN_PROGRESS));
+        assertEquals(Long.valueOf(3), stats.get(1).getCounts().get(Status.COMPLETE));
+    }
+
+    /**
+     * Fail scenario for create a batch of tasks when a name is repeated in the batch.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If a name of the tasks already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
+     */
+    @Test(expected = TaskNameAlreadyTakenException.class)
+    public void createTasksTest_failScenario_nameRepeated()
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        //given
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("task1", "desc1", Status.NOT_STARTED, null),
+                new RequestTaskDto("task1", "desc2", Status.COMPLETE, null));
+
+        //when
+        taskService.createTasks(requestTaskDtos);
+    }
+
+    /**
+     * Fail scenario for create a batch of tasks when a name already exists.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If a name of the tasks already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
+     */
+    @Test(expected = TaskNameAlreadyTakenException.class)
+    public void createTasksTest_failScenario_nameAlreadyExists()
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        //given
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("task1", "desc1", Status.NOT_STARTED, null),
+                new RequestTaskDto("task2", "desc2", Status.COMPLETE, null));
+        Mockito.when(taskNameFilter.mightBeTaken(Mockito.anyCollection())).thenReturn(Arrays.asList("task2"));
+        Mockito.when(taskDao.findNamesByNameIn(Mockito.anyCollection())).thenReturn(Arrays.asList("task2"));
+
+        //when
+        taskService.createTasks(requestTaskDtos);
+    }
+
+    /**
+     * Fail scenario for create a batch of tasks when a user to assign is not found.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If a name of the tasks already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
+     */
+    @Test(expected = UserNotFoundException.class)
+    public void createTasksTest_failScenario_userNotFound()
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
+        //given
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("task1", "desc1", Status.NOT_STARTED, "batman"));
+        Mockito.when(taskDao.findNamesByNameIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
+        Mockito.when(userDao.findByUserNameIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
+
+        //when
+        taskService.createTasks(requestTaskDtos);
+    }
+
+    /**
+     * Successful scenario for create a batch of tasks when the name filter rules out every name.
+     *
+     * @throws NotValidParameterException    If we have an invalid parameter.
+     * @throws TaskNameAlreadyTakenException If a name of the tasks already exists.
+     * @throws UserNotFoundException         If a user to assign was not found.
      */
     @Test
-    public void getAllTasksTest_successfulScenario() {
+    public void createTasksTest_successfulScenario_namesLookupSkipped()
+            throws NotValidParameterException, TaskNameAlreadyTakenException, UserNotFoundException {
         //given
-        Task task1 = new Task(1, "tasK1", "descTask1", Status.IN_PROGRESS, null);
-        Task task2 = new Task(2, "tasK2", "descTask2", Status.COMPLETE, null);
+        List<RequestTaskDto> requestTaskDtos = Arrays.asList(
+                new RequestTaskDto("task1", "desc1", Status.NOT_STARTED, null));
+        List<Task> expectedTasks = Arrays.asList(new Task(1, "task1", "desc1", Status.NOT_STARTED, null));
 
-        List<Task> expectedTasks = Arrays.asList(task1, task2);
-        Mockito.when(taskDao.findAll()).thenReturn(expectedTasks);
+        Mockito.when(taskNameFilter.mightBeTaken(Mockito.anyCollection())).thenReturn(new ArrayList<>());
+        Mockito.when(taskDao.saveAll(Mockito.anyList())).thenReturn(expectedTasks);
 
         //when
-        List<Task> actualTasks = (List<Task>) this.taskService.getAllTasks();
+        List<Task> actualTasks = taskService.createTasks(requestTaskDtos);
 
         //then
+        Mockito.verify(taskDao, Mockito.never()).findNamesByNameIn(Mockito.anyCollection());
+        Mockito.verify(taskNameFilter, Mockito.times(1)).put("task1");
         assertEquals(expectedTasks, actualTasks);
     }
 
+    /**
+     * Builds the exception raised when the unique constraint on the name of the tasks is violated.
+     *
+     * @return The data integrity violation.
+     */
+    private DataIntegrityViolationException nameAlreadyTakenViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", null,
+                        "\"UK_TASKS_NAME_INDEX_4"));
+    }
 
-}
\ No newline at end of file
+}
@@ -1,25 +1,44 @@
 package nice.services;
 
 import nice.constants.Status;
+import nice.constants.TaskEventType;
 import nice.daos.TaskDao;
 import nice.daos.TodoListDao;
 import nice.dto.RequestTodoListDto;
+import nice.dto.ResponseTaskDto;
+import nice.dto.ResponseTaskEventDto;
+import nice.dto.ResponseTodoListSummaryDto;
+import nice.dto.TaskCountDto;
 import nice.entities.Task;
 import nice.entities.TodoList;
 import nice.exceptions.NotValidParameterException;
+import nice.exceptions.TaskNotFoundException;
 import nice.exceptions.TodoListNameAlreadyTakenException;
+import nice.exceptions.TodoListNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for TodoListService.
@@ -34,23 +53,30 @@ public class TodoListServiceTest {
     @Mock
     private TaskDao taskDao;
 
+    @Mock
+    private TaskEventRegistry taskEventRegistry;
+
+    @Mock
+    private ChangeLog changeLog;
+
     @InjectMocks
     private TodoListService todoListService = new TodoListService();
 
     @Before
     public void setup() {
-        MockitoAnnotations.initMocks(this);
+        MockitoAnnotations.openMocks(this);
     }
 
     /**
      * Successful Scenario for create todolist.
      *
      * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TaskNotFoundException             If a task of the todolist is not found.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
     @Test
     public void createTodoListTest_successfulScenario()
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         //given
         String todoListName = "todoListName";
         List<Long> tasks = Arrays.asList(1L);
@@ -58,27 +84,94 @@ public class TodoListServiceTest {
         Task task1 = new Task(1, todoListName, "taskDesc", Status.NOT_STARTED, null);
         TodoList expectedTodoList = new TodoList(1, todoListName, Arrays.asList(task1));
 
-        Mockito.when(todoListDao.findByName(todoListName)).thenReturn(Optional.empty());
-        Mockito.when(taskDao.findById(1L)).thenReturn(Optional.of(task1));
-        Mockito.when(todoListDao.save(Mockito.any(TodoList.class))).thenReturn(expectedTodoList);
+        Mockito.when(taskDao.findAllById(Arrays.asList(1L))).thenReturn(Arrays.asList(task1));
+        Mockito.when(todoListDao.saveAndFlush(Mockito.any(TodoList.class))).thenReturn(expectedTodoList);
 
         //when
         TodoList actualTodoList = todoListService.createTodoList(requestTodoListDto);
 
         //then
-        Mockito.verify(todoListDao, Mockito.times(1)).save(Mockito.any(TodoList.class));
+        Mockito.verify(todoListDao, Mockito.never()).findByName(todoListName);
+        Mockito.verify(todoListDao, Mockito.times(1)).saveAndFlush(Mockito.any(TodoList.class));
         assertEquals(expectedTodoList, actualTodoList);
     }
 
+    /**
+     * Successful Scenario for create todolist with more tasks than the ids of a query, resolved by chunks and kept
+     * in the order requested without duplicates.
+     *
+     * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TaskNotFoundException             If a task of the todolist is not found.
+     * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
+     */
+    @Test
+    public void createTodoListTest_successfulScenario_tasksByChunks()
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
+        //given
+        int size = TodoListService.TASK_IDS_CHUNK_SIZE * 2 + 1;
+        List<Long> ids = new ArrayList<>();
+        for (long id = size; id >= 1; id--) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        RequestTodoListDto requestTodoListDto = new RequestTodoListDto("todoListName", ids);
+        Mockito.when(taskDao.findAllById(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = new ArrayList<>();
+            for (Long id : (List<Long>) invocation.getArguments()[0]) {
+                tasks.add(0, new Task(id, "task" + id, "taskDesc", Status.NOT_STARTED, null));
+            }
+            return tasks;
+        });
+        Mockito.when(todoListDao.saveAndFlush(Mockito.any(TodoList.class))).thenAnswer(
+                invocation -> invocation.getArguments()[0]);
+
+        //when
+        TodoList actualTodoList = todoListService.createTodoList(requestTodoListDto);
+
+        //then
+        Mockito.verify(taskDao, Mockito.times(3)).findAllById(Mockito.anyList());
+        Mockito.verify(taskDao, Mockito.never()).findById(Mockito.anyLong());
+        assertEquals(size, actualTodoList.getTasks().size());
+        List<Task> actualTasks = new ArrayList<>(actualTodoList.getTasks());
+        assertEquals(size, actualTasks.get(0).getId());
+        assertEquals(1, actualTasks.get(size - 1).getId());
+    }
+
+    /**
+     * Fail scenario for create todolist when some of its tasks are not found, all of them are reported.
+     *
+     * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
+     */
+    @Test
+    public void createTodoListTest_failScenario_tasksNotFound()
+            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+        //given
+        RequestTodoListDto requestTodoListDto = new RequestTodoListDto("todoListName", Arrays.asList(1L, 2L, 3L));
+        Task task2 = new Task(2, "task2", "taskDesc", Status.NOT_STARTED, null);
+        Mockito.when(taskDao.findAllById(Arrays.asList(1L, 2L, 3L))).thenReturn(Arrays.asList(task2));
+
+        //when
+        try {
+            todoListService.createTodoList(requestTodoListDto);
+            fail("TaskNotFoundException expected.");
+        } catch (TaskNotFoundException e) {
+            //then
+            assertTrue(e.getMessage().contains("[1, 3]"));
+            Mockito.verify(todoListDao, Mockito.never()).saveAndFlush(Mockito.any(TodoList.class));
+        }
+    }
+
     /**
      * Fail scenario for create todolist when name of the todolist is null.
      *
      * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TaskNotFoundException             If a task of the todolist is not found.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
     @Test(expected = NotValidParameterException.class)
     public void createTodoListTest_failScenario_nameNull()
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         //given
         String todoListName = null;
         RequestTodoListDto requestTodoListDto = new RequestTodoListDto(todoListName, null);
@@ -91,11 +184,12 @@ public class TodoListServiceTest {
      * Fail scenario for create todolist when name of the todolist is empty.
      *
      * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TaskNotFoundException             If a task of the todolist is not found.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
     @Test(expected = NotValidParameterException.class)
     public void createTodoListTest_failScenario_nameEmpty()
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         //given
         String todoListName = "";
         RequestTodoListDto requestTodoListDto = new RequestTodoListDto(todoListName, null);
@@ -108,25 +202,354 @@ public class TodoListServiceTest {
      * Fail scenario for create todoList when name of the todolist already exits.
      *
      * @throws NotValidParameterException        If we have an invalid parameter.
+     * @throws TaskNotFoundException             If a task of the todolist is not found.
      * @throws TodoListNameAlreadyTakenException If the name of the todolist already exists.
      */
     @Test(expected = TodoListNameAlreadyTakenException.class)
     public void createTodoListTest_failScenario_nameAlreadyExists()
-            throws NotValidParameterException, TodoListNameAlreadyTakenException {
+            throws NotValidParameterException, TaskNotFoundException, TodoListNameAlreadyTakenException {
         //given
         String todoListName = "todoListName";
         List<Long> tasks = Arrays.asList(1L);
         RequestTodoListDto requestTodoListDto = new RequestTodoListDto(todoListName, tasks);
         Task task1 = new Task(1, todoListName, "taskDesc", Status.NOT_STARTED, null);
-        TodoList expectedTodoList = new TodoList(1, todoListName, Arrays.asList(task1));
-        TodoList existingTodoList = new TodoList(2, todoListName, null);
 
-        Mockito.when(todoListDao.findByName(todoListName)).thenReturn(Optional.of(existingTodoList));
-        Mockito.when(taskDao.findById(1L)).thenReturn(Optional.of(task1));
+        Mockito.when(taskDao.findAllById(Arrays.asList(1L))).thenReturn(Arrays.asList(task1));
+        Mockito.when(todoListDao.saveAndFlush(Mockito.any(TodoList.class))).thenThrow(
+                new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Unique index or primary key violation", null,
+                                "\"UK_TODOLISTS_NAME_INDEX_B")));
 
         //when
         todoListService.createTodoList(requestTodoListDto);
     }
 
+    /**
+     * Successful scenario for count the tasks of each status in a todolist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    public void getTodoListStatsTest_successfulScenario()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(todoListDao.findStatusCountsById(1L)).thenReturn(Arrays.asList(
+                new TaskCountDto(Status.IN_PROGRESS, 4)));
+
+        //when
+        Map<Status, Long> stats = todoListService.getTodoListStats(1L);
+
+        //then
+        Mockito.verify(todoListDao, Mockito.never()).existsById(1L);
+        assertEquals(Long.valueOf(0), stats.get(Status.NOT_STARTED));
+        assertEquals(Long.valueOf(4), stats.get(Status.IN_PROGRESS));
+        assertEquals(Long.valueOf(0), stats.get(Status.COMPLETE));
+    }
+
+    /**
+     * Fail scenario for count the tasks of each status in a todolist that does not exist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test(expected = TodoListNotFoundException.class)
+    public void getTodoListStatsTest_failScenario_todoListNotFound()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(todoListDao.findStatusCountsById(1L)).thenReturn(new ArrayList<>());
+        Mockito.when(todoListDao.existsById(1L)).thenReturn(false);
+
+        //when
+        todoListService.getTodoListStats(1L);
+    }
+
+    /**
+     * Successful scenario for get the version of a todolist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    public void getTodoListVersionTest_successfulScenario()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(todoListDao.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        //when
+        long version = todoListService.getTodoListVersion(1L);
+
+        //then
+        Mockito.verify(todoListDao, Mockito.never()).findById(1L);
+        assertEquals(3L, version);
+    }
+
+    /**
+     * Fail scenario for get the version of a todolist that does not exist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test(expected = TodoListNotFoundException.class)
+    public void getTodoListVersionTest_failScenario_todoListNotFound()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(todoListDao.findVersionById(1L)).thenReturn(Optional.empty());
+
+        //when
+        todoListService.getTodoListVersion(1L);
+    }
+
+    /**
+     * Successful scenario for get the summaries of a page of todolists after a cursor.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     */
+    @Test
+    public void getTodoListSummariesTest_successfulScenario() throws NotValidParameterException {
+        //given
+        ResponseTodoListSummaryDto summary = new ResponseTodoListSummaryDto(2, "todolist2", 3, 1, 0, 2);
+        Mockito.when(todoListDao.findSummariesByIdGreaterThan(Mockito.eq(1L), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(summary)));
+
+        //when
+        Slice<ResponseTodoListSummaryDto> summaries = todoListService.getTodoListSummaries(1L, 10);
+
+        //then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(todoListDao).findSummariesByIdGreaterThan(Mockito.eq(1L), pageable.capture());
+        assertEquals(0, pageable.getValue().getPageNumber());
+        assertEquals(10, pageable.getValue().getPageSize());
+        assertEquals(Arrays.asList(summary), summaries.getContent());
+        assertEquals(Long.valueOf(2), summaries.getContent().get(0).getCounts().get(Status.COMPLETE));
+        Mockito.verify(todoListDao, Mockito.never()).findAll();
+    }
+
+    /**
+     * Fail scenario for get the summaries of todolists with a limit greater than the maximum page size.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     */
+    @Test(expected = NotValidParameterException.class)
+    public void getTodoListSummariesTest_failScenario_limitTooLarge() throws NotValidParameterException {
+        //when
+        todoListService.getTodoListSummaries(null, TaskService.MAX_PAGE_SIZE + 1);
+    }
+
+    /**
+     * Successful scenario for get a page of the tasks of a todolist sorted by name, the id breaks the ties.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    public void getTodoListTasksTest_successfulScenario_sortedByName()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        ResponseTaskDto task = new ResponseTaskDto(2, "task2", "taskDesc", Status.COMPLETE, null);
+        Mockito.when(taskDao.findDtosByTodoListIdAndStatusAndIdGreaterThan(Mockito.eq(1L), Mockito.eq(Status.COMPLETE),
+                Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(new SliceImpl<>(Arrays.asList(task)));
+
+        //when
+        Slice<ResponseTaskDto> tasks = todoListService.getTodoListTasks(1L, Status.COMPLETE, "-name", 3, null, 10,
+                null);
+
+        //then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(taskDao).findDtosByTodoListIdAndStatusAndIdGreaterThan(Mockito.eq(1L),
+                Mockito.eq(Status.COMPLETE), Mockito.eq(0L), pageable.capture());
+        assertEquals(3, pageable.getValue().getPageNumber());
+        assertEquals(10, pageable.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "name", "id"), pageable.getValue().getSort());
+        assertEquals(Arrays.asList(task), tasks.getContent());
+        Mockito.verify(todoListDao, Mockito.never()).findById(1L);
+    }
+
+    /**
+     * Fail scenario for get the tasks of a todolist with a keyset cursor when they are not sorted by id.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test(expected = NotValidParameterException.class)
+    public void getTodoListTasksTest_failScenario_cursorNotSortedById()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //when
+        todoListService.getTodoListTasks(1L, null, "status", null, 5L, null, null);
+    }
+
+    /**
+     * Fail scenario for get the tasks of a todolist that does not exist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test(expected = TodoListNotFoundException.class)
+    public void getTodoListTasksTest_failScenario_todoListNotFound()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(taskDao.findDtosByTodoListIdAndIdGreaterThan(Mockito.eq(1L), Mockito.eq(0L),
+                Mockito.any(Pageable.class))).thenReturn(new SliceImpl<>(new ArrayList<>()));
+        Mockito.when(todoListDao.existsById(1L)).thenReturn(false);
+
+        //when
+        todoListService.getTodoListTasks(1L, null, null, null, null, null, null);
+    }
+
+    /**
+     * Successful scenario for add tasks to a todolist, only the rows of the tasks are inserted.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     * @throws TaskNotFoundException      If a task is not found.
+     */
+    @Test
+    public void addTodoListTasksTest_successfulScenario()
+            throws NotValidParameterException, TodoListNotFoundException, TaskNotFoundException {
+        //given
+        Mockito.when(todoListDao.incrementVersionById(1L)).thenReturn(1);
+        Mockito.when(todoListDao.insertTasks(1L, Arrays.asList(2L, 3L))).thenReturn(2);
+
+        //when
+        todoListService.addTodoListTasks(1L, Arrays.asList(2L, 3L, 2L));
+
+        //then
+        Mockito.verify(todoListDao, Mockito.never()).findById(1L);
+        Mockito.verify(taskDao, Mockito.never()).findIdsByIdIn(Mockito.anyList());
+    }
+
+    /**
+     * Successful scenario for add tasks to a todolist when some of them are already in the todolist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     * @throws TaskNotFoundException      If a task is not found.
+     */
+    @Test
+    public void addTodoListTasksTest_successfulScenario_tasksAlreadyAdded()
+            throws NotValidParameterException, TodoListNotFoundException, TaskNotFoundException {
+        //given
+        Mockito.when(todoListDao.incrementVersionById(1L)).thenReturn(1);
+        Mockito.when(todoListDao.insertTasks(1L, Arrays.asList(2L, 3L))).thenReturn(1);
+        Mockito.when(taskDao.findIdsByIdIn(Arrays.asList(2L, 3L))).thenReturn(Arrays.asList(2L, 3L));
+
+        //when
+        todoListService.addTodoListTasks(1L, Arrays.asList(2L, 3L));
+    }
+
+    /**
+     * Fail scenario for add tasks to a todolist when some of them are not found, all of them are reported.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    public void addTodoListTasksTest_failScenario_tasksNotFound()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Mockito.when(todoListDao.incrementVersionById(1L)).thenReturn(1);
+        Mockito.when(todoListDao.insertTasks(1L, Arrays.asList(2L, 3L, 4L))).thenReturn(1);
+        Mockito.when(taskDao.findIdsByIdIn(Arrays.asList(2L, 3L, 4L))).thenReturn(Arrays.asList(3L));
+
+        //when
+        try {
+            todoListService.addTodoListTasks(1L, Arrays.asList(2L, 3L, 4L));
+            fail("TaskNotFoundException expected.");
+        } catch (TaskNotFoundException e) {
+            //then
+            assertTrue(e.getMessage().contains("[2, 4]"));
+        }
+    }
+
+    /**
+     * Fail scenario for add tasks to a todolist that does not exist.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     * @throws TaskNotFoundException      If a task is not found.
+     */
+    @Test(expected = TodoListNotFoundException.class)
+    public void addTodoListTasksTest_failScenario_todoListNotFound()
+            throws NotValidParameterException, TodoListNotFoundException, TaskNotFoundException {
+        //given
+        Mockito.when(todoListDao.incrementVersionById(1L)).thenReturn(0);
+
+        //when
+        try {
+            todoListService.addTodoListTasks(1L, Arrays.asList(2L));
+        } finally {
+            //then
+            Mockito.verify(todoListDao, Mockito.never()).insertTasks(Mockito.anyLong(), Mockito.anyList());
+        }
+    }
+
+    /**
+     * Successful scenario for remove tasks from a todolist, by chunks of ids.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    public void removeTodoListTasksTest_successfulScenario()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= TodoListService.TASK_IDS_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        Mockito.when(todoListDao.incrementVersionById(1L)).thenReturn(1);
+
+        //when
+        todoListService.removeTodoListTasks(1L, ids);
+
+        //then
+        Mockito.verify(todoListDao, Mockito.times(2)).deleteTasks(Mockito.eq(1L), Mockito.anyList());
+    }
+
+    /**
+     * Fail scenario for remove tasks from a todolist when the id of a task is null.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test(expected = NotValidParameterException.class)
+    public void removeTodoListTasksTest_failScenario_taskIdNull()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //when
+        todoListService.removeTodoListTasks(1L, Arrays.asList(2L, null));
+    }
+
+    /**
+     * Successful scenario for delete todolist, the tasks deleted in cascade are published to the feed of all the
+     * tasks.
+     *
+     * @throws NotValidParameterException If we have an invalid parameter.
+     * @throws TodoListNotFoundException  If the todolist is not found.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deleteTodoListTest_successfulScenario()
+            throws NotValidParameterException, TodoListNotFoundException {
+        //given
+        Task task1 = new Task(1, "task1", "taskDesc", Status.NOT_STARTED, null);
+        Task task2 = new Task(2, "task2", "taskDesc", Status.COMPLETE, null);
+        TodoList todoList = new TodoList(1, "todoListName", new ArrayList<>(Arrays.asList(task1, task2)));
+        Mockito.when(todoListDao.findById(1L)).thenReturn(Optional.of(todoList));
+        Mockito.when(todoListDao.findIdsByTaskIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(1L));
+        Mockito.when(taskEventRegistry.hasSubscribers(TaskEventRegistry.ALL_TASKS)).thenReturn(true);
+        ArgumentCaptor<List<ResponseTaskEventDto>> events = ArgumentCaptor.forClass(List.class);
+
+        //when
+        todoListService.deleteTodoList(1L);
+
+        //then
+        Mockito.verify(todoListDao, Mockito.times(1)).deleteById(1L);
+        Mockito.verify(taskEventRegistry, Mockito.times(1)).publishAfterCommit(
+                Mockito.eq(Collections.singletonList(TaskEventRegistry.ALL_TASKS)), events.capture());
+        assertEquals(Arrays.asList(new ResponseTaskEventDto(TaskEventType.DELETED, 1L, null),
+                new ResponseTaskEventDto(TaskEventType.DELETED, 2L, null)), events.getValue());
+        Mockito.verify(taskEventRegistry, Mockito.times(1)).closeAfterCommit(Mockito.eq(1L),
+                Mockito.any(ResponseTaskEventDto.class));
+    }
 
-}
\ No newline at end of file
+}
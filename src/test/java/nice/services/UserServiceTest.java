@@ -1,16 +1,23 @@
 package nice.services;
 
+import nice.constants.ChangeType;
+import nice.constants.Status;
+import nice.daos.TaskDao;
+import nice.daos.TodoListDao;
 import nice.daos.UserDao;
 import nice.exceptions.NotValidParameterException;
 import nice.exceptions.UserNameAlreadyTakenException;
 import nice.exceptions.UserNotFoundException;
+import nice.entities.Task;
 import nice.entities.User;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Tests for UserService.
@@ -29,12 +37,21 @@ public class UserServiceTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private TodoListDao todoListDao;
+
+    @Mock
+    private TaskDao taskDao;
+
+    @Mock
+    private ChangeLog changeLog;
+
     @InjectMocks
     private UserService userService = new UserService();
 
     @Before
     public void setup() {
-        MockitoAnnotations.initMocks(this);
+        MockitoAnnotations.openMocks(this);
     }
 
     /**
@@ -49,14 +66,14 @@ public class UserServiceTest {
         //given
         String userName = "batman";
         User expectedUser = new User(1, userName);
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.empty());
-        Mockito.when(userDao.save(Mockito.any(User.class))).thenReturn(expectedUser);
+        Mockito.when(userDao.saveAndFlush(Mockito.any(User.class))).thenReturn(expectedUser);
 
         //when
         User actualUser = userService.createUser(userName);
 
         //then
-        Mockito.verify(userDao, Mockito.times(1)).save(Mockito.any(User.class));
+        Mockito.verify(userDao, Mockito.never()).findByUserName(userName);
+        Mockito.verify(userDao, Mockito.times(1)).saveAndFlush(Mockito.any(User.class));
         assertEquals(expectedUser, actualUser);
     }
 
@@ -87,7 +104,7 @@ public class UserServiceTest {
             throws NotValidParameterException, UserNameAlreadyTakenException {
         //given
         String userName = "batman";
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.of(new User(1, userName)));
+        Mockito.when(userDao.saveAndFlush(Mockito.any(User.class))).thenThrow(userNameAlreadyTakenViolation());
 
         //when
         userService.createUser(userName);
@@ -104,7 +121,7 @@ public class UserServiceTest {
             throws NotValidParameterException, UserNameAlreadyTakenException {
         //given
         String userName = "batman";
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.of(new User(1, userName)));
+        Mockito.when(userDao.saveAndFlush(Mockito.any(User.class))).thenThrow(userNameAlreadyTakenViolation());
 
         //when
         userService.createUser(userName);
@@ -128,16 +145,17 @@ public class UserServiceTest {
         Optional<User> optionalUser = Optional.of(expectedUser);
 
         Mockito.when(userDao.findById(id)).thenReturn(optionalUser);
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.empty());
-        Mockito.when(userDao.save(Mockito.any(User.class))).thenReturn(expectedUser);
+        Mockito.when(userDao.saveAndFlush(Mockito.any(User.class))).thenReturn(expectedUser);
+        Mockito.when(todoListDao.findIdsByUserId(id)).thenReturn(Arrays.asList(2L, 3L));
 
         //when
         User actualUser = userService.updateUser(id, userName);
 
         //then
         Mockito.verify(userDao, Mockito.times(1)).findById(id);
-        Mockito.verify(userDao, Mockito.times(1)).findByUserName(userName);
-        Mockito.verify(userDao, Mockito.times(1)).save(Mockito.any(User.class));
+        Mockito.verify(userDao, Mockito.never()).findByUserName(userName);
+        Mockito.verify(userDao, Mockito.times(1)).saveAndFlush(Mockito.any(User.class));
+        Mockito.verify(todoListDao, Mockito.times(1)).incrementVersionsByIdIn(Arrays.asList(2L, 3L));
         assertEquals(expectedUser, actualUser);
     }
 
@@ -209,11 +227,11 @@ public class UserServiceTest {
     public void updateUserTest_failScenario_userNameAlreadyExists()
             throws NotValidParameterException, UserNameAlreadyTakenException, UserNotFoundException {
         //given
-        long id = 1, idUsed = 2;
+        long id = 1;
         String userName = "batman";
 
         Mockito.when(userDao.findById(id)).thenReturn(Optional.of(new User(id, userName)));
-        Mockito.when(userDao.findByUserName(userName)).thenReturn(Optional.of(new User(idUsed, userName)));
+        Mockito.when(userDao.saveAndFlush(Mockito.any(User.class))).thenThrow(userNameAlreadyTakenViolation());
 
         //when
         userService.updateUser(id, userName);
@@ -238,6 +256,36 @@ public class UserServiceTest {
         //then
         Mockito.verify(userDao, Mockito.times(1)).findById(id);
         Mockito.verify(userDao, Mockito.times(1)).delete(Mockito.any(User.class));
+        Mockito.verify(todoListDao, Mockito.never()).incrementVersionsByIdIn(Mockito.anyCollection());
+    }
+
+    /**
+     * Successful scenario for delete user when the user is assigned to tasks, which are unassigned and whose
+     * todolists are bumped.
+     *
+     * @throws NotValidParameterException If the parameters are not valid.
+     * @throws UserNotFoundException If the user is not found.
+     */
+    @Test
+    public void deleteUserTest_successfulScenario_userAssignedToTasks()
+            throws NotValidParameterException, UserNotFoundException {
+        //given
+        long id = 1;
+        User user = new User(id, "batman");
+        Task task = new Task(4, "task4", "desc task4", Status.NOT_STARTED, user);
+        Mockito.when(userDao.findById(id)).thenReturn(Optional.of(user));
+        Mockito.when(taskDao.findIdsByUserId(id)).thenReturn(Arrays.asList(4L));
+        Mockito.when(taskDao.findAllById(Arrays.asList(4L))).thenReturn(Arrays.asList(task));
+        Mockito.when(todoListDao.findIdsByUserId(id)).thenReturn(Arrays.asList(2L));
+
+        //when
+        this.userService.deleteUser(id);
+
+        //then
+        assertNull(task.getUser());
+        Mockito.verify(todoListDao, Mockito.times(1)).incrementVersionsByIdIn(Arrays.asList(2L));
+        Mockito.verify(changeLog, Mockito.times(1)).changed(ChangeType.TASK, Arrays.asList(4L));
+        Mockito.verify(userDao, Mockito.times(1)).delete(user);
     }
 
     /**
@@ -290,5 +338,15 @@ public class UserServiceTest {
         assertEquals(expectedUsers, actualUsers);
     }
 
+    /**
+     * Builds the exception raised when the unique constraint on the userName of the users is violated.
+     *
+     * @return The data integrity violation.
+     */
+    private DataIntegrityViolationException userNameAlreadyTakenViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", null,
+                        "\"UK_USERS_USER_NAME_INDEX_4"));
+    }
 
-}
\ No newline at end of file
+}